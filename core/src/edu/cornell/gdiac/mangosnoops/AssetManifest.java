@@ -0,0 +1,172 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The assets a screen needs, loaded and unloaded together on the AssetManager.
+ *
+ * The AssetManager counts references: every load of an asset must be matched
+ * by one unload, and the asset is only freed when the last one is unloaded.
+ * A manifest holds exactly one reference to each of its assets between
+ * preLoad and unload, so screens that share assets (e.g. two levels in a row)
+ * keep them resident as long as the next screen is loaded before the last
+ * one is unloaded.
+ *
+ * Images that are drawn together can be added as an atlas (see AtlasLookup)
+ * and fetched with getRegion, whether or not the atlas has been built.
+ */
+public class AssetManifest {
+    /** The assets of this manifest */
+    private Array<AssetDescriptor> assets;
+    /** Whether this manifest holds a reference to its assets */
+    private boolean queued;
+    /** Names of the atlases of this manifest, and the images packed into each */
+    private Array<String> atlases;
+    private Array<String[]> atlasFiles;
+    /** Regions of the atlases, found once they have loaded */
+    private AtlasLookup regions;
+
+    public AssetManifest() {
+        assets = new Array<AssetDescriptor>();
+        atlases = new Array<String>();
+        atlasFiles = new Array<String[]>();
+    }
+
+    /**
+     * Add a texture to this manifest.
+     *
+     * @param file the texture file
+     * @return this manifest, for chaining
+     */
+    public AssetManifest addTexture(String file) {
+        return add(new AssetDescriptor<Texture>(file, Texture.class));
+    }
+
+    /**
+     * Add an atlas to this manifest: the atlas file if it has been built, or
+     * else each of its images.
+     *
+     * @param atlas the atlas name
+     * @param files the images packed into the atlas
+     * @return this manifest, for chaining
+     */
+    public AssetManifest addAtlas(String atlas, String[] files) {
+        if (AtlasLookup.isBuilt(atlas)) {
+            add(new AssetDescriptor<TextureAtlas>(AtlasLookup.atlasFile(atlas), TextureAtlas.class));
+        } else {
+            for (String f : files) {
+                addTexture(f);
+            }
+        }
+        atlases.add(atlas);
+        atlasFiles.add(files);
+        return this;
+    }
+
+    /**
+     * Add an asset that needs loader parameters (e.g. a font size).
+     */
+    public <T> AssetManifest add(String file, Class<T> type, AssetLoaderParameters<T> params) {
+        return add(new AssetDescriptor<T>(file, type, params));
+    }
+
+    private AssetManifest add(AssetDescriptor asset) {
+        if (queued) {
+            throw new RuntimeException("Cannot add " + asset.fileName + " to a loaded manifest");
+        }
+        assets.add(asset);
+        return this;
+    }
+
+    /**
+     * Return whether this manifest holds a reference to its assets.
+     */
+    public boolean isQueued() { return queued; }
+
+    /**
+     * Queue every asset of this manifest, taking one reference to each.
+     *
+     * Does nothing if the manifest is already queued.
+     *
+     * @param manager Reference to global asset manager.
+     */
+    public void preLoad(AssetManager manager) {
+        if (queued) {
+            return;
+        }
+        for (AssetDescriptor asset : assets) {
+            manager.load(asset);
+        }
+        queued = true;
+    }
+
+    /**
+     * Block until every asset of this manifest has been loaded. Assets queued
+     * before them are loaded too, but anything queued after is left for later.
+     *
+     * @param manager Reference to global asset manager.
+     */
+    public void finishLoading(AssetManager manager) {
+        for (AssetDescriptor asset : assets) {
+            while (!manager.isLoaded(asset.fileName)) {
+                manager.update();
+            }
+        }
+    }
+
+    /**
+     * Return a texture of this manifest, which must have finished loading.
+     *
+     * @param manager Reference to global asset manager.
+     * @param file the texture file
+     */
+    public Texture getTexture(AssetManager manager, String file) {
+        Texture t = manager.get(file, Texture.class);
+        t.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        return t;
+    }
+
+    /**
+     * Return the region of an image in one of this manifest's atlases, which
+     * must have finished loading.
+     *
+     * @param manager Reference to global asset manager.
+     * @param file the image file, as listed in its atlas
+     * @throws RuntimeException if no atlas of this manifest has the image
+     */
+    public TextureRegion getRegion(AssetManager manager, String file) {
+        if (regions == null) {
+            regions = new AtlasLookup();
+            for (int i = 0; i < atlases.size; i++) {
+                regions.load(manager, atlases.get(i), atlasFiles.get(i));
+            }
+        }
+        return regions.getRegion(file);
+    }
+
+    /**
+     * Release this manifest's reference to each of its assets. Assets no other
+     * manifest refers to are freed.
+     *
+     * Does nothing if the manifest is not queued.
+     *
+     * @param manager Reference to global asset manager.
+     */
+    public void unload(AssetManager manager) {
+        if (!queued) {
+            return;
+        }
+        for (AssetDescriptor asset : assets) {
+            // Also cancels an asset that is still in the queue
+            manager.unload(asset.fileName);
+        }
+        regions = null;
+        queued = false;
+    }
+}
@@ -0,0 +1,124 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Finds images in the texture atlases packed by desktop:packAtlases.
+ *
+ * A screen lists the images it wants packed together in a manifest: an atlas
+ * name and the image files. If that atlas has been built, preLoad queues the
+ * atlas instead of the separate images and getRegion returns each image's
+ * region of it, so that everything in the atlas draws from one texture.
+ *
+ * If the atlas has not been built (e.g. running from a fresh checkout), the
+ * images are loaded on their own and returned as regions covering their whole
+ * texture, so callers never need to know which happened.
+ */
+public class AtlasLookup {
+    /** Where desktop:packAtlases writes the atlases, relative to the assets */
+    public static final String ATLAS_DIR = "atlases/";
+
+    /** Regions of every manifest loaded so far, by region name */
+    private ObjectMap<String,TextureRegion> regions;
+
+    public AtlasLookup() {
+        regions = new ObjectMap<String,TextureRegion>();
+    }
+
+    /**
+     * Return the file of an atlas.
+     *
+     * @param atlas the atlas name from a manifest
+     */
+    public static String atlasFile(String atlas) {
+        return ATLAS_DIR + atlas + ".atlas";
+    }
+
+    /**
+     * Return whether desktop:packAtlases has built an atlas.
+     *
+     * @param atlas the atlas name from a manifest
+     */
+    public static boolean isBuilt(String atlas) {
+        return Gdx.files.internal(atlasFile(atlas)).exists();
+    }
+
+    /**
+     * Return the name of an image's region in an atlas: its file without the
+     * extension.
+     *
+     * @param file the image file, relative to the assets
+     */
+    public static String regionName(String file) {
+        int dot = file.lastIndexOf('.');
+        return dot < 0 ? file : file.substring(0, dot);
+    }
+
+    /**
+     * Queue the atlas of a manifest, or its separate images if it is not built.
+     *
+     * @param manager Reference to global asset manager.
+     * @param atlas the atlas name
+     * @param files the images packed into the atlas
+     * @param assets Asset list to track which assets where loaded
+     */
+    public static void preLoad(AssetManager manager, String atlas, String[] files, Array<String> assets) {
+        if (isBuilt(atlas)) {
+            String file = atlasFile(atlas);
+            manager.load(file, TextureAtlas.class);
+            assets.add(file);
+            return;
+        }
+        for (String f : files) {
+            manager.load(f, Texture.class);
+            assets.add(f);
+        }
+    }
+
+    /**
+     * Add the regions of a manifest queued by preLoad, once the manager has
+     * finished loading it.
+     *
+     * @param manager Reference to global asset manager.
+     * @param atlas the atlas name
+     * @param files the images packed into the atlas
+     */
+    public void load(AssetManager manager, String atlas, String[] files) {
+        String file = atlasFile(atlas);
+        if (manager.isLoaded(file)) {
+            // The packer already set the atlas textures to linear filtering
+            for (TextureAtlas.AtlasRegion r : manager.get(file, TextureAtlas.class).getRegions()) {
+                regions.put(r.name, r);
+            }
+            return;
+        }
+        for (String f : files) {
+            if (manager.isLoaded(f)) {
+                Texture t = manager.get(f, Texture.class);
+                t.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+                regions.put(regionName(f), new TextureRegion(t));
+            }
+        }
+    }
+
+    /**
+     * Return the region of an image, from its atlas if it was packed.
+     *
+     * @param file the image file, as listed in its manifest
+     * @return the region
+     * @throws RuntimeException if no loaded manifest has the image
+     */
+    public TextureRegion getRegion(String file) {
+        TextureRegion r = regions.get(regionName(file));
+        if (r == null) {
+            throw new RuntimeException("No texture region for " + file);
+        }
+        return r;
+    }
+}
@@ -27,8 +27,12 @@ import java.io.File;
 
 /**
  * Controller implementing simple game physics.
+ *
+ * The live enemies are kept in a grid of lane by band-of-road cells, indexed
+ * as the EnemyStore adds and removes them, so each frame only looks at the
+ * cells the car passed through.
  */
-public class CollisionController {
+public class CollisionController implements EnemyStore.Listener {
     /** TODO: Maybe delete? Window height */
     private static final float WINDOW_HEIGHT = 600;
     /** TODO: Maybe delete? */
@@ -42,6 +46,16 @@ public class CollisionController {
     private static final float CAR_YRANGE_END = 0f;
     private static final float CAR_YRANGE_START  = -0.15f;
 
+    /** Width of a lane bucket, and x-coordinate of the centre of the leftmost
+     *  lane, as laid out by LevelObject */
+    private static final float LANE_WIDTH = LevelObject.LANE_X;
+    private static final float LEFT_LANE_X = -LevelObject.LANE_X;
+    /** Length of road covered by a band of cells */
+    private static final float BAND_HEIGHT = 1f;
+    /** Extra distance searched past the car's bands, as the y of an enemy and
+     *  the scroll of its store are rounded separately every frame */
+    private static final float BAND_SLACK = 0.05f;
+
     // These cannot be modified after the controller is constructed.
     // If these change, make a new constructor.
     /** Width of the collision geometry */
@@ -51,6 +65,21 @@ public class CollisionController {
 
     private SoundController soundController;
 
+    /** Number of lanes. Lanes past either edge of the road share the outermost cell. */
+    private int numLanes;
+    /** Store slots of the enemies that could hit a car in each non-empty cell,
+     *  keyed by cellKey() */
+    private IntMap<IntArray> cells = new IntMap<IntArray>();
+    /** Emptied cells, kept for reuse */
+    private Array<IntArray> freeCells = new Array<IntArray>();
+    /** Band and range of lanes of the cells each store slot is in */
+    private int[] slotBand = new int[0];
+    private int[] slotFirstLane = new int[0];
+    private int[] slotLastLane = new int[0];
+
+    /** x-coordinate of the car at the last collision check, or NaN if none */
+    private float prevCarX = Float.NaN;
+
     /**
      * Returns width of the game window (necessary to detect out of bounds)
      *
@@ -74,27 +103,179 @@ public class CollisionController {
      *
      * @param width   Width of the screen
      * @param height  Height of the screen
+     * @param numLanes Number of lanes in the level
      */
-    public CollisionController(float width, float height, SoundController sc) {
+    public CollisionController(float width, float height, int numLanes, SoundController sc) {
         this.width = width;
         this.height = height;
         soundController = sc;
+        this.numLanes = Math.max(numLanes, 1);
+    }
+
+    /**
+     * Forget the car's last position, e.g. when the level restarts.
+     */
+    public void reset() {
+        prevCarX = Float.NaN;
     }
 
     /**
      * This is the main (incredibly unoptimized) collision detetection method.
      *
+     * Collisions are swept over the frame: an enemy hits the car if the y-range
+     * it moved through crosses the car's, and its x is in reach of anywhere the
+     * car was during the frame. This way nothing is skipped however long the
+     * frame or fast the road.
+     *
+     * The enemies must be in a store this controller listens to.
+     *
      * FIXME: remove camera, canvas params, oh god, what a mess
-     * @param enemies List of live gnomes to check
+     * @param enemies Store of live gnomes to check
      * @param yonda  Player's car
      */
-    public void processCollisions(Array<Enemy> enemies, Car yonda, GameplayController controller) {
+    public void processCollisions(EnemyStore enemies, Car yonda, GameplayController controller) {
         processBounds(yonda);
-        for (Enemy e : enemies) {
-            handleCollision(yonda, e, controller);
+
+        float carX = yonda.getX();
+        float carMinX = Float.isNaN(prevCarX) ? carX : Math.min(prevCarX, carX);
+        float carMaxX = Float.isNaN(prevCarX) ? carX : Math.max(prevCarX, carX);
+        prevCarX = carX;
+
+        // The car's y-range, moved along the road by however far the store
+        // scrolled this frame
+        double scroll = enemies.getScroll();
+        double prevScroll = enemies.getPrevScroll();
+        int firstBand = bandOf(Math.min(scroll, prevScroll) + CAR_YRANGE_START - BAND_SLACK);
+        int lastBand = bandOf(Math.max(scroll, prevScroll) + CAR_YRANGE_END + BAND_SLACK);
+        int firstLane = laneOf(carMinX);
+        int lastLane = laneOf(carMaxX);
+
+        // Only the cells the car passed through. An enemy can be in more than
+        // one of them, but is destroyed by the first hit.
+        for (int b = firstBand; b <= lastBand; b++) {
+            for (int l = firstLane; l <= lastLane; l++) {
+                IntArray cell = cells.get(cellKey(b, l));
+                if (cell == null) {
+                    continue;
+                }
+                for (int j = 0; j < cell.size; j++) {
+                    int i = cell.get(j);
+                    if (!enemies.isDestroyed(i) && !enemies.isFlyingAway(i)) {
+                        handleCollision(yonda, carMinX, carMaxX, enemies.getView(i), enemies.getPrevY(i), controller);
+                    }
+                }
+            }
         }
     }
 
+    /**
+     * Put a newly added enemy into every cell of its band that the car could
+     * be hit from, i.e. that its hit span overlaps.
+     */
+    public void added(EnemyStore store, int i) {
+        if (i >= slotBand.length) {
+            int capacity = Math.max(i + 1, slotBand.length * 2);
+            slotBand = copyOf(slotBand, capacity);
+            slotFirstLane = copyOf(slotFirstLane, capacity);
+            slotLastLane = copyOf(slotLastLane, capacity);
+        }
+        float x = store.getX(i);
+        float right = x + HIT_RANGE;
+        Enemy r = store.getView(i).getRightEnemy();
+        if (r != null && r.getX() > right) {
+            right = r.getX();
+        }
+        int band = bandOf(store.getY(i) + store.getScroll());
+        int last = laneOf(right);
+        slotBand[i] = band;
+        slotFirstLane[i] = laneOf(x - HIT_RANGE);
+        slotLastLane[i] = last;
+        for (int l = slotFirstLane[i]; l <= last; l++) {
+            int key = cellKey(band, l);
+            IntArray cell = cells.get(key);
+            if (cell == null) {
+                cell = freeCells.size > 0 ? freeCells.pop() : new IntArray();
+                cells.put(key, cell);
+            }
+            cell.add(i);
+        }
+    }
+
+    /**
+     * Take an enemy out of its cells, freeing any that are left empty.
+     */
+    public void removed(EnemyStore store, int i) {
+        for (int l = slotFirstLane[i]; l <= slotLastLane[i]; l++) {
+            int key = cellKey(slotBand[i], l);
+            IntArray cell = cells.get(key);
+            cell.removeValue(i);
+            if (cell.size == 0) {
+                cells.remove(key);
+                freeCells.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Follow an enemy that the store moved to another slot.
+     */
+    public void renumbered(EnemyStore store, int from, int to) {
+        slotBand[to] = slotBand[from];
+        slotFirstLane[to] = slotFirstLane[from];
+        slotLastLane[to] = slotLastLane[from];
+        for (int l = slotFirstLane[to]; l <= slotLastLane[to]; l++) {
+            IntArray cell = cells.get(cellKey(slotBand[to], l));
+            cell.set(cell.indexOf(from), to);
+        }
+    }
+
+    /**
+     * Empty every cell.
+     */
+    public void cleared(EnemyStore store) {
+        for (IntArray cell : cells.values()) {
+            cell.clear();
+            freeCells.add(cell);
+        }
+        cells.clear();
+    }
+
+    /**
+     * Return true if an enemy that moved from prevY to y passed through the
+     * car's y-range.
+     */
+    private boolean sweptInYRange(float y, float prevY) {
+        return Math.min(y, prevY) < CAR_YRANGE_END && Math.max(y, prevY) > CAR_YRANGE_START;
+    }
+
+    /**
+     * Return the bucket of the lane containing an x-coordinate.
+     */
+    private int laneOf(float x) {
+        int l = (int) Math.floor((x - LEFT_LANE_X) / LANE_WIDTH + 0.5f);
+        return Math.min(Math.max(l, 0), numLanes - 1);
+    }
+
+    /**
+     * Return the band containing a position along the road.
+     */
+    private int bandOf(double roadY) {
+        return (int) Math.floor(roadY / BAND_HEIGHT);
+    }
+
+    /**
+     * Return the key of a cell in the cells map.
+     */
+    private int cellKey(int band, int lane) {
+        return band * numLanes + lane;
+    }
+
+    private int[] copyOf(int[] from, int capacity) {
+        int[] to = new int[capacity];
+        System.arraycopy(from, 0, to, 0, from.length);
+        return to;
+    }
+
     /**
      * Check if a GameObject is out of bounds and take action.
      *
@@ -146,19 +327,24 @@ public class CollisionController {
 	}
 
     /**
-     * Collide a gnome with a car.
+     * Collide a gnome with a car, swept over the frame.
      * FIXME: remove canvas param
+     *
+     * @param carMinX the leftmost x of the car during the frame
+     * @param carMaxX the rightmost x of the car during the frame
+     * @param prevY the y of the gnome at the start of the frame
      */
-    private void handleCollision(Car c, Enemy e, GameplayController controller) {
+    private void handleCollision(Car c, float carMinX, float carMaxX, Enemy e, float prevY,
+                                 GameplayController controller) {
         boolean isFlamingo = e.getType() == RoadObject.ObjectType.FLAMINGO;
         boolean isFlyingFlamingo = isFlamingo && ((Flamingo) e).isFlyingAway();
 
-        boolean eInYRange = e.getY() > CAR_YRANGE_START && e.getY() < CAR_YRANGE_END;
-        boolean eInXRange = Math.abs(e.getX() - c.position.x) < HIT_RANGE;
+        boolean eInYRange = sweptInYRange(e.getY(), prevY);
+        boolean eInXRange = e.getX() > carMinX - HIT_RANGE && e.getX() < carMaxX + HIT_RANGE;
 
         boolean inBwnEAndLeftE = false;
         if (e.getRightEnemy() != null) {
-            inBwnEAndLeftE = (c.position.x > e.getX()) && (c.position.x < e.getRightEnemy().getX());
+            inBwnEAndLeftE = (carMaxX > e.getX()) && (carMinX < e.getRightEnemy().getX());
         }
 
         if ((eInXRange || inBwnEAndLeftE) && eInYRange) {
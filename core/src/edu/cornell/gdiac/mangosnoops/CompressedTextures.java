@@ -0,0 +1,58 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Finds the GPU-compressed copies of large images made by
+ * desktop:compressTextures.
+ *
+ * The compressed copies are ETC1 files, which the AssetManager loads like any
+ * other texture. They take an eighth of the video memory of the RGBA image and
+ * need no PNG decode, since the data is uploaded to the GPU as it is.
+ *
+ * resolve() falls back to the original PNG when the GPU has no ETC1 support
+ * or the compressed copy of that image is missing from COMPRESSED_DIR.
+ * ETC1 is an OpenGL ES format: GLES drivers (Android, and some Mesa and ARM
+ * desktops) advertise it, but the usual desktop OpenGL drivers do not, so
+ * on desktop the PNG is loaded. The copies only go into desktop:dist when it
+ * is run with -Petc1 for such a target.
+ */
+public class CompressedTextures {
+    /** Where desktop:compressTextures writes the copies, relative to the assets */
+    public static final String COMPRESSED_DIR = "compressed/";
+    /** The GL extension for ETC1 textures */
+    private static final String ETC1_EXTENSION = "GL_OES_compressed_ETC1_RGB8_texture";
+
+    /** Whether the GPU takes ETC1; null until first asked */
+    private static Boolean supported;
+
+    /**
+     * Return the file of an image's compressed copy.
+     *
+     * @param file the image file, relative to the assets
+     */
+    public static String compressedFile(String file) {
+        return COMPRESSED_DIR + AtlasLookup.regionName(file) + ".etc1";
+    }
+
+    /**
+     * Return the file to load for an image: its compressed copy if there is
+     * one the GPU can take, and otherwise the image itself.
+     *
+     * The answer never changes while the game runs, so the same file can be
+     * used to load, get and unload the texture. Must be called on the render
+     * thread.
+     *
+     * @param file the image file, relative to the assets
+     */
+    public static String resolve(String file) {
+        if (supported == null) {
+            supported = Gdx.graphics.supportsExtension(ETC1_EXTENSION);
+        }
+        String compressed = compressedFile(file);
+        if (supported && Gdx.files.internal(compressed).exists()) {
+            return compressed;
+        }
+        return file;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+
+/**
+ * Streams the frames of a cutscene through the asset manager while it plays.
+ *
+ * Only the frame on screen and the next FRAMES_AHEAD frames are queued at any
+ * time. The frames ahead are loaded by the manager's per-frame update while
+ * the current one is shown, and each frame is unloaded as soon as the
+ * cutscene moves past it.
+ */
+public class Cutscene {
+    /** How many frames after the current one to keep queued */
+    private static final int FRAMES_AHEAD = 1;
+
+    private AssetManager manager;
+    /** The frame files, in order */
+    private String[] frames;
+    /** Index of the frame on screen */
+    private int current;
+    /** Frames first to next - 1 are queued on the manager */
+    private int first;
+    private int next;
+
+    /**
+     * Start streaming a cutscene from its first frame.
+     *
+     * @param manager Reference to global asset manager.
+     * @param frames the frame files, in order, before compression
+     */
+    public Cutscene(AssetManager manager, String[] frames) {
+        this.manager = manager;
+        this.frames = new String[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            this.frames[i] = CompressedTextures.resolve(frames[i]);
+        }
+        show(0);
+    }
+
+    /**
+     * Move the cutscene to a frame, releasing the frames before it and
+     * queueing the ones after it.
+     *
+     * @param index the frame to show; frames.length or more once it is over
+     */
+    public void show(int index) {
+        current = Math.min(index, frames.length);
+        // Release every queued frame before the one on screen
+        while (first < next && first < current) {
+            manager.unload(frames[first]);
+            first++;
+        }
+        if (next < current) {
+            // Skipped past all of them: queue from the frame on screen, not
+            // the frames in between
+            next = first = current;
+        }
+        int last = Math.min(frames.length, current + 1 + FRAMES_AHEAD);
+        while (next < last) {
+            manager.load(frames[next], Texture.class);
+            next++;
+        }
+    }
+
+    /**
+     * Return the frame on screen, or null once the cutscene is over.
+     *
+     * The frame ahead has normally finished loading by the time it is shown,
+     * so this only waits on the first frame.
+     */
+    public Texture getFrame() {
+        if (current >= frames.length) {
+            return null;
+        }
+        String file = frames[current];
+        while (!manager.isLoaded(file)) {
+            manager.update();
+        }
+        return manager.get(file, Texture.class);
+    }
+
+    /**
+     * Release every frame still queued.
+     */
+    public void dispose() {
+        while (first < next) {
+            manager.unload(frames[first]);
+            first++;
+        }
+    }
+}
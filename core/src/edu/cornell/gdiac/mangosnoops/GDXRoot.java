@@ -34,6 +34,7 @@ import org.json.JSONObject;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Arrays;
@@ -58,10 +59,16 @@ public class GDXRoot extends Game implements ScreenListener {
 	private LevelMenuMode levelSelect;
 	/** Player mode for the the game proper (CONTROLLER CLASS) */
 	private GameMode    playing;
+	/** The level just finished, whose assets are held until the next level loads */
+	private GameMode retired;
+	/** The level to play once its assets are loaded, or null */
+	private GameMode nextPlaying;
 	private RestStopMode reststop;
 	private StartMenuMode start;
 	private SettingsMenu settings;
 	private SoundController soundController;
+	/** Loads the next level and rest stop while a level is played */
+	private LevelPrefetcher prefetcher;
 
 	/** Level files - currLevel is the level that will be played */
 	private Array<String> LEVELS;
@@ -71,6 +78,8 @@ public class GDXRoot extends Game implements ScreenListener {
 	private Array<String> REST_STOPS;
 	/** Saved level files */
 	private Array<String> SAVED_LEVELS;
+	/** Directory the input of each level played is recorded in, or null */
+	private String recordDir;
 
 	/**
 	 * Creates a new game from the configuration settings.
@@ -79,6 +88,19 @@ public class GDXRoot extends Game implements ScreenListener {
 	 * or assign any screen.
 	 */
 	public GDXRoot() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new game that records the input of every level played.
+	 *
+	 * Each level's input is written to its own file in the directory, and can
+	 * be replayed with desktop:replayInput.
+	 *
+	 * @param recordDir the directory to record to, or null to not record
+	 */
+	public GDXRoot(String recordDir) {
+		this.recordDir = recordDir;
 		// Start loading with the asset manager
 		manager = new AssetManager();
 		
@@ -109,10 +131,28 @@ public class GDXRoot extends Game implements ScreenListener {
 	}
 
 	/**
-	 * Load the level file names (Excel) and rest stop file names (JSON) that are
-	 * in the main level directory.
+	 * Load the level file names (Excel) and rest stop file names (JSON).
+	 *
+	 * These come from the index of the level pack if there is one, and
+	 * otherwise from the main level directory.
 	 */
 	private void loadLevelsRestStops() {
+		try {
+			LevelPack pack = LevelPack.open(LevelPack.PACK_FILE);
+			if (pack != null) {
+				LEVELS = new Array<String>(pack.getLevelNames());
+				REST_STOPS = new Array<String>(pack.getRestStopNames());
+				NUM_TUTORIALS = 0;
+				for (String fn : LEVELS) {
+					if (fn.startsWith("tut"))
+						NUM_TUTORIALS++;
+				}
+				return;
+			}
+		} catch (IOException e) {
+			System.out.println("Could not open level pack: " + e.getMessage());
+		}
+
 		// get all files, sorted in alphabetical order
 		File[] files = new File("levels/").listFiles();
 		Arrays.sort(files);
@@ -170,6 +210,7 @@ public class GDXRoot extends Game implements ScreenListener {
 		loading = new LoadingMode(canvas,manager,1);
 		settings = new SettingsMenu(this);
 		soundController = new SoundController(settings);
+		prefetcher = new LevelPrefetcher(manager, canvas, settings, soundController);
 		reststop = new RestStopMode(canvas, manager, REST_STOPS.get(currLevel),soundController);
 		levelSelect = new LevelMenuMode(canvas, manager,soundController, NUM_TUTORIALS, SAVED_LEVELS.size);
 		playing = new GameMode(-1, canvas,settings,soundController,LEVELS.get(0));
@@ -191,8 +232,18 @@ public class GDXRoot extends Game implements ScreenListener {
 		Screen screen = getScreen();
 		setScreen(null);
 		screen.dispose();
+		// A level left for the main menu is kept, and may still be recording
+		if (playing != null && playing != screen) {
+			playing.dispose();
+		}
+		if (nextPlaying != null) {
+			nextPlaying.dispose();
+			nextPlaying = null;
+		}
 		canvas.dispose();
 		canvas = null;
+		prefetcher.dispose();
+		prefetcher = null;
 
 		// Unload all of the resources
 		manager.clear();
@@ -200,6 +251,106 @@ public class GDXRoot extends Game implements ScreenListener {
 		super.dispose();
 	}
 	
+	/**
+	 * Called when the Application should render itself.
+	 *
+	 * After the current screen is drawn, prefetched resources are given a
+	 * slice of the frame to load, and the next level is played once they
+	 * are in.
+	 */
+	public void render() {
+		super.render();
+		prefetcher.update();
+		if (nextPlaying != null && nextPlaying.isContentLoaded(manager)) {
+			playNext();
+		}
+	}
+
+	/**
+	 * Start loading the rest stop that follows a level, and the level after it.
+	 *
+	 * @param level index of the level that is starting
+	 */
+	private void prefetchAfter(int level) {
+		int next = (level + 1) % LEVELS.size;
+		prefetcher.prefetchRestStop(REST_STOPS.get(level));
+		prefetcher.prefetchLevel(LEVELS.get(next), next);
+	}
+
+	/**
+	 * Start loading a level, and play it once its assets are loaded.
+	 *
+	 * The screen being left stays up until then, without input, while the
+	 * assets load a slice per frame in render(). For a prefetched level
+	 * they are usually in already, and the level starts on the next frame.
+	 *
+	 * @param next the level to play
+	 */
+	private void startPlaying(GameMode next) {
+		next.preLoadContent(manager);
+		nextPlaying = next;
+		Gdx.input.setInputProcessor(null);
+	}
+
+	/**
+	 * Make the level loaded by startPlaying the one being played, and
+	 * dispose of the screen it replaces.
+	 *
+	 * The new level is loaded before the last one is unloaded, so that the
+	 * asset manager keeps the textures they share instead of reloading them.
+	 */
+	private void playNext() {
+		Screen left = getScreen();
+		GameMode next = nextPlaying;
+		nextPlaying = null;
+		next.loadContent(manager);
+		if (playing != null) {
+			playing.unloadContent(manager);
+			playing.dispose();
+		}
+		if (retired != null) {
+			retired.unloadContent(manager);
+			retired = null;
+		}
+		playing = next;
+		if (left == reststop) {
+			playing.setInventory(reststop.getPlayerInv()); // manually set inventory bc new GameMode
+		}
+		playing.setScreenListener(this);
+		//Gdx.input.setInputProcessor(playing);
+		setScreen(playing);
+		recordPlaying();
+		prefetchAfter(currLevel);
+
+		if (left == start) {
+			start.dispose();
+			start = null;
+		} else if (left == levelSelect) {
+			levelSelect.dispose();
+			levelSelect = null;
+		} else if (left == reststop) {
+			reststop.dispose();
+			reststop = null;
+		}
+	}
+
+	/**
+	 * Start recording the input of the level being played, if the game was
+	 * asked to record.
+	 */
+	private void recordPlaying() {
+		if (recordDir == null) {
+			return;
+		}
+		File file = new File(recordDir, playing.getLevelName() + "-" + System.currentTimeMillis() + ".input");
+		file.getParentFile().mkdirs();
+		try {
+			playing.recordInput(new FileOutputStream(file));
+		} catch (IOException e) {
+			System.out.println("Could not record input: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Called when the Application is resized. 
 	 *
@@ -243,6 +394,8 @@ public class GDXRoot extends Game implements ScreenListener {
 			BufferedWriter bw = new BufferedWriter(new FileWriter(new File(filename)));
 			bw.write(json.toString());
 			bw.close();
+			if (idxWithoutTutorials == SAVED_LEVELS.size)
+				SAVED_LEVELS.add("saved_level" + idxWithoutTutorials + ".json");
 //			System.out.println("GENERATED FILE: " + filename);
 		} catch (IOException e) {
 			System.out.println("IO exception when saving");
@@ -261,6 +414,8 @@ public class GDXRoot extends Game implements ScreenListener {
 		if (exitCode != 0) {
 			Gdx.app.error("GDXRoot", "Exit with error code "+exitCode, new RuntimeException());
 			Gdx.app.exit();
+		} else if (nextPlaying != null) {
+			// The screen asked again while the level it asked for loads
 		} else if (screen == loading) {
 			playing.loadContent(manager);
 			settings.loadContent(manager);
@@ -284,15 +439,9 @@ public class GDXRoot extends Game implements ScreenListener {
 				Gdx.app.exit();
 			} else if(start.settingsButtonClicked()) {
 			} else {
-				playing = new GameMode(-1, canvas,settings,soundController,LEVELS.get(0));
-				playing.preLoadContent(manager);
-				playing.loadContent(manager);
-				playing.setScreenListener(this);
-				//Gdx.input.setInputProcessor(playing);
-				setScreen(playing);
-				playing.playCutScene(0);
-				start.dispose();
-				start = null;
+				GameMode next = new GameMode(-1, canvas,settings,soundController,LEVELS.get(0));
+				next.playCutScene(0);
+				startPlaying(next);
 			}
 		} else if (screen == levelSelect) {
 			if (levelSelect.loadPlaying()) {
@@ -303,27 +452,24 @@ public class GDXRoot extends Game implements ScreenListener {
 				currLevel = nextIdx;
 //				System.out.println("NOW PLAYING LEVEL: " + next);
 //				System.out.println("CURR LEVEL IS NOW: " + currLevel);
-				playing = new GameMode(currLevel, canvas,settings,soundController,next);
-				playing.preLoadContent(manager);
-				playing.loadContent(manager);
-				playing.setScreenListener(this);
-				setScreen(playing);
+				startPlaying(new GameMode(currLevel, canvas,settings,soundController,next));
 			}
 			else {
 				start = new StartMenuMode(canvas, manager,settings,soundController);
 				Gdx.input.setInputProcessor(start);
 				start.setScreenListener(this);
 				setScreen(start);
+				levelSelect.dispose();
+				levelSelect = null;
 			}
 
-			levelSelect.dispose();
-			levelSelect = null;
-
 		} else if (screen == playing) {
 		    if(playing.exitFromPause || playing.beatGame()){
 		    	currLevel = 0;
 		    	playing.exitToMainMenu = false;
 				playing.exitFromPause = false;
+				// The level is kept until the next one starts, but its recording ends here
+				playing.stopRecording();
 				start = new StartMenuMode(canvas,manager,settings,soundController);
 				start.setScreenListener(this);
 				Gdx.input.setInputProcessor(start);
@@ -331,7 +477,8 @@ public class GDXRoot extends Game implements ScreenListener {
 				//playing.dispose();
 				//playing = null;
 			} else {
-				reststop = new RestStopMode(canvas,manager,REST_STOPS.get(currLevel),soundController);
+				String restStop = REST_STOPS.get(currLevel);
+				reststop = new RestStopMode(canvas,manager,restStop,prefetcher.takeRestStop(restStop),soundController);
 				reststop.setPlayerInv(playing.getInventory());
 
 				// increment current level index for saving purposes
@@ -347,6 +494,7 @@ public class GDXRoot extends Game implements ScreenListener {
 				Gdx.input.setInputProcessor(reststop);
 				setScreen(reststop);
 				playing.dispose();
+				retired = playing;
 				playing = null;
 			}
 
@@ -355,16 +503,13 @@ public class GDXRoot extends Game implements ScreenListener {
 			if (!(LEVELS.get(currLevel).contains("tut")))
 				saveGame(reststop.getPlayerInv());
 
-			playing = new GameMode(currLevel, canvas,settings,soundController,LEVELS.get(currLevel));
+			String level = LEVELS.get(currLevel);
 //			System.out.println("EXITING REST STOP, NOW PLAYING LEVEL: " + LEVELS.get(currLevel));
-			playing.preLoadContent(manager);
-			playing.loadContent(manager);
-			playing.setInventory(reststop.getPlayerInv()); // manually set inventory bc new GameMode
-			playing.setScreenListener(this);
-			setScreen(playing);
-
-			reststop.dispose();
-			reststop = null;
+			GameMode next = prefetcher.takeLevel(level, currLevel);
+			if (next == null) {
+				next = new GameMode(currLevel, canvas,settings,soundController,level);
+			}
+			startPlaying(next);
 		} else {
 			// We quit the main application
 			Gdx.app.exit();
@@ -30,6 +30,7 @@ import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import edu.cornell.gdiac.mangosnoops.roadentity.RoadMesh;
 
 /**
  * Primary view class for the game, abstracting the basic graphics calls.
@@ -51,6 +52,18 @@ public class GameCanvas {
 	
 	/** The current color blending mode */
 	private BlendState blend;
+	/** Blend state to go back to when a layer is finished */
+	private BlendState layerBlend;
+
+	/** Layouts of the text drawn recently */
+	private TextCache textCache;
+
+	/** Road objects further ahead than this are not drawn */
+	private float drawDistance = Float.MAX_VALUE;
+	/** Cache object for culling road objects */
+	private Vector3 cullCenter = new Vector3();
+	/** How far behind their simulated position road objects are drawn */
+	private float worldLag;
 	
 	/** Value to cache window width (if we are currently full screen) */
 	int width;
@@ -65,6 +78,10 @@ public class GameCanvas {
 
 	// World drawing
 	PerspectiveCamera camera;
+	/** Whether the camera moved since its matrices and frustum were last computed */
+	private boolean cameraDirty;
+	/** The last position given to setCameraXY; NaN until then or after a reset */
+	private Vector2 cameraXY = new Vector2(Float.NaN, Float.NaN);
 	DecalBatch batch;
 	Array<Decal> roadDecals;
 
@@ -97,6 +114,7 @@ public class GameCanvas {
 		// Initialize the cache objects
 		holder = new TextureRegion();
 		local  = new Affine2();
+		textCache = new TextCache();
 
 		// Initialize game world drawing stuff
 		camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
@@ -125,6 +143,7 @@ public class GameCanvas {
 		}
 		spriteBatch.dispose();
     	spriteBatch = null;
+		textCache.clear();
     	local  = null;
     	holder = null;
     }
@@ -265,6 +284,7 @@ public class GameCanvas {
 	 public void resize() {
 		// Resizing screws up the spriteBatch projection matrix
 		 viewport.update(getWidth(), getHeight());
+		cameraDirty = true;
 		spriteBatch.getProjectionMatrix().setToOrtho2D(0, 0, getWidth(), getHeight());
 	}
 	
@@ -307,6 +327,12 @@ public class GameCanvas {
 		case OPAQUE:
 			spriteBatch.setBlendFunction(GL20.GL_ONE,GL20.GL_ZERO);
 			break;
+		case LAYER:
+			// -1 leaves the blend function to us
+			spriteBatch.setBlendFunction(-1,-1);
+			Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA,GL20.GL_ONE_MINUS_SRC_ALPHA,
+									   GL20.GL_ONE,GL20.GL_ONE_MINUS_SRC_ALPHA);
+			break;
 		}
 		blend = state;
 	}
@@ -329,6 +355,46 @@ public class GameCanvas {
     	spriteBatch.end();
     	active = false;
     }
+
+	/**
+	 * Redirect HUD drawing into a layer, which is cleared first.
+	 *
+	 * Layers must be the size of the screen, so that HUD drawing lands at the
+	 * same place. Must be called between beginHUDDrawing and endHUDDrawing.
+	 *
+	 * @param layer the frame buffer to draw into
+	 */
+	public void beginLayer(FrameBuffer layer) {
+		spriteBatch.flush();
+		layer.begin();
+		Gdx.gl.glClearColor(0, 0, 0, 0);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		layerBlend = blend;
+		setBlendState(BlendState.LAYER);
+	}
+
+	/**
+	 * Finish drawing into a layer and go back to drawing on the screen.
+	 *
+	 * @param layer the frame buffer passed to beginLayer
+	 */
+	public void endLayer(FrameBuffer layer) {
+		spriteBatch.flush();
+		layer.end();
+		setBlendState(layerBlend == null ? BlendState.NO_PREMULT : layerBlend);
+	}
+
+	/**
+	 * Draw a layer made by beginLayer over the whole screen.
+	 *
+	 * @param layer the layer's color texture, flipped to be upright
+	 */
+	public void drawLayer(TextureRegion layer) {
+		BlendState last = blend;
+		setBlendState(BlendState.ALPHA_BLEND);
+		draw(layer, 0, 0, getWidth(), getHeight());
+		setBlendState(last == null ? BlendState.NO_PREMULT : last);
+	}
     
 	/**
      * Draw the seamless background image.
@@ -358,6 +424,8 @@ public class GameCanvas {
 	 */
 	public void resetCam() {
         camera.position.set(CAM_START_POS);
+		cameraXY.set(Float.NaN, Float.NaN);
+		cameraDirty = true;
 	}
 
 	/**
@@ -478,6 +546,10 @@ public class GameCanvas {
 				oxy.x = image.getRegionWidth()*0.5f;
 				oxy.y = image.getRegionHeight()*0.5f;
 				break;
+			case MIDDLE_LEFT:
+				oxy.x = 0;
+				oxy.y = image.getRegionHeight()*0.5f;
+				break;
 			case TOP_LEFT:
 				oxy.y = image.getRegionHeight();
 				break;
@@ -560,38 +632,47 @@ public class GameCanvas {
 	public void draw(Texture image, TextureOrigin o, float x, float y, float scale, boolean widthScale, Color c) {
 		draw(image, o, x, y, scale, widthScale, 0, c);
 	}
+	/** Same as above but for TextureRegion. */
+	public void draw(TextureRegion image, TextureOrigin o, float x, float y, float scale, boolean widthScale, Color c) {
+		draw(image, o, x, y, scale, widthScale, 0, c);
+	}
 	/** With shake amount */
 	public void drawShake(Texture image, TextureOrigin o, float x, float y, float scale, boolean widthScale, float angle, Color c, float shakeAmnt) {
+		holder.setRegion(image);
+		drawShake(holder, o, x, y, scale, widthScale, angle, c, shakeAmnt);
+	}
+	/** Same as above but for TextureRegion. */
+	public void drawShake(TextureRegion image, TextureOrigin o, float x, float y, float scale, boolean widthScale, float angle, Color c, float shakeAmnt) {
 		this.shakeAmnt = shakeAmnt;
-		Vector2 oxy = new Vector2();
+		float ox = 0;
+		float oy = 0;
 		switch(o) {
 			case MIDDLE:
-				oxy.x = image.getWidth()*0.5f;
-				oxy.y = image.getHeight()*0.5f;
+				ox = image.getRegionWidth()*0.5f;
+				oy = image.getRegionHeight()*0.5f;
 				break;
 			case MIDDLE_LEFT:
-				oxy.x = 0;
-				oxy.y = image.getHeight()*0.5f;
+				oy = image.getRegionHeight()*0.5f;
 				break;
 			case TOP_LEFT:
-				oxy.y = image.getHeight();
+				oy = image.getRegionHeight();
 				break;
 			case TOP_RIGHT:
-				oxy.x = image.getWidth();
-				oxy.y = image.getHeight();
+				ox = image.getRegionWidth();
+				oy = image.getRegionHeight();
 				break;
 			case BOTTOM_LEFT:
 				break;
 			case BOTTOM_RIGHT:
-				oxy.x = image.getWidth();
+				ox = image.getRegionWidth();
 				break;
 			default:
 				break;
 		}
 		float s = 0;
-		if(widthScale) s = scale*getWidth()/image.getWidth();
-		else s = scale*getHeight()/image.getHeight();
-		draw(image, c, oxy.x, oxy.y, x*getWidth(), y*getHeight()+shakeAmnt, angle, s, s);
+		if(widthScale) s = scale*getWidth()/image.getRegionWidth();
+		else s = scale*getHeight()/image.getRegionHeight();
+		draw(image, c, ox, oy, x*getWidth(), y*getHeight()+shakeAmnt, angle, s, s);
 	}
 
 	public boolean inArea(Vector2 p, TextureRegion image, TextureOrigin o, float x, float y, float scale, boolean widthScale) {
@@ -609,6 +690,12 @@ public class GameCanvas {
 				yb=(int)(y*getHeight()-s*0.5f*image.getRegionHeight());
 				yt=(int)(y*getHeight()+s*0.5f*image.getRegionHeight());
 				break;
+			case MIDDLE_LEFT:
+				xb=0;
+				xt=(int)(x*getWidth() + s*image.getRegionWidth());
+				yb=(int)(y*getHeight()-s*0.5f*image.getRegionHeight());
+				yt=(int)(y*getHeight()+s*0.5f*image.getRegionHeight());
+				break;
 			case TOP_LEFT:
 				xb=0;
 				xt=(int)(x*getWidth()+s*image.getRegionWidth());
@@ -691,50 +778,58 @@ public class GameCanvas {
 	}
 
 	public boolean inArea(Vector2 p, Texture image, TextureOrigin o, float x, float y, float scale, boolean widthScale, float cb) {
-		// BASICALLY COPIED FROM ABOVE METHOD LOL I LOVE CODE DUPLICATION
+		holder.setRegion(image);
+		return inArea(p, holder, o, x, y, scale, widthScale, cb);
+	}
+
+	/**
+	 * Return true if a point is in the area an image would be drawn at, grown by
+	 * a border of cb screen heights on every side.
+	 */
+	public boolean inArea(Vector2 p, TextureRegion image, TextureOrigin o, float x, float y, float scale, boolean widthScale, float cb) {
 		int xb = 0; //x bottom bound
 		int xt = 0; //x top bound
 		int yb = 0;
 		int yt = 0;
 		float s = 0;
-		if(widthScale) s = scale*getWidth()/image.getWidth();
-		else s = scale*getHeight()/image.getHeight();
+		if(widthScale) s = scale*getWidth()/image.getRegionWidth();
+		else s = scale*getHeight()/image.getRegionHeight();
 		switch(o) {
 			case MIDDLE:
-				xb=(int)(x*getWidth()-s*0.5f*image.getWidth());
-				xt=(int)(x*getWidth()+s*0.5f*image.getWidth());
-				yb=(int)(y*getHeight()-s*0.5f*image.getHeight());
-				yt=(int)(y*getHeight()+s*0.5f*image.getHeight());
+				xb=(int)(x*getWidth()-s*0.5f*image.getRegionWidth());
+				xt=(int)(x*getWidth()+s*0.5f*image.getRegionWidth());
+				yb=(int)(y*getHeight()-s*0.5f*image.getRegionHeight());
+				yt=(int)(y*getHeight()+s*0.5f*image.getRegionHeight());
 				break;
 			case MIDDLE_LEFT:
 				xb=0;
-				xt=(int)(x*getWidth() + s*image.getWidth());
-				yb=(int)(y*getHeight()-s*0.5f*image.getHeight());
-				yt=(int)(y*getHeight()+s*0.5f*image.getHeight());
+				xt=(int)(x*getWidth() + s*image.getRegionWidth());
+				yb=(int)(y*getHeight()-s*0.5f*image.getRegionHeight());
+				yt=(int)(y*getHeight()+s*0.5f*image.getRegionHeight());
 				break;
 			case TOP_LEFT:
 				xb=0;
-				xt=(int)(x*getWidth()+s*image.getWidth());
-				yb=(int)(y*getHeight()-s*image.getHeight());
+				xt=(int)(x*getWidth()+s*image.getRegionWidth());
+				yb=(int)(y*getHeight()-s*image.getRegionHeight());
 				yt=getHeight();
 				break;
 			case TOP_RIGHT:
-				xb=(int)(x*getWidth()-s*image.getWidth());
+				xb=(int)(x*getWidth()-s*image.getRegionWidth());
 				xt=getWidth();
-				yb=(int)(y*getHeight()-s*image.getHeight());
+				yb=(int)(y*getHeight()-s*image.getRegionHeight());
 				yt=getHeight();
 				break;
 			case BOTTOM_LEFT:
 				xb=0;
-				xt=(int)(x*getWidth()+s*image.getWidth());
+				xt=(int)(x*getWidth()+s*image.getRegionWidth());
 				yb=0;
-				yt=(int)(y*getHeight()+s*image.getHeight());
+				yt=(int)(y*getHeight()+s*image.getRegionHeight());
 				break;
 			case BOTTOM_RIGHT:
-				xb=(int)(x*getWidth()-s*image.getWidth());
+				xb=(int)(x*getWidth()-s*image.getRegionWidth());
 				xt=getWidth();
 				yb=0;
-				yt=(int)(y*getHeight()+s*image.getHeight());
+				yt=(int)(y*getHeight()+s*image.getRegionHeight());
 				break;
 			default:
 				break;
@@ -855,13 +950,12 @@ public class GameCanvas {
 			return;
 		}
 		
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.layout(font,text);
 		font.setColor(Color.WHITE);
 		font.draw(spriteBatch, layout, x, y);
     }
 
 	/**
-<<<<<<< HEAD
 	 * Draws text on the screen.
 	 *
 	 * @param text The string to draw
@@ -874,8 +968,6 @@ public class GameCanvas {
 	}
 
 	/**
-=======
->>>>>>> 0d89fb8016bb5635d0231208c9b63352d4d8db05
 	 * Draws text on the screen with a specific color.
 	 */
 	public void drawText(String text, BitmapFont font, float x, float y, Color color) {
@@ -884,7 +976,7 @@ public class GameCanvas {
 			return;
 		}
 
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.layout(font,text);
 		font.setColor(color);
 		font.draw(spriteBatch, layout, x, y);
 	}
@@ -903,7 +995,7 @@ public class GameCanvas {
 			return;
 		}
 
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.layout(font,text);
 		float x = (getWidth()  - layout.width) / 2.0f;
 		float y = (getHeight() + layout.height) / 2.0f;
 		font.setColor(Color.WHITE);
@@ -916,7 +1008,7 @@ public class GameCanvas {
 			return;
 		}
 
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.layout(font,text);
 		float xpos = x*getWidth() - (layout.width) / 2.0f;
 		float ypos = y*getHeight() + (layout.height) / 2.0f;
 		font.setColor(Color.WHITE);
@@ -929,13 +1021,31 @@ public class GameCanvas {
 			return;
 		}
 
-		GlyphLayout layout = new GlyphLayout(font,text);
+		GlyphLayout layout = textCache.layout(font,text);
 		float xpos = x*getWidth() - (layout.width) / 2.0f;
 		float ypos = y*getHeight() + (layout.height) / 2.0f;
 		font.setColor(Color.WHITE);
 		font.draw(spriteBatch, layout, xpos, ypos + shakeAmnt);
 	}
 
+	/**
+	 * Draws text that rarely changes, centered on (x, y) and shaken like the HUD.
+	 *
+	 * @param text The text, already set
+	 * @param x The x-coordinate of the center, as a fraction of the width
+	 * @param y The y-coordinate of the center, as a fraction of the height
+	 */
+	public void drawTextCenterOriginShake(StaticText text, float x, float y) {
+		if (!active) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+			return;
+		}
+
+		float xpos = x*getWidth() - (text.getWidth()) / 2.0f;
+		float ypos = y*getHeight() + (text.getHeight()) / 2.0f;
+		text.draw(spriteBatch, xpos, ypos + shakeAmnt);
+	}
+
 	/**
 	 * Enumeration of supported BlendStates.
 	 *
@@ -951,7 +1061,9 @@ public class GameCanvas {
 		/** Color values are added together, causing a white-out effect */
 		ADDITIVE,
 		/** Color values are draw on top of one another with no transparency support */
-		OPAQUE
+		OPAQUE,
+		/** As NO_PREMULT, but drawing into a transparent layer that is pre-multiplied after */
+		LAYER
 	}
 
 	/**
@@ -959,8 +1071,13 @@ public class GameCanvas {
 	 * @param newXY
 	 */
 	public void setCameraXY(Vector2 newXY) {
+		if (cameraXY.equals(newXY)) {
+			return;
+		}
+		cameraXY.set(newXY);
 		camera.position.set(newXY.x, newXY.y, camera.position.z);
 		camera.lookAt(0, 20, 0);
+		cameraDirty = true;
 
 	}
 
@@ -973,56 +1090,114 @@ public class GameCanvas {
 	 * the FOV should be higher.
 	 */
 	public void setCameraFOV(float speedRatio) {
-		camera.fieldOfView = NORMAL_CAM_FOV * speedRatio;
+		float fov = NORMAL_CAM_FOV * speedRatio;
+		if (camera.fieldOfView != fov) {
+			camera.fieldOfView = fov;
+			cameraDirty = true;
+		}
+	}
+
+	/**
+	 * Recompute the camera's matrices and frustum if it moved since they were
+	 * last computed, so that they are computed once per change rather than once
+	 * per draw call.
+	 */
+	private void updateCamera() {
+		if (cameraDirty) {
+			camera.update();
+			cameraDirty = false;
+		}
 	}
 
 	/**
      * Draw road with infinite scrolling effect, with PerspectiveCamera.
 	 *
-	 * The calls are buffered. Must call drawWorld() to draw to screen.
+	 * The road is drawn immediately, in one call, so it must be drawn before
+	 * anything on it is flushed by drawWorld().
 	 *
 	 * PerspectiveCamera used for 3D perspective.
 	 */
-	public void drawRoad(float xOff, Decal d) {
-		//System.out.println(camera.position);
-
-		camera.update();
-		batch.add(d);
+	public void drawRoad(RoadMesh road) {
+		updateCamera();
+		road.render(camera.combined);
 	}
 
 	/**
-	 * Draw a RoadObject
-	 *  z - near 4.32 (hoverDistance)
+	 * Create the decal of a RoadObject.
 	 *
-	 * @param t the texture to draw
-	 * @param x x coord
-	 * @param y y coord
+	 * The object should keep the decal and pass it to drawRoadObject every
+	 * frame, changing its region or size in place if needed, so that drawing
+	 * the world allocates nothing.
+	 *
+	 * @param region the texture region to draw
 	 * @param width scaling of the object sprite width
 	 * @param height scaling of the object sprite height
 	 * @param xRotationAngle x rotation angle (in degrees)
-	 * @param yRotationAngle y rotation angle (in degrees)
 	 */
-	public void drawRoadObject(Texture t, float x, float y, float z, float width, float height, float xRotationAngle, float yRotationAngle) {
-		camera.update();
-		//System.out.println(t);
-		Decal objectDecal = Decal.newDecal(width, height, new TextureRegion(t), true);
-		objectDecal.setPosition(x, y, z);
-		objectDecal.rotateX(xRotationAngle);
-		objectDecal.rotateY(yRotationAngle);
-		batch.add(objectDecal);
+	public static Decal newRoadDecal(TextureRegion region, float width, float height, float xRotationAngle) {
+		Decal d = Decal.newDecal(width, height, region, true);
+		d.rotateX(xRotationAngle);
+		return d;
 	}
 
-	public void drawRoadObject(TextureRegion t, float x, float y, float z, float width, float height, float xRotationAngle, float yRotationAngle) {
-		camera.update();
-		//System.out.println(t);
-		Decal objectDecal = Decal.newDecal(width, height, t, true);
-		objectDecal.setPosition(x, y, z);
-		objectDecal.rotateX(xRotationAngle);
-		objectDecal.rotateY(yRotationAngle);
-		batch.add(objectDecal);
+	/**
+	 * Set how far ahead road objects are drawn. Usually the region's road draw
+	 * distance, so that nothing is drawn past the end of the road.
+	 *
+	 * @param distance the largest y-coordinate drawn
+	 */
+	public void setDrawDistance(float distance) {
+		drawDistance = distance;
+	}
+
+	/**
+	 * Set how far behind their simulated position road objects and the road
+	 * are drawn, along the road.
+	 *
+	 * The simulation runs in fixed steps, so a frame usually falls between two
+	 * of them. Everything on the road moves at the road's speed, so drawing it
+	 * held back by the part of the last step not yet reached puts it where it
+	 * would be at the frame's time.
+	 *
+	 * @param lag distance added to the y-coordinate of everything drawn
+	 */
+	public void setWorldLag(float lag) {
+		worldLag = lag;
+	}
+
+	/** Return how far behind their simulated position road objects are drawn */
+	public float getWorldLag() {
+		return worldLag;
+	}
+
+	/**
+	 * Draw a RoadObject
+	 *  z - near 4.32 (hoverDistance)
+	 *
+	 * The calls are buffered. Must call drawWorld() to draw to screen.
+	 *
+	 * Objects past the draw distance or outside the camera's view are left
+	 * out, so the decal batch only sorts and uploads what can be seen.
+	 *
+	 * @param d the object's decal, from newRoadDecal
+	 * @param x x coord
+	 * @param y y coord
+	 * @param z z coord
+	 */
+	public void drawRoadObject(Decal d, float x, float y, float z) {
+		updateCamera();
+		y += worldLag;
+		// The decal is centred on its position, so this sphere holds it at any rotation
+		float radius = 0.5f * Math.max(d.getWidth() * Math.abs(d.getScaleX()),
+									   d.getHeight() * Math.abs(d.getScaleY()));
+		if (y - radius > drawDistance || !camera.frustum.sphereInFrustum(cullCenter.set(x, y, z), radius)) {
+			return;
+		}
+		d.setPosition(x, y, z);
+		batch.add(d);
 	}
 
-	public void drawExitSign(String text, Texture t, BitmapFont font, float x, float y, float z) {
+	public void drawExitSign(String text, TextureRegion t, BitmapFont font, float x, float y, float z) {
 		if (!active) {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
@@ -1030,6 +1205,8 @@ public class GameCanvas {
 	}
 
 	public void drawWorld() {
+		// The decals are sorted and projected with the camera when flushed
+		updateCamera();
 		Gdx.gl20.glDepthMask(false);
 		batch.flush();
 	}
@@ -24,10 +24,13 @@ import edu.cornell.gdiac.mangosnoops.Menus.SettingsMenu;
 import edu.cornell.gdiac.mangosnoops.hudentity.Child;
 import edu.cornell.gdiac.mangosnoops.roadentity.Enemy;
 import edu.cornell.gdiac.mangosnoops.roadentity.Gnome;
+import edu.cornell.gdiac.mangosnoops.roadentity.WorldSnapshot;
 import edu.cornell.gdiac.util.*;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
 import java.security.Key;
 
 /**
@@ -99,43 +102,10 @@ public class GameMode implements Screen {
 	protected static final String CUTSCENE4_3 = "images/cutscenes/cutscene4_3.png";
 	protected static final String CUTSCENE4_4 = "images/cutscenes/cutscene4_4.png";
 
-	/** Cutscene textures */
-	private Texture cutscene0_0Texture;
-	private Texture cutscene0_1Texture;
-	private Texture cutscene0_2Texture;
-	private Texture cutscene0_3Texture;
-	private Texture cutscene0_4Texture;
-	private Texture cutscene0_5Texture;
-	private Texture cutscene0_6Texture;
-
-	private Texture cutscene1_0Texture;
-	private Texture cutscene1_1Texture;
-	private Texture cutscene1_2Texture;
-	private Texture cutscene1_3Texture;
-	private Texture cutscene1_4Texture;
-	private Texture cutscene1_5Texture;
-	private Texture cutscene1_6Texture;
-	private Texture cutscene1_7Texture;
-	private Texture cutscene1_8Texture;
-	private Texture cutscene1_9Texture;
-
-	private Texture cutscene2_0Texture;
-	private Texture cutscene2_1Texture;
-	private Texture cutscene2_2Texture;
-	private Texture cutscene2_3Texture;
-
-	private Texture cutscene3_0Texture;
-	private Texture cutscene3_1Texture;
-	private Texture cutscene3_2Texture;
-	private Texture cutscene3_3Texture;
-	private Texture cutscene3_4Texture;
-	private Texture cutscene3_5Texture;
-
-	private Texture cutscene4_0Texture;
-	private Texture cutscene4_1Texture;
-	private Texture cutscene4_2Texture;
-	private Texture cutscene4_3Texture;
-	private Texture cutscene4_4Texture;
+	/** The cutscene playing, streamed in while it plays; null if there is none */
+	private Cutscene cutscene;
+	/** Reference to global asset manager, for streaming cutscenes */
+	private AssetManager manager;
 
 	/** Background files */
 	protected static final String SUBURB_BG = "images/suburb_background.png";
@@ -143,6 +113,18 @@ public class GameMode implements Screen {
 	protected static final String MIDWEST_BG = "images/midwest_background.png";
 	protected static final String HIGHWAY_BG = "images/highway_background.png";
 
+	/** Frames of each cutscene, in the order of the files above */
+	public static final String[][] CUTSCENES = {
+			{CUTSCENE0_0, CUTSCENE0_1, CUTSCENE0_2, CUTSCENE0_3, CUTSCENE0_4, CUTSCENE0_5, CUTSCENE0_6},
+			{CUTSCENE1_0, CUTSCENE1_1, CUTSCENE1_2, CUTSCENE1_3, CUTSCENE1_4, CUTSCENE1_5, CUTSCENE1_6,
+					CUTSCENE1_7, CUTSCENE1_8, CUTSCENE1_9},
+			{CUTSCENE2_0, CUTSCENE2_1, CUTSCENE2_2, CUTSCENE2_3},
+			{CUTSCENE3_0, CUTSCENE3_1, CUTSCENE3_2, CUTSCENE3_3, CUTSCENE3_4, CUTSCENE3_5},
+			{CUTSCENE4_0, CUTSCENE4_1, CUTSCENE4_2, CUTSCENE4_3, CUTSCENE4_4}
+	};
+	/** Every background, for the texture compressor */
+	public static final String[] BACKGROUNDS = {SUBURB_BG, MOUNTAIN_BG, MIDWEST_BG, HIGHWAY_BG};
+
 	/** Dimensions of the screen **/
 	private static Vector2 SCREEN_DIMENSIONS;
 	// GRAPHICS AND SOUND RESOURCES
@@ -206,6 +188,22 @@ public class GameMode implements Screen {
 	private static final float TIME_MODIFIER    = 0.06f;
 	/** Offset for the game over message on the screen */
 	private static final float GAME_OVER_OFFSET = 40.0f;
+	/** Length of a simulation step, in seconds. The counter-based timings
+	 *  (e.g. resolveChildren every 200 steps) were tuned at 60 frames a second */
+	public static final float STEP = 1/60f;
+	/** Longest frame the simulation catches up on; a longer stall is dropped */
+	private static final float MAX_FRAME_TIME = 0.25f;
+
+	/** Time not yet simulated, always less than a step after simulate() */
+	private float accumulator;
+	/** How far the frame is from the last step to the next one, from 0 to 1 */
+	private float interpolation = 1;
+	/** Car position before the current step */
+	private Vector2 prevCarPos = new Vector2();
+	/** The world as of the last step, which is drawn */
+	private WorldSnapshot frontSnapshot = new WorldSnapshot();
+	/** Written by the next step, then swapped with frontSnapshot */
+	private WorldSnapshot backSnapshot = new WorldSnapshot();
 
 	/** Reference to drawing context to display graphics (VIEW CLASS) */
 	private GameCanvas canvas;
@@ -241,17 +239,151 @@ public class GameMode implements Screen {
 
 	private int indexLevel; //used to put tutorial modules
 	private boolean exitModule;
-	/** Background textures */
-	private Texture suburbBackgroundTexture;
-	private Texture mountainBackgroundTexture;
-	private Texture midwestBackgroundTexture;
-	private Texture highwayBackgroundTexture;
+	/** File name and seed of the level being played */
+	private String levelName;
+	private int levelSeed;
+	/** The level's random numbers, used while it is made and while it is shown */
+	private Random random;
+	/** Where the input is being recorded, or null */
+	private InputRecording recording;
+	/** Where the input is being replayed from, or null */
+	private InputRecording replay;
+	/** Background texture of this level's region */
+	private Texture backgroundTexture;
 
 	/**
 	 * @return the current state of the game
 	 */
 	public GameState getGameState(){ return gameState; }
 
+	/**
+	 * @return true once the car has reached the exit of the level
+	 */
+	public boolean isLevelComplete() { return gameplayController.getRoad().reachedEndOfLevel(); }
+
+	/**
+	 * @return file name of the level
+	 */
+	public String getLevelName() { return levelName; }
+
+	/**
+	 * @return the controller of this level's gameplay
+	 */
+	public GameplayController getGameplayController() { return gameplayController; }
+
+	/**
+	 * @return true once every step of the replay given to replayInput has been played
+	 */
+	public boolean isReplayFinished() { return replay != null && replay.isFinished(); }
+
+	/**
+	 * Record the input of every step from now on, until stopRecording is
+	 * called or this mode is disposed.
+	 *
+	 * Must be called once the content is loaded and the inventory set, and
+	 * before the first update. The recording can be played back with
+	 * replayInput to play the level through exactly as it was played.
+	 *
+	 * @param out where to write the recording
+	 */
+	public void recordInput(OutputStream out) throws IOException {
+		Inventory inventory = gameplayController.getInventory();
+		recording = new InputRecording(out, levelName, gameState == GameState.CUTSCENE ? currLevel : -1,
+				levelSeed, inventory.getNumMovies(), inventory.getNumSnacks(), canvas.getWidth(), canvas.getHeight());
+		inputController.startRecording(recording);
+		// Whatever used the random numbers while loading, a replay starts from here
+		random.setSeed(levelSeed);
+	}
+
+	/**
+	 * Play the level with recorded input instead of the player's.
+	 *
+	 * The mode must have been made for the recorded level with its cutscene
+	 * skipped, and this called once its content is loaded, before the first
+	 * update. The screen must be the recording's start size when the mode is
+	 * made, and resized to the recording's size before each update, as mouse
+	 * positions are replayed in pixels. The recorded cutscene, if any, is
+	 * played first. The
+	 * input is read as the level is played, and the recording is closed when
+	 * this mode is disposed.
+	 *
+	 * @param replay the recording
+	 */
+	public void replayInput(InputRecording replay) {
+		if (!replay.getLevel().equals(levelName) || replay.getSeed() != levelSeed) {
+			throw new IllegalArgumentException("Recording is of " + replay.getLevel() + ", not " + levelName);
+		}
+		gameplayController.setInventory(replay.getNumMovies(), replay.getNumSnacks());
+		if (replay.getCutscene() >= 0) {
+			playCutScene(replay.getCutscene());
+		}
+		this.replay = replay;
+		inputController.startReplay(replay);
+		random.setSeed(levelSeed);
+	}
+
+	/**
+	 * Return the background file of this level's region, compressed if the
+	 * GPU can take it.
+	 */
+	private String getBackgroundFile() {
+		switch (gameplayController.getRegion()) {
+			case HIGHWAY:
+				return CompressedTextures.resolve(HIGHWAY_BG);
+			case MIDWEST:
+				return CompressedTextures.resolve(MIDWEST_BG);
+			case COLORADO:
+				return CompressedTextures.resolve(MOUNTAIN_BG);
+			default:
+				return CompressedTextures.resolve(SUBURB_BG);
+		}
+	}
+
+	/**
+	 * Return the frames of the cutscene for a level.
+	 *
+	 * @param level the value of currLevel when the cutscene plays
+	 * @return the frame files, or null if the level has no cutscene
+	 */
+	private static String[] getCutsceneFrames(int level) {
+		switch (level) {
+			case 0:
+				return CUTSCENES[0];
+			case 5:
+				return CUTSCENES[2];
+			case 8:
+				return CUTSCENES[1];
+			case 10:
+				return CUTSCENES[4];
+			case 12:
+				return CUTSCENES[3];
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Keep the cutscene's frames streaming while it plays, and release them
+	 * once it is over.
+	 */
+	private void updateCutscene() {
+		if (gameState != GameState.CUTSCENE || exitToMainMenu) {
+			if (cutscene != null) {
+				cutscene.dispose();
+				cutscene = null;
+			}
+			return;
+		}
+		if (cutscene == null) {
+			String[] frames = getCutsceneFrames(currLevel);
+			if (frames == null) {
+				return;
+			}
+			cutscene = new Cutscene(manager, frames);
+		}
+		cutscene.show(cutSceneIndex);
+	}
+
 	/**
 	 * Preloads the assets for this game.
 	 *
@@ -259,94 +391,27 @@ public class GameMode implements Screen {
 	 * tell it what to load and then wait while it loads them.  This is
 	 * the first step: telling it what to load.
 	 *
+	 * Calling this again does nothing, so a level whose assets LevelPrefetcher
+	 * has already queued can be loaded like any other.
+	 *
 	 * @param manager Reference to global asset manager.
 	 */
 	public void preLoadContent(AssetManager manager) {
+		if (assets.size > 0) {
+			return;
+		}
 		// Load the background.
 
 		// Load death module
 		manager.load(DEATH_MODULE_FILE, Texture.class);
 		assets.add(DEATH_MODULE_FILE);
 
-		// Cutscenes
-		manager.load(CUTSCENE0_0,Texture.class);
-		assets.add(CUTSCENE0_0);
-		manager.load(CUTSCENE0_1,Texture.class);
-		assets.add(CUTSCENE0_1);
-		manager.load(CUTSCENE0_2,Texture.class);
-		assets.add(CUTSCENE0_2);
-		manager.load(CUTSCENE0_3,Texture.class);
-		assets.add(CUTSCENE0_3);
-		manager.load(CUTSCENE0_4,Texture.class);
-		assets.add(CUTSCENE0_4);
-		manager.load(CUTSCENE0_5,Texture.class);
-		assets.add(CUTSCENE0_5);
-		manager.load(CUTSCENE0_6,Texture.class);
-		assets.add(CUTSCENE0_6);
-
-		manager.load(CUTSCENE1_0,Texture.class);
-		assets.add(CUTSCENE1_0);
-		manager.load(CUTSCENE1_1,Texture.class);
-		assets.add(CUTSCENE1_1);
-		manager.load(CUTSCENE1_2,Texture.class);
-		assets.add(CUTSCENE1_2);
-		manager.load(CUTSCENE1_3,Texture.class);
-		assets.add(CUTSCENE1_3);
-		manager.load(CUTSCENE1_4,Texture.class);
-		assets.add(CUTSCENE1_4);
-		manager.load(CUTSCENE1_5,Texture.class);
-		assets.add(CUTSCENE1_5);
-		manager.load(CUTSCENE1_6,Texture.class);
-		assets.add(CUTSCENE1_6);
-		manager.load(CUTSCENE1_7,Texture.class);
-		assets.add(CUTSCENE1_7);
-		manager.load(CUTSCENE1_8,Texture.class);
-		assets.add(CUTSCENE1_8);
-		manager.load(CUTSCENE1_9,Texture.class);
-		assets.add(CUTSCENE1_9);
-
-		manager.load(CUTSCENE2_0,Texture.class);
-		assets.add(CUTSCENE2_0);
-		manager.load(CUTSCENE2_1,Texture.class);
-		assets.add(CUTSCENE2_1);
-		manager.load(CUTSCENE2_2,Texture.class);
-		assets.add(CUTSCENE2_2);
-		manager.load(CUTSCENE2_3,Texture.class);
-		assets.add(CUTSCENE2_3);
-
-		manager.load(CUTSCENE3_0,Texture.class);
-		assets.add(CUTSCENE3_0);
-		manager.load(CUTSCENE3_1,Texture.class);
-		assets.add(CUTSCENE3_1);
-		manager.load(CUTSCENE3_2,Texture.class);
-		assets.add(CUTSCENE3_2);
-		manager.load(CUTSCENE3_3,Texture.class);
-		assets.add(CUTSCENE3_3);
-		manager.load(CUTSCENE3_4,Texture.class);
-		assets.add(CUTSCENE3_4);
-		manager.load(CUTSCENE3_5,Texture.class);
-		assets.add(CUTSCENE3_5);
-
-		manager.load(CUTSCENE4_0,Texture.class);
-		assets.add(CUTSCENE4_0);
-		manager.load(CUTSCENE4_1,Texture.class);
-		assets.add(CUTSCENE4_1);
-		manager.load(CUTSCENE4_2,Texture.class);
-		assets.add(CUTSCENE4_2);
-		manager.load(CUTSCENE4_3,Texture.class);
-		assets.add(CUTSCENE4_3);
-		manager.load(CUTSCENE4_4,Texture.class);
-		assets.add(CUTSCENE4_4);
-
-		// Backgrounds
-		manager.load(SUBURB_BG,Texture.class);
-		assets.add(SUBURB_BG);
-		manager.load(MOUNTAIN_BG,Texture.class);
-		assets.add(MOUNTAIN_BG);
-		manager.load(HIGHWAY_BG,Texture.class);
-		assets.add(HIGHWAY_BG);
-		manager.load(MIDWEST_BG,Texture.class);
-		assets.add(MIDWEST_BG);
+		// Cutscenes are streamed in when they play
+
+		// Only this level's background
+		String background = getBackgroundFile();
+		manager.load(background,Texture.class);
+		assets.add(background);
 
 		// Load pause menu assets
 		manager.load(PAUSE_MENU_FILE, Texture.class);
@@ -386,6 +451,21 @@ public class GameMode implements Screen {
 		gameplayController.preLoadContent(manager,assets);
 	}
 
+	/**
+	 * Return true once every asset queued by preLoadContent has loaded, so
+	 * loadContent will not have to wait for any.
+	 *
+	 * @param manager Reference to global asset manager.
+	 */
+	public boolean isContentLoaded(AssetManager manager) {
+		for (String s : assets) {
+			if (!manager.isLoaded(s)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Loads the assets for this game.
 	 *
@@ -394,9 +474,20 @@ public class GameMode implements Screen {
 	 * the second step: extracting assets from the manager after it has
 	 * finished loading them.
 	 *
+	 * The game calls this once isContentLoaded is true. Anything still
+	 * loading, e.g. for the headless tools, is waited for here.
+	 *
 	 * @param manager Reference to global asset manager.
 	 */
 	public void loadContent(AssetManager manager) {
+		this.manager = manager;
+
+		for (String s : assets) {
+			while (!manager.isLoaded(s)) {
+				manager.update();
+			}
+		}
+
 		// Allocate the font
 		if (manager.isLoaded(FONT_FILE)) {
 			displayFont = manager.get(FONT_FILE,BitmapFont.class);
@@ -405,114 +496,7 @@ public class GameMode implements Screen {
 		}
 
 		// Allocate assets
-		if (manager.isLoaded(CUTSCENE4_0)) {
-			cutscene4_0Texture = manager.get(CUTSCENE4_0, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE4_1)) {
-			cutscene4_1Texture = manager.get(CUTSCENE4_1, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE4_2)) {
-			cutscene4_2Texture = manager.get(CUTSCENE4_2, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE4_3)) {
-			cutscene4_3Texture = manager.get(CUTSCENE4_3, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE4_4)) {
-			cutscene4_4Texture = manager.get(CUTSCENE4_4, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE3_0)) {
-			cutscene3_0Texture = manager.get(CUTSCENE3_0, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE3_1)) {
-			cutscene3_1Texture = manager.get(CUTSCENE3_1, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE3_2)) {
-			cutscene3_2Texture = manager.get(CUTSCENE3_2, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE3_3)) {
-			cutscene3_3Texture = manager.get(CUTSCENE3_3, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE3_4)) {
-			cutscene3_4Texture = manager.get(CUTSCENE3_4, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE3_5)) {
-			cutscene3_5Texture = manager.get(CUTSCENE3_5, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_0)) {
-			cutscene1_0Texture = manager.get(CUTSCENE1_0, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_1)) {
-			cutscene1_1Texture = manager.get(CUTSCENE1_1, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_2)) {
-			cutscene1_2Texture = manager.get(CUTSCENE1_2, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_3)) {
-			cutscene1_3Texture = manager.get(CUTSCENE1_3, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_4)) {
-			cutscene1_4Texture = manager.get(CUTSCENE1_4, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_5)) {
-			cutscene1_5Texture = manager.get(CUTSCENE1_5, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_6)) {
-			cutscene1_6Texture = manager.get(CUTSCENE1_6, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_7)) {
-			cutscene1_7Texture = manager.get(CUTSCENE1_7, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_8)) {
-			cutscene1_8Texture = manager.get(CUTSCENE1_8, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE1_9)) {
-			cutscene1_9Texture = manager.get(CUTSCENE1_9, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_0)) {
-			cutscene0_0Texture = manager.get(CUTSCENE0_0, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_1)) {
-			cutscene0_1Texture = manager.get(CUTSCENE0_1, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_2)) {
-			cutscene0_2Texture = manager.get(CUTSCENE0_2, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_3)) {
-			cutscene0_3Texture = manager.get(CUTSCENE0_3, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_4)) {
-			cutscene0_4Texture = manager.get(CUTSCENE0_4, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_5)) {
-			cutscene0_5Texture = manager.get(CUTSCENE0_5, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE0_6)) {
-			cutscene0_6Texture = manager.get(CUTSCENE0_6, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE2_0)) {
-			cutscene2_0Texture = manager.get(CUTSCENE2_0, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE2_1)) {
-			cutscene2_1Texture = manager.get(CUTSCENE2_1, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE2_2)) {
-			cutscene2_2Texture = manager.get(CUTSCENE2_2, Texture.class);
-		}
-		if (manager.isLoaded(CUTSCENE2_3)) {
-			cutscene2_3Texture = manager.get(CUTSCENE2_3, Texture.class);
-		}
-        if (manager.isLoaded(SUBURB_BG)) {
-			suburbBackgroundTexture = manager.get(SUBURB_BG, Texture.class);
-		}
-		if (manager.isLoaded(MIDWEST_BG)) {
-			midwestBackgroundTexture = manager.get(MIDWEST_BG, Texture.class);
-		}
-		if (manager.isLoaded(MOUNTAIN_BG)) {
-			mountainBackgroundTexture = manager.get(MOUNTAIN_BG, Texture.class);
-		}
-		if (manager.isLoaded(HIGHWAY_BG)) {
-			highwayBackgroundTexture = manager.get(HIGHWAY_BG, Texture.class);
-		}
+		backgroundTexture = manager.get(getBackgroundFile(), Texture.class);
 		if (manager.isLoaded(DEATH_MODULE_FILE)) {
 			deathModule = manager.get(DEATH_MODULE_FILE, Texture.class);
 		}
@@ -559,14 +543,21 @@ public class GameMode implements Screen {
 	 * This method erases the static variables.  It also deletes the associated textures
 	 * from the asset manager.
 	 *
+	 * Each preload holds one reference to its assets, so textures shared with a
+	 * mode that is still loaded stay resident. Calling this again does nothing.
+	 *
 	 * @param manager Reference to global asset manager.
 	 */
 	public void unloadContent(AssetManager manager) {
+		if (cutscene != null) {
+			cutscene.dispose();
+			cutscene = null;
+		}
 		for(String s : assets) {
-			if (manager.isLoaded(s)) {
-				manager.unload(s);
-			}
+			// Also cancels an asset that is still in the queue
+			manager.unload(s);
 		}
+		assets.clear();
 	}
 
 	/** Get the player's inventory */
@@ -588,6 +579,16 @@ public class GameMode implements Screen {
 	 * view has already been initialized by the root class.
 	 */
 	public GameMode(int cL, GameCanvas canvas,SettingsMenu settings,SoundController soundController, String levelName) {
+		this(cL, canvas, settings, soundController, levelName, null);
+	}
+
+	/**
+	 * Creates a new game with the given drawing context and an already parsed level.
+	 *
+	 * @param level the parsed level file for levelName, or null to parse it now
+	 */
+	public GameMode(int cL, GameCanvas canvas,SettingsMenu settings,SoundController soundController, String levelName, LevelObject level) {
+		Random previous = null;
 	    // TODO DO SOMETHING ELSE W THE EXCEPTIONS
 	    try {
 			SCREEN_DIMENSIONS = new Vector2(canvas.getWidth(),canvas.getHeight());
@@ -610,24 +611,68 @@ public class GameMode implements Screen {
 			this.settings = settings;
 			this.soundController = soundController;
             inputController = new InputController(settings);
+            if (level == null) {
+            	level = new LevelObject(levelName);
+			}
+			// The level plays out the same way every time it is given the same
+			// input. Its random numbers are its own, so a level made while
+			// another is played does not change how that one plays out.
+			random = new Random(level.getSeed());
+			previous = RandomController.setGenerator(random);
+			this.levelName = levelName;
+			levelSeed = level.getSeed();
             if (levelName.substring(0,3).equals("tut")) {
-				gameplayController = new TutorialController(levelName, canvas, new LevelObject(levelName), Integer.parseInt(levelName.substring(3,4)), soundController);
+				gameplayController = new TutorialController(levelName, canvas, level, Integer.parseInt(levelName.substring(3,4)), soundController);
 			} else {
-            	gameplayController = new NormalLevelController(levelName, canvas, new LevelObject(levelName), soundController);
+            	gameplayController = new NormalLevelController(levelName, canvas, level, soundController);
             	indexLevel = Character.getNumericValue(levelName.charAt(levelName.indexOf("level") + 5));
 			}
-            collisionController = new CollisionController(canvas.getWidth(), canvas.getHeight(), soundController);
+            collisionController = new CollisionController(canvas.getWidth(), canvas.getHeight(), level.getNumLanes(), soundController);
+            gameplayController.getEnemyStore().setListener(collisionController);
         } catch (IOException e) {
 	        System.out.println(e.getMessage());
         } catch (InvalidFormatException e) {
 			System.out.println(e.getMessage());
 		}
+		if (previous != null) {
+			RandomController.setGenerator(previous);
+		}
+	}
+
+	/**
+	 * End the recording, if the input is being recorded, with how the level
+	 * stands, and close it. Must be called when the level is left without
+	 * disposing this mode, or the recording is cut short.
+	 */
+	public void stopRecording() {
+		if (recording != null) {
+			try {
+				recording.finish(gameplayController.getCar().getHealth(), gameplayController.getRoad().getProgress());
+			} catch (IOException e) {
+				System.out.println("Could not record input: " + e.getMessage());
+			}
+			inputController.stopRecording();
+			recording = null;
+		}
 	}
 
 	/**
 	 * Dispose of all (non-static) resources allocated to this mode.
 	 */
 	public void dispose() {
+		stopRecording();
+		if (replay != null) {
+			try {
+				replay.close();
+			} catch (IOException e) {
+				System.out.println(e.getMessage());
+			}
+			replay = null;
+		}
+		if (gameplayController != null) {
+			gameplayController.getRoad().dispose();
+			gameplayController.dispose();
+		}
 		inputController = null;
 		gameplayController = null;
 		collisionController = null;
@@ -669,7 +714,7 @@ public class GameMode implements Screen {
 
 	public void displayCutScene4(float delta) {
 
-		if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+		if (inputController.isSkipHeld()) {
 			gameState = GameState.INTRO;
 		}
 		cutsceneDeltaSum += delta;
@@ -713,7 +758,7 @@ public class GameMode implements Screen {
 
 	public void displayCutScene2(float delta) {
 
-		if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+		if (inputController.isSkipHeld()) {
 			gameState = GameState.INTRO;
 		}
 
@@ -754,7 +799,7 @@ public class GameMode implements Screen {
     }
 
     public void displayCutScene1(float delta) {
-		if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+		if (inputController.isSkipHeld()) {
 			gameState = GameState.INTRO;
 		}
 
@@ -763,70 +808,70 @@ public class GameMode implements Screen {
 		switch (cutSceneIndex) {
 			case 0:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_0_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 1;
 					cutsceneDeltaSum = 0;
 				}
 				break;
             case 1:
                 if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_1_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
                 	cutSceneIndex = 2;
                 	cutsceneDeltaSum = 0;
 				}
 				break;
 			case 2:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_2_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 3;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 3:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_3_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 4;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 4:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_4_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 5;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 5:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_5_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 6;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 6:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_6_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 7;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 7:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_6_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 8;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 8:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_6_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 9;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 9:
 				if (cutsceneDeltaSum >= CUTSCENE_1_SCENE_6_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 10;
 					cutsceneDeltaSum = 0;
 				}
@@ -850,42 +895,42 @@ public class GameMode implements Screen {
 		switch (cutSceneIndex) {
 			case 0:
 				if (cutsceneDeltaSum >= CUTSCENE_3_SCENE_0_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 1;
 					cutsceneDeltaSum = 0;
 				}
 				break;
             case 1:
                 if (cutsceneDeltaSum >= CUTSCENE_3_SCENE_1_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
                 	cutSceneIndex = 2;
                 	cutsceneDeltaSum = 0;
 				}
 				break;
 			case 2:
 				if (cutsceneDeltaSum >= CUTSCENE_3_SCENE_2_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 3;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 3:
 				if (cutsceneDeltaSum >= CUTSCENE_3_SCENE_3_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 4;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 4:
 				if (cutsceneDeltaSum >= CUTSCENE_3_SCENE_4_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 5;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 5:
 				if (cutsceneDeltaSum >= CUTSCENE_3_SCENE_5_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 6;
 					cutsceneDeltaSum = 0;
 				}
@@ -904,49 +949,49 @@ public class GameMode implements Screen {
 		switch (cutSceneIndex) {
 			case 0:
 				if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_0_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 1;
 					cutsceneDeltaSum = 0;
 				}
 				break;
             case 1:
                 if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_1_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
                 	cutSceneIndex = 2;
                 	cutsceneDeltaSum = 0;
 				}
 				break;
 			case 2:
 				if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_2_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 3;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 3:
 				if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_3_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 4;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 4:
 				if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_4_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 5;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 5:
 				if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_5_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 6;
 					cutsceneDeltaSum = 0;
 				}
 				break;
 			case 6:
 				if (cutsceneDeltaSum >= CUTSCENE_0_SCENE_6_TIME
-						|| Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+						|| inputController.didSkip()) {
 					cutSceneIndex = 7;
 					cutsceneDeltaSum = 0;
 				}
@@ -973,8 +1018,8 @@ public class GameMode implements Screen {
 	private void update(float delta) {
 		//Ensure all images are properly drawn, scaled, and updated
 		Image.updateScreenDimensions(canvas);
-		// Process the game input
-		inputController.readInput();
+		// Process the game input, which when replaying also says how long the step was
+		delta = inputController.readInput(delta);
 		// Test whether to reset the game.
 //		try {
 			switch (gameState) {
@@ -985,6 +1030,7 @@ public class GameMode implements Screen {
 				case OVER:
 					if (inputController.didReset() || restartedFromPause) {
 						gameplayController.reset();
+						collisionController.reset();
 						soundController.reset();
 						canvas.resetCam();
 						gameState = GameState.PLAY;
@@ -993,6 +1039,7 @@ public class GameMode implements Screen {
 					}
 					if (exitFromPause) {
 						gameplayController.reset();
+						collisionController.reset();
 						soundController.reset();
 						canvas.resetCam();
 						gameState = GameState.INTRO;
@@ -1031,6 +1078,7 @@ public class GameMode implements Screen {
 						default:
 							break;
 					}
+			updateCutscene();
 
 //		} catch (Exception e) {
 //			System.out.println("YOU SCREWED UP UPDATE YOU FOOL");
@@ -1039,6 +1087,63 @@ public class GameMode implements Screen {
 
 	}
 
+	/**
+	 * Advance the game by the time of a frame.
+	 *
+	 * While playing, the game runs in steps of STEP seconds however long the
+	 * frame was: as many as fit in the time built up, leaving the rest for the
+	 * next frame. The game then plays the same at any refresh rate, and a slow
+	 * frame is caught up on rather than taken as one large step. The other
+	 * states (menus, cutscenes) are updated once per frame as before.
+	 *
+	 * @param delta Number of seconds since last animation frame
+	 */
+	private void simulate(float delta) {
+		if (gameState != GameState.PLAY) {
+			update(delta);
+			// Nothing moves until play resumes, so draw things where they are
+			accumulator = 0;
+			interpolation = 1;
+			publishSnapshot(false);
+			return;
+		}
+
+		accumulator += Math.min(delta, MAX_FRAME_TIME);
+		while (accumulator >= STEP && gameState == GameState.PLAY && !exitToRestStop) {
+			prevCarPos.set(gameplayController.getCar().getPosition());
+			update(STEP);
+			publishSnapshot(true);
+			accumulator -= STEP;
+		}
+		interpolation = gameState == GameState.PLAY ? accumulator / STEP : 1;
+	}
+
+	/**
+	 * Advance the game by one simulation step without drawing anything.
+	 *
+	 * This is how a level is run with no display (see desktop:simulateLevels):
+	 * the input, gameplay, collisions and sounds go through the same code as
+	 * in render, at whatever speed the machine can manage.
+	 */
+	public void tick() {
+		inputController.poll();
+		simulate(STEP);
+	}
+
+	/**
+	 * Copy the world into the back snapshot and make it the one drawn.
+	 *
+	 * @param moved whether a step just ran, so the world is drawn between
+	 *              where it was before the step and where it is now
+	 */
+	private void publishSnapshot(boolean moved) {
+		backSnapshot.capture(gameplayController.getCar(), prevCarPos, gameplayController.getRoad(),
+				gameplayController.getEnemyStore(), moved);
+		WorldSnapshot drawn = frontSnapshot;
+		frontSnapshot = backSnapshot;
+		backSnapshot = drawn;
+	}
+
 	/**
 	 * This method processes a single step in the game loop.
 	 *
@@ -1067,7 +1172,7 @@ public class GameMode implements Screen {
 		// Check for collisions
 		totalTime += (delta*1000); // Seconds to milliseconds
 		float offset =  canvas.getWidth() - (totalTime * TIME_MODIFIER) % canvas.getWidth();
-		collisionController.processCollisions(gameplayController.getEnemiez(),gameplayController.getCar(), gameplayController);
+		collisionController.processCollisions(gameplayController.getEnemyStore(),gameplayController.getCar(), gameplayController);
 
 		// Play resulting sound
 		soundController.play(gameplayController.getTouchscreen());
@@ -1075,9 +1180,6 @@ public class GameMode implements Screen {
 		// Clean up destroyed objects
 		gameplayController.garbageCollect();
 
-		// Set Camera
-		canvas.setCameraXY(gameplayController.getCar().getPosition());
-
 		// Update the counter
 		if(counter == Integer.MAX_VALUE){
 			counter = 0;
@@ -1186,32 +1288,13 @@ public class GameMode implements Screen {
 		canvas.clearScreen();
 
 		canvas.beginHUDDrawing();
-		switch (gameplayController.getRegion()) {
-			case SUBURBS:
-				canvas.drawBackground(suburbBackgroundTexture, gameplayController.getRoad().getSpeedRatio());
-				break;
-			case HIGHWAY:
-				canvas.drawBackground(highwayBackgroundTexture, gameplayController.getRoad().getSpeedRatio());
-				break;
-			case MIDWEST:
-				canvas.drawBackground(midwestBackgroundTexture, gameplayController.getRoad().getSpeedRatio());
-				break;
-			case COLORADO:
-				canvas.drawBackground(mountainBackgroundTexture, gameplayController.getRoad().getSpeedRatio());
-				break;
-            default:
-				canvas.drawBackground(suburbBackgroundTexture, gameplayController.getRoad().getSpeedRatio());
-				break;
-
-		}
-
+		canvas.drawBackground(backgroundTexture, gameplayController.getRoad().getSpeedRatio());
 		canvas.endHUDDrawing();
-		gameplayController.getRoad().draw(canvas);
 
-		//Gnomez
-		for (Enemy e : gameplayController.getEnemiez()) {
-			e.draw(canvas);
-		}
+		// The road, the gnomez and the camera come from the last step's snapshot.
+		// The frame falls between two steps, so the world is drawn between them
+		frontSnapshot.draw(canvas, gameplayController.getRoad(),
+				gameplayController.getRegion().getRoadDrawDistance(), interpolation);
 //		for (RoadImage i : gameplayController.getRoadsideObjs()) {
 //			i.draw(canvas);
 //		}
@@ -1349,123 +1432,15 @@ public class GameMode implements Screen {
 	 */
 	public void render(float delta) {
 		if (active) {
-			update(delta);
+			inputController.poll();
+			simulate(delta);
 			switch (gameState) {
 				case CUTSCENE:
 					canvas.beginHUDDrawing();
-					if (currLevel == 0) {
-                        switch (cutSceneIndex) {
-                            case 0:
-                                canvas.draw(cutscene0_0Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 1:
-                                canvas.draw(cutscene0_1Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 2:
-                                canvas.draw(cutscene0_2Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 3:
-                                canvas.draw(cutscene0_3Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 4:
-                                canvas.draw(cutscene0_4Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 5:
-                                canvas.draw(cutscene0_5Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 6:
-                                canvas.draw(cutscene0_6Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                        }
-					} else if (currLevel == 5) {
-                        switch (cutSceneIndex) {
-							case 0:
-								canvas.draw(cutscene2_0Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 1:
-								canvas.draw(cutscene2_1Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 2:
-								canvas.draw(cutscene2_2Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 3:
-								canvas.draw(cutscene2_3Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-						}
-					} else if (currLevel == 8) {
-						switch (cutSceneIndex) {
-                            case 0:
-                                canvas.draw(cutscene1_0Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 1:
-                                canvas.draw(cutscene1_1Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 2:
-                                canvas.draw(cutscene1_2Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 3:
-                                canvas.draw(cutscene1_3Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 4:
-                                canvas.draw(cutscene1_4Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 5:
-                                canvas.draw(cutscene1_5Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 6:
-                                canvas.draw(cutscene1_6Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-							case 7:
-								canvas.draw(cutscene1_7Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 8:
-								canvas.draw(cutscene1_8Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 9:
-								canvas.draw(cutscene1_9Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-						}
-					} else if (currLevel == 12) {
-						switch (cutSceneIndex) {
-                            case 0:
-                                canvas.draw(cutscene3_0Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 1:
-                                canvas.draw(cutscene3_1Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 2:
-                                canvas.draw(cutscene3_2Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 3:
-                                canvas.draw(cutscene3_3Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 4:
-                                canvas.draw(cutscene3_4Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-                            case 5:
-                                canvas.draw(cutscene3_5Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-                                break;
-						}
-
-					} else if (currLevel == 10) {
-						switch (cutSceneIndex) {
-							case 0:
-								canvas.draw(cutscene4_0Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 1:
-								canvas.draw(cutscene4_1Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 2:
-								canvas.draw(cutscene4_2Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 3:
-								canvas.draw(cutscene4_3Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-							case 4:
-								canvas.draw(cutscene4_4Texture, 0, 0, canvas.getWidth(), canvas.getHeight());
-								break;
-						}
+					Texture frame = cutscene == null ? null : cutscene.getFrame();
+					if (frame != null) {
+						canvas.draw(frame, 0, 0, canvas.getWidth(), canvas.getHeight());
 					}
-
 					canvas.endHUDDrawing();
 					break;
 				case INTRO:
@@ -1517,6 +1492,7 @@ public class GameMode implements Screen {
 	public void show() {
 		// Useless if called in outside animation loop
 		active = true;
+		RandomController.setGenerator(random);
 	}
 
 	/**
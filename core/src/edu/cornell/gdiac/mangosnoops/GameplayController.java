@@ -23,6 +23,7 @@ package edu.cornell.gdiac.mangosnoops;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.*;
@@ -32,6 +33,7 @@ import com.badlogic.gdx.graphics.Texture;
 import edu.cornell.gdiac.mangosnoops.hudentity.*;
 import edu.cornell.gdiac.mangosnoops.roadentity.*;
 import edu.cornell.gdiac.util.FilmStrip;
+import java.util.Comparator;
 import java.util.HashMap;
 /**
  * Controller to handle gameplay interactions.
@@ -55,10 +57,37 @@ public class GameplayController {
 	private Visor visor;
 	/** Contains location for the previous click, used for debouncing */
 	private Vector2 prevClick = null;
-	/** An array of enemies for this level */
+	/** The enemies near the car, which are updated, collided and drawn */
 	private Array<Enemy> enemiez;
+	/** Every enemy of the level, sorted by y, in level coordinates until spawned */
+	private Array<Enemy> spawnQueue;
+	/** Index in spawnQueue of the next enemy to spawn */
+	private int nextSpawn;
+	/** How far the road has moved since the level started */
+	private float travelled;
+	/** Enemies spawn this far beyond the end of the drawn road, so they are
+	 *  in place before the road they stand on comes into view */
+	static final float SPAWN_MARGIN = 1f;
+	/** Enemies are retired once they are this far behind the car */
+	public static final float RETIRE_Y = -3f;
+	/** Orders enemies by increasing y */
+	private static final Comparator<Enemy> BY_Y = new Comparator<Enemy>() {
+		public int compare(Enemy a, Enemy b) {
+			return Float.compare(a.getY(), b.getY());
+		}
+	};
+	/** Per-frame state of the enemies in enemiez, in primitive arrays */
+	private EnemyStore enemyStore;
 	/** An array of enemies for this level -- is not altered, used for reset */
 	private Array<Enemy> enemiezSave;
+	/** Index in enemiezSave of the right enemy of each saved enemy, or -1 if none */
+	private IntArray saveRightIndex;
+	/** Pools of road objects, so that resetting the level does not allocate */
+	private Pool<Gnome> gnomePool;
+	private Pool<Flamingo> flamingoPool;
+	private Pool<Grill> grillPool;
+	private Pool<Flame> flamePool;
+	private Pool<RoadImage> roadImagePool;
 	/** The next event to happen */
 	private int nextEvent;
 	/** Rearview enemy instance. The way it's handled right now, there is only
@@ -85,6 +114,8 @@ public class GameplayController {
 	private ObjectMap<String,Radio.Genre> songs;
 
 	private Image healthGauge;
+	/** Cache of the HUD elements that rarely change (see drawDashLayer) */
+	private HudLayer dashLayer;
 	private Image rearviewDamageIndicator;
 	private Image rearviewBackground;
 	protected Image rearviewSeats;
@@ -225,6 +256,27 @@ public class GameplayController {
 	/** Cracks */
 	private static final String CRACKS_FILE = "images/cracks.png";
 
+	/** Atlas of the billboards, signs and flames on the road (see AtlasLookup) */
+	public static final String ROAD_ATLAS = "gameplay_road";
+	public static final String[] ROAD_ATLAS_FILES = {
+			BILLBOARD_END_IS_NEAR_FILE, BILLBOARD_GRILL_FILE, BILLBOARD_FLAMINGO_FILE,
+			BILLBOARD_WHERE_WILL_YOU_BE_FILE, EXIT_SIGN_FILE, SUNFLOWER_FILE, TREE_FILE, TOPIARY_FILE,
+			SPEEDLIMIT_25_FILE, SPEEDLIMIT_55_FILE, SPEEDLIMIT_65_FILE, SPEEDLIMIT_80_FILE, FLAME_FILE
+	};
+	/** Atlas of the health gauge and rear view mirror */
+	public static final String HUD_ATLAS = "gameplay_hud";
+	public static final String[] HUD_ATLAS_FILES = {
+			HEALTH_GAUGE_FILE, HEALTH_POINTER_FILE, REARVIEW_BACKGROUND, REARVIEW_SEATS,
+			REARVIEW_COVER, REARVIEW_DAMAGE
+	};
+	/** Atlas of the wheel, vroom stick, horn, radio and touchscreen */
+	public static final String DASH_ATLAS = "gameplay_dash";
+	public static final String[] DASH_ATLAS_FILES = {
+			WHEEL_FILE, VROOM_STICK_FILE, HORN_FILE, RADIO_KNOB_FILE, RADIO_SLIDER_FILE, RADIO_POINTER_FILE,
+			RADIO_SOUNDON_FILE, RADIO_SOUNDOFF_FILE, RADIO_NEDLIKE_FILE, RADIO_NEDDISLIKE_FILE,
+			RADIO_NOSHLIKE_FILE, RADIO_NOSHDISLIKE_FILE, ON_TOUCHSCREEN_FILE, OFF_TOUCHSCREEN_FILE, DVD_SLOT_FILE
+	};
+
 	/** Rearview DVD Texture */
 	private Texture rearviewDVDTexture;
 
@@ -238,10 +290,10 @@ public class GameplayController {
 	/** Texture for exit */
 	private Texture exitTexture;
 
-	/** Texture for the wheel */
-	private Texture wheelTexture;
-	/** Texture for the vroomstick */
-	private Texture vroomStickTexture;
+	/** Region for the wheel */
+	private TextureRegion wheelRegion;
+	/** Region for the vroomstick */
+	private TextureRegion vroomStickRegion;
 	/** Texture for the gnomes */
 	protected  Texture gnomeTexture;
 	protected  Texture rearviewGnomeTexture;
@@ -250,15 +302,15 @@ public class GameplayController {
 	/** Texture for the flamingo */
 	protected Texture grillTexture;
 	/** Texture for the radio knob */
-	private Texture radioknobTexture;
-	private Texture radioSlider;
-	private Texture radioPointer;
-	private Texture radioSoundOn;
-	private Texture radioSoundOff;
-	private Texture radioNedLike;
-	private Texture radioNedDislike;
-	private Texture radioNoshLike;
-	private Texture radioNoshDislike;
+	private TextureRegion radioknobRegion;
+	private TextureRegion radioSlider;
+	private TextureRegion radioPointer;
+	private TextureRegion radioSoundOn;
+	private TextureRegion radioSoundOff;
+	private TextureRegion radioNedLike;
+	private TextureRegion radioNedDislike;
+	private TextureRegion radioNoshLike;
+	private TextureRegion radioNoshDislike;
 	/** Texture for nosh (this is a film strip  */
 	private Texture noshTexture;
 	/** Texture for ned (this is a film strip) */
@@ -272,14 +324,16 @@ public class GameplayController {
 
 	/** Texture of the dash **/
 	private Texture dashTexture;
-	/** Texture of the health gauge */
-	private Texture healthGaugeTexture;
-	/** Texture of the health gauge's pointer */
-	private Texture healthPointerTexture;
-	/** Texture of the rear view mirror */
-	private Texture rearviewBackgroundTexture;
-	private Texture rearviewSeatsTexture;
-	private Texture rearviewCoverTexture;
+	/** Regions of the road and HUD atlases */
+	protected AtlasLookup atlases;
+	/** Region of the health gauge */
+	private TextureRegion healthGaugeRegion;
+	/** Region of the health gauge's pointer */
+	private TextureRegion healthPointerRegion;
+	/** Regions of the rear view mirror */
+	private TextureRegion rearviewBackgroundRegion;
+	private TextureRegion rearviewSeatsRegion;
+	private TextureRegion rearviewCoverRegion;
 	/** Texture of sun effect */
 	private Texture sun;
 	private Texture sun2;
@@ -300,18 +354,18 @@ public class GameplayController {
 	private Texture satNeptune;
 	private HashMap<String, Texture> satTextures;
 	/** Touchscreen */
-	private Texture onTouchscreen;
-	private Texture offTouchscreen;
-	private Texture dvdSlot;
-	/** Horn texture */
-	private Texture hornTexture;
+	private TextureRegion onTouchscreen;
+	private TextureRegion offTouchscreen;
+	private TextureRegion dvdSlot;
+	/** Horn region */
+	private TextureRegion hornRegion;
 	/** Cracks texture */
 	private Texture cracksTexture;
-	/** Flame texture */
-	private Texture flameTexture;
+	/** Flame region */
+	private TextureRegion flameRegion;
 
-	/** Rearview damage texture */
-	private Texture rearviewDamageTexture;
+	/** Rearview damage region */
+	private TextureRegion rearviewDamageRegion;
 
 	/** Cached color object for indicating rearview damage */
 	private Color rearviewDamageColor = new Color(Color.RED);
@@ -323,22 +377,8 @@ public class GameplayController {
 	/** The backing set for garbage collection */
 	private Array<Enemy> backing;
 
-	/** Billboard textures */
-	private Texture billboardEndIsNearTex;
-	private Texture billboardGrillTex;
-	private Texture billboardFlamingoTex;
-	private Texture billboardWhereWillYouBeTex;
-	private Texture exitSignTex;
+	/** Billboard font */
 	private BitmapFont billboardFont;
-	/** Speed sign textures */
-	private Texture speedLimit25Tex;
-	private Texture speedLimit55Tex;
-	private Texture speedLimit65Tex;
-	private Texture speedLimit80Tex;
-	/** Other roadside assets */
-	private Texture sunflowerTex;
-	private Texture topiaryTex;
-	private Texture treeTex;
 
 	// BILLBOARD NAMING CONSTANTS
 	private static final String BILLBOARD_END_IS_NEAR = "the end is near";
@@ -354,8 +394,8 @@ public class GameplayController {
 	private static final String SPEEDLIMIT_65 = "speed limit 65";
 	private static final String SPEEDLIMIT_80 = "speed limit 80";
 
-	/** An object map between roadside image names and their textures */
-	private ObjectMap<String, Texture> roadsideTexs;
+	/** An object map between roadside image names and their regions */
+	private ObjectMap<String, TextureRegion> roadsideRegions;
 	/** Array of roadside objects that will appear in the game */
 	private Array<RoadImage> roadsideObjs;
 	/** Used for reset */
@@ -393,9 +433,24 @@ public class GameplayController {
 	private static final float NOSH_BUBBLE_Y = 0.9f;
 
 
-	/** Enum specifying the region this level takes place in. */
+	/**
+	 * Enum specifying the region this level takes place in.
+	 *
+	 * The suburbs keep the distance the road was always drawn to. The open
+	 * highway and plains are seen farther ahead, and the mountains of
+	 * Colorado close in the view.
+	 */
 	public enum Region {
-		SUBURBS, HIGHWAY, MIDWEST, COLORADO;
+		SUBURBS(26), HIGHWAY(40), MIDWEST(36), COLORADO(22);
+
+		/** How far ahead of the camera the road is drawn */
+		private final float roadDrawDistance;
+
+		Region(float roadDrawDistance) {
+			this.roadDrawDistance = roadDrawDistance;
+		}
+
+		public float getRoadDrawDistance() { return roadDrawDistance; }
 	}
 
 	private Region region;
@@ -406,7 +461,7 @@ public class GameplayController {
 
 	public RearviewDVD getRearviewDVD() { return rearviewDVD; }
 
-	public ObjectMap<String, Texture> getRoadsideTexs() { return roadsideTexs; }
+	public ObjectMap<String, TextureRegion> getRoadsideRegions() { return roadsideRegions; }
 
 	/**
 	 * Preloads the assets for this game.
@@ -419,38 +474,17 @@ public class GameplayController {
 	 * @param assets  Asset list to track which assets where loaded
 	 */
 	public void preLoadContent(AssetManager manager, Array<String> assets) {
-		manager.load(REARVIEW_DAMAGE,Texture.class);
-		assets.add(REARVIEW_DAMAGE);
+		AtlasLookup.preLoad(manager, ROAD_ATLAS, ROAD_ATLAS_FILES, assets);
+		AtlasLookup.preLoad(manager, HUD_ATLAS, HUD_ATLAS_FILES, assets);
+		AtlasLookup.preLoad(manager, DASH_ATLAS, DASH_ATLAS_FILES, assets);
 		manager.load(NED_FILE,Texture.class);
 		assets.add(NED_FILE);
 		manager.load(NOSH_FILE,Texture.class);
 		assets.add(NOSH_FILE);
-		manager.load(WHEEL_FILE,Texture.class);
-		assets.add(WHEEL_FILE);
-		manager.load(VROOM_STICK_FILE, Texture.class);
-		assets.add(VROOM_STICK_FILE);
 		manager.load(GNOME_FILE, Texture.class);
 		assets.add(GNOME_FILE);
 		manager.load(REARVIEW_GNOME_FILE, Texture.class);
 		assets.add(REARVIEW_GNOME_FILE);
-		manager.load(RADIO_KNOB_FILE, Texture.class);
-		assets.add(RADIO_KNOB_FILE);
-		manager.load(RADIO_SLIDER_FILE, Texture.class);
-		assets.add(RADIO_SLIDER_FILE);
-		manager.load(RADIO_POINTER_FILE, Texture.class);
-		assets.add(RADIO_POINTER_FILE);
-		manager.load(RADIO_SOUNDON_FILE, Texture.class);
-		assets.add(RADIO_SOUNDON_FILE);
-		manager.load(RADIO_SOUNDOFF_FILE, Texture.class);
-		assets.add(RADIO_SOUNDOFF_FILE);
-		manager.load(RADIO_NEDLIKE_FILE, Texture.class);
-		assets.add(RADIO_NEDLIKE_FILE);
-		manager.load(RADIO_NEDDISLIKE_FILE, Texture.class);
-		assets.add(RADIO_NEDDISLIKE_FILE);
-		manager.load(RADIO_NOSHLIKE_FILE, Texture.class);
-		assets.add(RADIO_NOSHLIKE_FILE);
-		manager.load(RADIO_NOSHDISLIKE_FILE, Texture.class);
-		assets.add(RADIO_NEDDISLIKE_FILE);
 		manager.load(DVD0_FILE,Texture.class);
 		assets.add(DVD0_FILE);
 		manager.load(SNACK0_FILE,Texture.class);
@@ -471,21 +505,12 @@ public class GameplayController {
 		assets.add(EXIT_FILE);
 		manager.load(DASH_FILE,Texture.class);
 		assets.add(DASH_FILE);
-		manager.load(HEALTH_GAUGE_FILE, Texture.class);
-		assets.add(HEALTH_GAUGE_FILE);
-		manager.load(HEALTH_POINTER_FILE, Texture.class);
-		assets.add(HEALTH_POINTER_FILE);
-		manager.load(REARVIEW_BACKGROUND, Texture.class);
-		assets.add(REARVIEW_BACKGROUND);
-		manager.load(REARVIEW_COVER, Texture.class);
-		assets.add(REARVIEW_COVER);
-		manager.load(REARVIEW_SEATS, Texture.class);
-		assets.add(REARVIEW_SEATS);
 		manager.load(VISOR_FILE, Texture.class);
 		assets.add(VISOR_FILE);
 		manager.load(VISOR_OPEN_FILE, Texture.class);
 		assets.add(VISOR_OPEN_FILE);
 		manager.load(VISOR_CLOSED_FILE, Texture.class);
+		assets.add(VISOR_CLOSED_FILE);
 		manager.load(SUN_FILE, Texture.class);
 		assets.add(SUN_FILE);
 		manager.load(SUN2_FILE, Texture.class);
@@ -518,32 +543,8 @@ public class GameplayController {
 		assets.add(SAT_NEPTUNE_FILE);
 		manager.load(FLAMINGO_FILE, Texture.class);
 		assets.add(FLAMINGO_FILE);
-		manager.load(ON_TOUCHSCREEN_FILE, Texture.class);
-		assets.add(ON_TOUCHSCREEN_FILE);
-		manager.load(OFF_TOUCHSCREEN_FILE, Texture.class);
-		assets.add(OFF_TOUCHSCREEN_FILE);
-		manager.load(DVD_SLOT_FILE, Texture.class);
-		assets.add(DVD_SLOT_FILE);
-		manager.load(HORN_FILE, Texture.class);
-		assets.add(HORN_FILE);
 		manager.load(GRILL_FILE, Texture.class);
 		assets.add(GRILL_FILE);
-		manager.load(FLAME_FILE, Texture.class);
-		assets.add(FLAME_FILE);
-		manager.load(BILLBOARD_END_IS_NEAR_FILE, Texture.class);
-		assets.add(BILLBOARD_END_IS_NEAR_FILE);
-		manager.load(BILLBOARD_GRILL_FILE, Texture.class);
-		assets.add(BILLBOARD_GRILL_FILE);
-		manager.load(BILLBOARD_FLAMINGO_FILE, Texture.class);
-		assets.add(BILLBOARD_FLAMINGO_FILE);
-		manager.load(BILLBOARD_WHERE_WILL_YOU_BE_FILE, Texture.class);
-		assets.add(BILLBOARD_WHERE_WILL_YOU_BE_FILE);
-		manager.load(SPEEDLIMIT_25_FILE, Texture.class);
-		assets.add(SPEEDLIMIT_25_FILE);
-		manager.load(SPEEDLIMIT_55_FILE, Texture.class);
-		assets.add(SPEEDLIMIT_55_FILE);
-		manager.load(SPEEDLIMIT_80_FILE, Texture.class);
-		assets.add(SPEEDLIMIT_80_FILE);
 		manager.load(CRACKS_FILE, Texture.class);
 		assets.add(CRACKS_FILE);
 		manager.load(TUT_SPEECH, Texture.class);
@@ -563,21 +564,26 @@ public class GameplayController {
 	 * @param manager Reference to global asset manager.
 	 */
 	public void loadContent(AssetManager manager) {
-		wheelTexture = createTexture(manager,WHEEL_FILE);
-		vroomStickTexture = createTexture(manager, VROOM_STICK_FILE);
+		atlases = new AtlasLookup();
+		atlases.load(manager, ROAD_ATLAS, ROAD_ATLAS_FILES);
+		atlases.load(manager, HUD_ATLAS, HUD_ATLAS_FILES);
+		atlases.load(manager, DASH_ATLAS, DASH_ATLAS_FILES);
+		loadRoadsideRegions();
+		wheelRegion = atlases.getRegion(WHEEL_FILE);
+		vroomStickRegion = atlases.getRegion(VROOM_STICK_FILE);
 		gnomeTexture = createTexture(manager, GNOME_FILE);
 		flamingoTexture = createTexture(manager, FLAMINGO_FILE);
 		rearviewGnomeTexture = createTexture(manager, REARVIEW_GNOME_FILE);
-		radioknobTexture = createTexture(manager,RADIO_KNOB_FILE);
-		dvdSlot = createTexture(manager, DVD_SLOT_FILE);
-		radioSlider = createTexture(manager, RADIO_SLIDER_FILE);
-		radioPointer = createTexture(manager, RADIO_POINTER_FILE);
-		radioSoundOn = createTexture(manager, RADIO_SOUNDON_FILE);
-		radioSoundOff = createTexture(manager, RADIO_SOUNDOFF_FILE);
-		radioNedLike = createTexture(manager, RADIO_NEDLIKE_FILE);
-		radioNedDislike = createTexture(manager, RADIO_NEDDISLIKE_FILE);
-		radioNoshLike = createTexture(manager, RADIO_NOSHLIKE_FILE);
-		radioNoshDislike = createTexture(manager, RADIO_NOSHDISLIKE_FILE);
+		radioknobRegion = atlases.getRegion(RADIO_KNOB_FILE);
+		dvdSlot = atlases.getRegion(DVD_SLOT_FILE);
+		radioSlider = atlases.getRegion(RADIO_SLIDER_FILE);
+		radioPointer = atlases.getRegion(RADIO_POINTER_FILE);
+		radioSoundOn = atlases.getRegion(RADIO_SOUNDON_FILE);
+		radioSoundOff = atlases.getRegion(RADIO_SOUNDOFF_FILE);
+		radioNedLike = atlases.getRegion(RADIO_NEDLIKE_FILE);
+		radioNedDislike = atlases.getRegion(RADIO_NEDDISLIKE_FILE);
+		radioNoshLike = atlases.getRegion(RADIO_NOSHLIKE_FILE);
+		radioNoshDislike = atlases.getRegion(RADIO_NOSHDISLIKE_FILE);
 		nedTexture = createTexture(manager, NED_FILE);
 		noshTexture = createTexture(manager, NOSH_FILE);
 		suburbRoadTexture = createTexture(manager, SUBURB_ROAD_TEXTURE);
@@ -588,11 +594,11 @@ public class GameplayController {
 		grassTexture = createTexture(manager, GRASS_FILE);
 		exitTexture = createTexture(manager, EXIT_FILE);
 		dashTexture = createTexture(manager, DASH_FILE);
-		healthGaugeTexture = createTexture(manager, HEALTH_GAUGE_FILE);
-		healthPointerTexture = createTexture(manager, HEALTH_POINTER_FILE);
-		rearviewBackgroundTexture = createTexture(manager, REARVIEW_BACKGROUND);
-		rearviewSeatsTexture = createTexture(manager, REARVIEW_SEATS);
-		rearviewCoverTexture = createTexture(manager, REARVIEW_COVER);
+		healthGaugeRegion = atlases.getRegion(HEALTH_GAUGE_FILE);
+		healthPointerRegion = atlases.getRegion(HEALTH_POINTER_FILE);
+		rearviewBackgroundRegion = atlases.getRegion(REARVIEW_BACKGROUND);
+		rearviewSeatsRegion = atlases.getRegion(REARVIEW_SEATS);
+		rearviewCoverRegion = atlases.getRegion(REARVIEW_COVER);
 		visorTexture = createTexture(manager, VISOR_FILE);
 		sun = createTexture(manager, SUN_FILE);
 		sun2 = createTexture(manager, SUN2_FILE);
@@ -625,22 +631,13 @@ public class GameplayController {
 		satNeptune = createTexture(manager, SAT_NEPTUNE_FILE);
 		satTextures.put(SAT_NEPTUNE_FILE, satNeptune);
 		satQuestions = new SATQuestions(satTextures, satBubble);
-		onTouchscreen = createTexture(manager, ON_TOUCHSCREEN_FILE);
-		offTouchscreen = createTexture(manager, OFF_TOUCHSCREEN_FILE);
-		hornTexture = createTexture(manager, HORN_FILE);
+		onTouchscreen = atlases.getRegion(ON_TOUCHSCREEN_FILE);
+		offTouchscreen = atlases.getRegion(OFF_TOUCHSCREEN_FILE);
+		hornRegion = atlases.getRegion(HORN_FILE);
 		grillTexture = createTexture(manager, GRILL_FILE);
-		flameTexture = createTexture(manager, FLAME_FILE);
-		rearviewDamageTexture = createTexture(manager, REARVIEW_DAMAGE);
-
-		billboardEndIsNearTex = createTexture(manager, BILLBOARD_END_IS_NEAR_FILE);
-		billboardGrillTex = createTexture(manager, BILLBOARD_GRILL_FILE);
-		billboardFlamingoTex = createTexture(manager, BILLBOARD_FLAMINGO_FILE);
-		billboardWhereWillYouBeTex = createTexture(manager, BILLBOARD_WHERE_WILL_YOU_BE_FILE);
-		exitSignTex = createTexture(manager, EXIT_SIGN_FILE);
-		speedLimit25Tex = createTexture(manager, SPEEDLIMIT_25_FILE);
-		speedLimit55Tex = createTexture(manager, SPEEDLIMIT_55_FILE);
-		speedLimit65Tex = createTexture(manager, SPEEDLIMIT_65_FILE);
-		speedLimit80Tex = createTexture(manager, SPEEDLIMIT_80_FILE);
+		flameRegion = atlases.getRegion(FLAME_FILE);
+		rearviewDamageRegion = atlases.getRegion(REARVIEW_DAMAGE);
+
 		if (manager.isLoaded(BILLBOARD_FONT_FILE)) {
 			billboardFont = manager.get(BILLBOARD_FONT_FILE,BitmapFont.class);
 		} else {
@@ -649,6 +646,31 @@ public class GameplayController {
 		cracksTexture = createTexture(manager, CRACKS_FILE);
 		speechTexture = createTexture(manager, TUT_SPEECH);
 		speechReverseTexture = createTexture(manager, TUT_SPEECH_REVERSE);
+		dvdTexture = createTexture(manager, DVD0_FILE);
+		snackTexture = createTexture(manager, SNACK0_FILE);
+		createDefaultInventory();
+	}
+
+	/**
+	 * Creates the starting inventory and its copy, once the item textures have
+	 * been loaded. TODO REMOVE STARTING INV STUFF
+	 */
+	private void createDefaultInventory() {
+		Inventory.Item.setTexturesAndScales(dvdTexture,0.12f,snackTexture,0.135f);
+		inventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelRegion,
+				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
+		Array<Inventory.Slot> i = new Array<Inventory.Slot>();
+		i.add(new Inventory.Slot(i,inventory, Inventory.Item.ItemType.DVD,0));
+		i.add(new Inventory.Slot(i,inventory, Inventory.Item.ItemType.SNACK,3));
+		inventory.load(i);
+
+		// create a copy of the default inventory
+		initialInventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelRegion,
+				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
+		Array<Inventory.Slot> iCopy = new Array<Inventory.Slot>();
+		iCopy.add(new Inventory.Slot(iCopy,initialInventory, Inventory.Item.ItemType.DVD,0));
+		iCopy.add(new Inventory.Slot(iCopy,initialInventory, Inventory.Item.ItemType.SNACK,3));
+		initialInventory.load(iCopy);
 	}
 
 	protected Texture createTexture(AssetManager manager, String file) {
@@ -664,7 +686,7 @@ public class GameplayController {
 	 * Creates a new GameplayController with no active elements.
 	 *
 	 */
-	public GameplayController(String levelNameString, Region reg, GameCanvas canvas, float endY,
+	public GameplayController(String levelNameString, Region reg, GameCanvas canvas, float endY, int numLanes,
 							  Array<Enemy> enemies,
 							  Array<Event> e,
 							  ObjectMap<String,Radio.Genre> s,
@@ -672,10 +694,13 @@ public class GameplayController {
 							  Array<RoadImage> roadsideObjs) {
 		System.out.println(levelNameString);
 		region = reg;
+		dashLayer = new HudLayer();
 		soundController = sc;
 		songs = s;
-		enemiez = enemies;
-		radio = new Radio(radioknobTexture, radioSlider, radioPointer, radioSoundOn,
+		spawnQueue = enemies;
+		enemiez = new Array<Enemy>();
+		enemyStore = new EnemyStore();
+		radio = new Radio(radioknobRegion, radioSlider, radioPointer, radioSoundOn,
 				radioSoundOff, radioNedLike, radioNedDislike, radioNoshLike,
 				radioNoshDislike, songs);
 		enemiezSave = new Array<Enemy>();
@@ -686,65 +711,34 @@ public class GameplayController {
 			genres.add(g);
 		}
 
-        /* 1.) Walk through the enemiez array, and construct a mapping
-               that goes from enemy -> copy of enemy.
-           2.) For each enemy: enemy copy pairing, set the enemy copy's
-               right-enemy to its a copy of its right enemy, using the map.
-           3.) Add each of these to the enemiezSave array. */
-
-		ObjectMap<Enemy, Enemy> enemyToCopy = new ObjectMap<Enemy, Enemy>();
-
+		/* Save a copy of each enemy, with its right enemy stored as an index
+		   into the save so that reset can link up the new copies. */
+		ObjectIntMap<Enemy> saveIndex = new ObjectIntMap<Enemy>(enemies.size);
 		for (int i = 0; i < enemies.size; i++) {
-			if (enemies.get(i) != null) {
-				enemyToCopy.put(enemies.get(i), new Enemy(enemies.get(i)));
-			}
+			saveIndex.put(enemies.get(i), i);
 		}
-
-		for (ObjectMap.Entry<Enemy, Enemy> entry : enemyToCopy.entries()) {
-			if (entry != null) {
-				Enemy copiedEnemy = entry.value;
-				if (copiedEnemy.getRightEnemy() != null) {
-					copiedEnemy.setRightEnemy(enemyToCopy.get(copiedEnemy.getRightEnemy()));
-				}
-				enemiezSave.add(copiedEnemy);
-			}
+		saveRightIndex = new IntArray(enemies.size);
+		for (Enemy enemy : enemies) {
+			Enemy copiedEnemy = new Enemy(enemy);
+			copiedEnemy.setRightEnemy(null);
+			enemiezSave.add(copiedEnemy);
+			saveRightIndex.add(enemy.getRightEnemy() == null ? -1 : saveIndex.get(enemy.getRightEnemy(), -1));
 		}
+		createPools();
 
 		yonda = new Car();
 		backing = new Array<Enemy>();
-		road = new Road(endY);
+		road = new Road(endY, numLanes, reg);
 		ypos = 0.0f;
 		nextEvent = 0;
 		sunShine = false;
 		events = e;
 
-		// Initialize the inventory TODO REMOVE STARTING INV STUFF
-		// Item textures
-		dvdTexture = new Texture(DVD0_FILE);
-		snackTexture = new Texture(SNACK0_FILE);
-
 		Image.updateScreenDimensions(canvas);
-		// create the default inventory
-		Inventory.Item.setTexturesAndScales(dvdTexture,0.12f,snackTexture,0.135f);
-		inventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelTexture,
-				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
-		Array<Inventory.Slot> i = new Array<Inventory.Slot>();
-		i.add(new Inventory.Slot(i,inventory, Inventory.Item.ItemType.DVD,0));
-		i.add(new Inventory.Slot(i,inventory, Inventory.Item.ItemType.SNACK,3));
-		inventory.load(i);
-
-		// create a copy of the default inventory
-		initialInventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelTexture,
-				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
-		Array<Inventory.Slot> iCopy = new Array<Inventory.Slot>();
-		iCopy.add(new Inventory.Slot(iCopy,initialInventory, Inventory.Item.ItemType.DVD,0));
-		iCopy.add(new Inventory.Slot(iCopy,initialInventory, Inventory.Item.ItemType.SNACK,3));
-		initialInventory.load(iCopy);
 
 		satTextures = new HashMap<String, Texture>();
 
-		roadsideTexs = new ObjectMap<String, Texture>();
-		//		loadRoadsideTexs();
+		roadsideRegions = new ObjectMap<String, TextureRegion>();
 
 		// load roadside objects and create a save
 		this.roadsideObjs = roadsideObjs;
@@ -754,23 +748,107 @@ public class GameplayController {
 		}
 	}
 
+	/**
+	 * Creates the pools that enemies and roadside images are recycled through.
+	 */
+	private void createPools() {
+		gnomePool = new Pool<Gnome>() {
+			protected Gnome newObject() {
+				return new Gnome(0, 0);
+			}
+		};
+		flamingoPool = new Pool<Flamingo>() {
+			protected Flamingo newObject() {
+				return new Flamingo(0, 0);
+			}
+		};
+		grillPool = new Pool<Grill>() {
+			protected Grill newObject() {
+				return new Grill(0, 0);
+			}
+		};
+		flamePool = new Pool<Flame>() {
+			protected Flame newObject() {
+				return new Flame(0, 0);
+			}
+		};
+		roadImagePool = new Pool<RoadImage>() {
+			protected RoadImage newObject() {
+				return new RoadImage(0, 0, null);
+			}
+		};
+	}
+
+	/**
+	 * Returns a pooled copy of a saved enemy.
+	 *
+	 * @param saved the saved enemy to copy
+	 */
+	private Enemy obtainEnemy(Enemy saved) {
+		Enemy e;
+		switch (saved.getType()) {
+			case GRILL:
+				e = grillPool.obtain();
+				break;
+			case FLAMINGO:
+				e = flamingoPool.obtain();
+				break;
+			case FLAME:
+				e = flamePool.obtain();
+				e.setFilmStrip(flameRegion, 1, 1);
+				break;
+			default:
+				e = gnomePool.obtain();
+				break;
+		}
+		e.set(saved);
+		return e;
+	}
+
+	/**
+	 * Returns a road object to its pool.
+	 *
+	 * @param o the object, which must no longer be referenced by the level
+	 */
+	protected void free(RoadObject o) {
+		switch (o.getType()) {
+			case GNOME:
+				gnomePool.free((Gnome) o);
+				break;
+			case FLAMINGO:
+				flamingoPool.free((Flamingo) o);
+				break;
+			case GRILL:
+				grillPool.free((Grill) o);
+				break;
+			case FLAME:
+				flamePool.free((Flame) o);
+				break;
+			case IMAGE:
+				roadImagePool.free((RoadImage) o);
+				break;
+			default:
+				break;
+		}
+	}
+
 	/**
 	 * Creates the object mapping between roadside image names and their
-	 * corresponding textures.
+	 * corresponding regions of the road atlas.
 	 */
-	private void loadRoadsideTexs() {
-		roadsideTexs.put(BILLBOARD_END_IS_NEAR, new Texture(BILLBOARD_END_IS_NEAR_FILE));
-		roadsideTexs.put(BILLBOARD_GRILL, new Texture(BILLBOARD_GRILL_FILE));
-		roadsideTexs.put(BILLBOARD_FLAMINGO, new Texture(BILLBOARD_FLAMINGO_FILE));
-		roadsideTexs.put(BILLBOARD_WHERE_WILL_YOU_BE, new Texture(BILLBOARD_WHERE_WILL_YOU_BE_FILE));
-		roadsideTexs.put(EXIT_SIGN, new Texture(EXIT_SIGN_FILE));
-		roadsideTexs.put(SUNFLOWER, new Texture(SUNFLOWER_FILE));
-		roadsideTexs.put(TREE, new Texture(TREE_FILE));
-		roadsideTexs.put(TOPIARY, new Texture(TOPIARY_FILE));
-		roadsideTexs.put(SPEEDLIMIT_25, new Texture(SPEEDLIMIT_25_FILE));
-		roadsideTexs.put(SPEEDLIMIT_55, new Texture(SPEEDLIMIT_55_FILE));
-		roadsideTexs.put(SPEEDLIMIT_65, new Texture(SPEEDLIMIT_65_FILE));
-		roadsideTexs.put(SPEEDLIMIT_80, new Texture(SPEEDLIMIT_80_FILE));
+	private void loadRoadsideRegions() {
+		roadsideRegions.put(BILLBOARD_END_IS_NEAR, atlases.getRegion(BILLBOARD_END_IS_NEAR_FILE));
+		roadsideRegions.put(BILLBOARD_GRILL, atlases.getRegion(BILLBOARD_GRILL_FILE));
+		roadsideRegions.put(BILLBOARD_FLAMINGO, atlases.getRegion(BILLBOARD_FLAMINGO_FILE));
+		roadsideRegions.put(BILLBOARD_WHERE_WILL_YOU_BE, atlases.getRegion(BILLBOARD_WHERE_WILL_YOU_BE_FILE));
+		roadsideRegions.put(EXIT_SIGN, atlases.getRegion(EXIT_SIGN_FILE));
+		roadsideRegions.put(SUNFLOWER, atlases.getRegion(SUNFLOWER_FILE));
+		roadsideRegions.put(TREE, atlases.getRegion(TREE_FILE));
+		roadsideRegions.put(TOPIARY, atlases.getRegion(TOPIARY_FILE));
+		roadsideRegions.put(SPEEDLIMIT_25, atlases.getRegion(SPEEDLIMIT_25_FILE));
+		roadsideRegions.put(SPEEDLIMIT_55, atlases.getRegion(SPEEDLIMIT_55_FILE));
+		roadsideRegions.put(SPEEDLIMIT_65, atlases.getRegion(SPEEDLIMIT_65_FILE));
+		roadsideRegions.put(SPEEDLIMIT_80, atlases.getRegion(SPEEDLIMIT_80_FILE));
 	}
 
 	/**
@@ -784,6 +862,15 @@ public class GameplayController {
 	 */
 	public Array<Enemy> getEnemiez() { return enemiez; }
 
+	/**
+	 * Returns the store holding the state of the enemies in getEnemiez().
+	 *
+	 * Enemies added to the list since the last update may not be in it yet.
+	 *
+	 * @return a reference to the enemy store
+	 */
+	public EnemyStore getEnemyStore() { return enemyStore; }
+
 	/**
 	 * Returns a reference to the car.
 	 */
@@ -809,6 +896,11 @@ public class GameplayController {
 	 */
 	public VroomStick getVroomStick() { return vroomStick; }
 
+	/**
+	 * Returns a reference to the horn.
+	 */
+	public Horn getHorn() { return horn; }
+
 	public Image getHealthGauge() { return healthGauge; }
 	public Image getHealthGaugePointer() { return healthGaugePointer; }
 	public Image getRearviewBackground() { return rearviewBackground; }
@@ -827,12 +919,23 @@ public class GameplayController {
 	 */
 	public Inventory getInventory(){ return inventory; }
 
+	/** Set the inventory to hold the given numbers of movies and snacks */
+	public void setInventory(int numMovies, int numSnacks) {
+		Inventory i = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelRegion,
+				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
+		Array<Inventory.Slot> slots = new Array<Inventory.Slot>();
+		slots.add(new Inventory.Slot(slots,i, Inventory.Item.ItemType.DVD,numMovies));
+		slots.add(new Inventory.Slot(slots,i, Inventory.Item.ItemType.SNACK,numSnacks));
+		i.load(slots);
+		setInventory(i);
+	}
+
 	/** Set the inventory and creates a copy of it */
 	public void setInventory(Inventory i) {
 		inventory = i;
 
 		// create a copy
-		initialInventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelTexture,
+		initialInventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelRegion,
 				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
 		Array<Inventory.Slot> iCopy = new Array<Inventory.Slot>();
 		iCopy.add(new Inventory.Slot(iCopy,initialInventory, Inventory.Item.ItemType.DVD,inventory.getNumMovies()));
@@ -856,41 +959,38 @@ public class GameplayController {
 	 */
 	public void start(float x, float y) {
 		soundController.startAmbience();
-		radio = new Radio(radioknobTexture, radioSlider, radioPointer, radioSoundOn,
+		radio = new Radio(radioknobRegion, radioSlider, radioPointer, radioSoundOn,
 				radioSoundOff, radioNedLike, radioNedDislike, radioNoshLike,
 				radioNoshDislike, songs);
 		dvdPlayer = new DvdPlayer(soundController);
 		touchscreen = new TouchScreen(radio, dvdPlayer, onTouchscreen, offTouchscreen, dvdSlot);
 		masterShaker = new Image();
+		// A shake left over from the last level would carry into this one
+		Image.stopShake();
 		sunShine = false;
 		yonda.getNosh().setChildFilmStrip(noshTexture, NOSH_FILMSTRIP_ROWS, NOSH_FILMSTRIP_COLS);
 		yonda.getNed().setChildFilmStrip(nedTexture, NED_FILMSTRIP_ROWS, NED_FILMSTRIP_COLS);
 		yonda.setDashTexture(dashTexture);
-		getCar().setGaugeTexture(healthGaugeTexture);
-		getCar().setGaugePointerTexture(healthPointerTexture);
-
-		// roadside textures
-		loadRoadsideTexs();
 
 		// speech-bubble related stuff
 		speechNed = new Image(NED_BUBBLE_X , NED_BUBBLE_Y, 0.1f, speechTexture);
 		speechNosh = new Image(NOSH_BUBBLE_X, NOSH_BUBBLE_Y, 0.1f, speechTexture);
 
-		horn = new Horn(0.17f, 0.1845f, 0.17f, 0.01f, hornTexture);
+		horn = new Horn(0.17f, 0.1845f, 0.17f, 0.01f, hornRegion);
 
-		healthGauge = new Image(0.34f, 0.05f, 0.175f, healthGaugeTexture);
-		healthGaugePointer = new Image(0.39f, 0.08f, 0.09f, healthPointerTexture);
+		healthGauge = new Image(0.34f, 0.05f, 0.175f, healthGaugeRegion);
+		healthGaugePointer = new Image(0.39f, 0.08f, 0.09f, healthPointerRegion);
 
-		rearviewBackground = new Image(0.78f, 0.86f, 0.257f, rearviewBackgroundTexture, GameCanvas.TextureOrigin.MIDDLE);
-		rearviewSeats = new Image(0.78f, 0.86f, 0.3f, rearviewSeatsTexture,GameCanvas.TextureOrigin.MIDDLE);
-		rearviewCover = new Image(0.78f, 0.86f, 0.3f, rearviewCoverTexture,GameCanvas.TextureOrigin.MIDDLE);
+		rearviewBackground = new Image(0.78f, 0.86f, 0.257f, rearviewBackgroundRegion, GameCanvas.TextureOrigin.MIDDLE);
+		rearviewSeats = new Image(0.78f, 0.86f, 0.3f, rearviewSeatsRegion,GameCanvas.TextureOrigin.MIDDLE);
+		rearviewCover = new Image(0.78f, 0.86f, 0.3f, rearviewCoverRegion,GameCanvas.TextureOrigin.MIDDLE);
 		rearviewEnemy = new RearviewEnemy(0.78f, 0.8f, 0.18f,0, rearviewGnomeTexture);
-		rearviewDamageIndicator = new Image(0.78f, 0.86f, 0.3f, rearviewDamageTexture,GameCanvas.TextureOrigin.MIDDLE);
+		rearviewDamageIndicator = new Image(0.78f, 0.86f, 0.3f, rearviewDamageRegion,GameCanvas.TextureOrigin.MIDDLE);
 
 		rearviewDVD = new RearviewDVD(0.78f, 0.865f, 0.3f, rearviewDVDTexture);
 
 		// TODO CHANGE THIS LOL
-		for (Enemy e : enemiez) {
+		for (Enemy e : spawnQueue) {
 			if (e.getType() == RoadObject.ObjectType.GNOME) {
 				e.setFilmStrip(gnomeTexture, GNOME_FILMSTRIP_ROWS, GNOME_FILMSTRIP_COLS);
 			}
@@ -903,17 +1003,20 @@ public class GameplayController {
 			}
 			if (e.getType() == RoadObject.ObjectType.GRILL) {
 				e.setFilmStrip(grillTexture, GRILL_FILMSTRIP_ROWS, GRILL_FILMSTRIP_COLS);
-				((Grill) e).setFireTexture(flameTexture);
+				((Grill) e).setFireTexture(flameRegion);
 				//				System.out.println(((Grill) e).getFlames().size);
 				for (int i = 0; i < ((Grill) e).getFlames().size; i++) {
-					enemiez.add(((Grill) e).getFlames().get(i));
-					enemiezSave.add(((Grill) e).getFlames().get(i));
+					spawnQueue.add(((Grill) e).getFlames().get(i));
+					enemiezSave.add(new Enemy(((Grill) e).getFlames().get(i)));
+					saveRightIndex.add(-1);
 				}
 			}
 		}
+		// Levels list enemies mostly in y order already, but flames come last
+		spawnQueue.sort(BY_Y);
 
-		wheel = new Wheel(0.17f,0.19f, 0.55f, 0, wheelTexture);
-		vroomStick = new VroomStick(0.17f, 0.17f,0.33f, 0.3f, vroomStickTexture);
+		wheel = new Wheel(0.17f,0.19f, 0.55f, 0, wheelRegion);
+		vroomStick = new VroomStick(0.17f, 0.17f,0.33f, 0.3f, vroomStickRegion);
 		visor = new Visor(visorTexture, sun, sun2, sun3, white);
 		yonda.setVisor(visor);
 
@@ -945,48 +1048,37 @@ public class GameplayController {
 		yonda.reset();
 		wheel = null;
 		radio = null;
-		enemiez = new Array<Enemy>();
-
-		ObjectMap<Enemy, Enemy> enemyToCopy = new ObjectMap<Enemy, Enemy>();
 
+		// Return the current enemies to their pools and take new copies of the saved ones
+		enemyStore.clear();
+		for (Enemy e : enemiez) {
+			free(e);
+		}
+		enemiez.clear();
+		for (int i = nextSpawn; i < spawnQueue.size; i++) {
+			free(spawnQueue.get(i));
+		}
+		spawnQueue.clear();
 		for (int i = 0; i < enemiezSave.size; i++) {
-			if (enemiezSave.get(i) != null) {
-				Enemy enemy = enemiezSave.get(i);
-				switch (enemiezSave.get(i).getType()) {
-					case GRILL:
-						enemyToCopy.put(enemy, new Grill(enemy));
-						break;
-					case GNOME:
-						enemyToCopy.put(enemy, new Gnome(enemy));
-						break;
-					case FLAMINGO:
-						enemyToCopy.put(enemy, new Flamingo(enemy));
-						break;
-					case FLAME:
-						Flame newFlame = new Flame(enemy);
-						newFlame.setX(newFlame.getStartPos().x);
-						newFlame.setY(newFlame.getStartPos().y);
-						newFlame.setFilmStrip(flameTexture, 1, 1);
-						enemyToCopy.put(enemy, newFlame);
-					default:
-						break;
-				}
-			}
+			spawnQueue.add(obtainEnemy(enemiezSave.get(i)));
 		}
-
-		for (ObjectMap.Entry<Enemy, Enemy> entry : enemyToCopy.entries()) {
-			if (entry != null) {
-				Enemy copiedEnemy = entry.value;
-				if (copiedEnemy.getRightEnemy() != null) {
-					copiedEnemy.setRightEnemy(enemyToCopy.get(copiedEnemy.getRightEnemy()));
-				}
-				enemiez.add(copiedEnemy);
+		for (int i = 0; i < enemiezSave.size; i++) {
+			if (saveRightIndex.get(i) >= 0) {
+				spawnQueue.get(i).setRightEnemy(spawnQueue.get(saveRightIndex.get(i)));
 			}
 		}
+		spawnQueue.sort(BY_Y);
+		nextSpawn = 0;
+		travelled = 0;
 
-		roadsideObjs = new Array<RoadImage>();
-		for(RoadImage image : roadsideObjsSave) {
-			roadsideObjs.add(new RoadImage(image));
+		for (RoadImage image : roadsideObjs) {
+			free(image);
+		}
+		roadsideObjs.clear();
+		for (RoadImage image : roadsideObjsSave) {
+			RoadImage copy = roadImagePool.obtain();
+			copy.set(image);
+			roadsideObjs.add(copy);
 		}
 		backing.clear();
 		ypos = 0.0f;
@@ -996,7 +1088,7 @@ public class GameplayController {
 		// reset inventory
 		inventory = initialInventory;
 		// create a copy
-		initialInventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelTexture,
+		initialInventory = new Inventory(INV_X_LEFT,INV_Y_BOTTOM,INV_RELSCA,INV_CB,wheelRegion,
 				INV_SLOT_WIDTH, INV_SLOT_HEIGHT, INV_NUM_SLOTS);
 		Array<Inventory.Slot> iCopy = new Array<Inventory.Slot>();
 		iCopy.add(new Inventory.Slot(iCopy,initialInventory, Inventory.Item.ItemType.DVD,inventory.getNumMovies()));
@@ -1004,6 +1096,34 @@ public class GameplayController {
 		initialInventory.load(iCopy);
 	}
 
+	/**
+	 * Moves the enemies that have come within spawnDistance() of the car from
+	 * the spawn queue into the live enemies.
+	 *
+	 * Queued enemies are not moved each frame, so their y is shifted by the
+	 * distance travelled when they spawn.
+	 */
+	private void spawnEnemies() {
+		float spawnDistance = spawnDistance(region);
+		while (nextSpawn < spawnQueue.size) {
+			Enemy e = spawnQueue.get(nextSpawn);
+			if (e.getY() - travelled >= spawnDistance) {
+				break;
+			}
+			e.setY(e.getY() - travelled);
+			enemiez.add(e);
+			nextSpawn++;
+		}
+	}
+
+	/**
+	 * Return how far ahead of the car enemies spawn in a region: just past
+	 * the end of the road that is drawn.
+	 */
+	public static float spawnDistance(Region region) {
+		return region.getRoadDrawDistance() + SPAWN_MARGIN;
+	}
+
 	/**
 	 * Garbage collects all deleted objects.
 	 *
@@ -1015,7 +1135,12 @@ public class GameplayController {
 		// INVARIANT: backing and objects are disjoint
 		for (Enemy e : enemiez) {
 			if (e.isDestroyed()) {
+				enemyStore.remove(e);
 				destroy(e);
+			} else if (e.getY() < RETIRE_Y) {
+				// Behind the car for good, so stop updating and drawing it
+				enemyStore.remove(e);
+				free(e);
 			} else {
 				backing.add(e);
 			}
@@ -1033,10 +1158,7 @@ public class GameplayController {
 	 * Process specialized destruction functionality
 	 *
 	 * Some objects do something special (e.g. explode) on destruction. That is handled
-	 * in this method.
-	 *
-	 * Notice that this allocates memory to the heap.  If we were REALLY worried about
-	 * performance, we would use a memory pool here.
+	 * in this method. Afterwards the object is returned to its pool.
 	 *
 	 * @param o Object to destroy
 	 */
@@ -1048,6 +1170,7 @@ public class GameplayController {
 			default:
 				break;
 		}
+		free(o);
 	}
 
 	/**
@@ -1338,14 +1461,19 @@ public class GameplayController {
 
 		// Update world objects (road and gnome positions)
 		road.update(delta);
-		for (Enemy e : enemiez) {
-			e.update(delta, road.getSpeed());
-
-			/* FIXME: idk if its best to have this here */
-			if (horn.isHonking()) {
-				if (e.getType() == RoadObject.ObjectType.FLAMINGO) {
-					Flamingo f = (Flamingo) e;
-					if (e.getY() < f.getFlyAwayDistance()) {
+		// Spawn enemies coming into view and pick up any added since the last
+		// frame, then move them all at once
+		spawnEnemies();
+		enemyStore.sync(enemiez);
+		enemyStore.update(delta, road.getSpeed());
+		travelled += road.getSpeed() * delta;
+
+		/* FIXME: idk if its best to have this here */
+		if (horn.isHonking()) {
+			for (int i = 0; i < enemyStore.size(); i++) {
+				if (enemyStore.getType(i) == RoadObject.ObjectType.FLAMINGO) {
+					Flamingo f = (Flamingo) enemyStore.getView(i);
+					if (enemyStore.getY(i) < f.getFlyAwayDistance()) {
 						if(!f.isFlyingAway()) soundController.flamingoFlapSound();
 						f.setAnimationBounds(FLAMINGO_FLY_START, FLAMINGO_FLY_END);
 						f.setFlyingAway();
@@ -1514,20 +1642,53 @@ public class GameplayController {
 		droppedPos = inputController.getClickPos();
 	}
 
-	public void draw(GameCanvas canvas) {
+	/**
+	 * Draw the HUD elements that only change with the car's health or the
+	 * radio: the cracks, the dash, the health gauge, the touchscreen and the
+	 * mirror's background.
+	 *
+	 * None of the interactive elements drawn after them overlap the
+	 * touchscreen or the mirror, so drawing those two early looks the same.
+	 * The mirror's seats and cover are drawn in between the enemy and the
+	 * children in it, so they can not join this layer.
+	 *
+	 * @param canvas The drawing context
+	 */
+	private void drawDashLayer(GameCanvas canvas) {
+		//draw cracks on screen if low health
+		if(yonda.getHealth() < 50)
+			canvas.draw(cracksTexture, GameCanvas.TextureOrigin.MIDDLE, 0.5f, 0.6f, 1f, true);
 
-		canvas.setCameraFOV(road.getSpeedRatio());
+		///**  Draw Dash **///
+		yonda.drawDash(canvas);
 
-		//Gnomez
-		for (Enemy e : enemiez) {
-			e.draw(canvas);
+		// Health gauge
+		Color healthGaugeColor = Color.WHITE;
+		if (yonda.getIsDamaged()) {
+			healthGaugeColor = Color.RED;
 		}
+		healthGauge.draw(canvas, healthGaugeColor);
+
+		// Touchscreen
+		touchscreen.draw(canvas, displayFont);
+
+		rearviewBackground.draw(canvas);
+	}
+
+	/**
+	 * Free the cached HUD layers.
+	 */
+	public void dispose() {
+		dashLayer.dispose();
+	}
+
+	public void draw(GameCanvas canvas) {
 
 		for (RoadImage i : roadsideObjs) {
 			if (!i.getName().equals(EXIT_SIGN)) {
-				i.draw(canvas, roadsideTexs.get(i.getName()));
+				i.draw(canvas, roadsideRegions.get(i.getName()));
 			} else {
-				i.draw(canvas, roadsideTexs.get(i.getName()), displayFont);
+				i.draw(canvas, roadsideRegions.get(i.getName()), displayFont);
 			}
 
 		}
@@ -1535,19 +1696,21 @@ public class GameplayController {
 		//Draw sun effect part 1
 		visor.drawSunA(canvas, sunShine);
 
-		//draw cracks on screen if low health
-		if(yonda.getHealth() < 50)
-			canvas.draw(cracksTexture, GameCanvas.TextureOrigin.MIDDLE, 0.5f, 0.6f, 1f, true);
-
-		///**  Draw Dash and Interactive HUD Elements **///
-		yonda.drawDash(canvas);
-
-		// Health gauge and pointer
-		Color healthGaugeColor = Color.WHITE;
-		if (yonda.getIsDamaged()) {
-			healthGaugeColor = Color.RED;
+		// Static HUD elements, from the cache unless they are shaking or a DVD plays
+		if (yonda.getIsShaking() || Image.isHudShaking() || dvdPlayer.isPlayingDvd()) {
+			drawDashLayer(canvas);
+			dashLayer.invalidate();
+		} else {
+			int key = (yonda.getHealth() < 50 ? 1 : 0) | (yonda.getIsDamaged() ? 2 : 0)
+					| touchscreen.getRevision() << 2;
+			if (dashLayer.begin(canvas, key)) {
+				drawDashLayer(canvas);
+				dashLayer.end(canvas);
+			}
+			dashLayer.draw(canvas);
 		}
-		healthGauge.draw(canvas, healthGaugeColor);
+
+		///**  Draw Interactive HUD Elements **///
 		healthGaugePointer.draw(canvas, -yonda.getHealthPointerAng());
 
 		// Vroom Stick
@@ -1556,13 +1719,9 @@ public class GameplayController {
 		// Wheel
 		wheel.draw(canvas);
 
-		// Touchscreen
-		touchscreen.draw(canvas, displayFont);
-
 		// Horn
 		horn.draw(canvas, wheel.getAng());
 
-		rearviewBackground.draw(canvas);
 		rearviewEnemy.draw(canvas);
 		rearviewSeats.draw(canvas);
 
@@ -0,0 +1,91 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+
+/**
+ * A run of HUD elements drawn once into an offscreen layer and then reused
+ * every frame until something about them changes.
+ *
+ * The caller sums up everything the elements' look depends on in a key. When
+ * the key or the screen size changes, begin returns true and the caller draws
+ * the elements again, between begin and end. Otherwise the cached layer is
+ * drawn as it is.
+ */
+public class HudLayer {
+    /** The cached elements, the size of the screen */
+    private FrameBuffer buffer;
+    /** The buffer's texture, flipped to be upright */
+    private TextureRegion image;
+    /** The key of what is in the buffer */
+    private int key;
+    /** Whether the buffer holds the elements at all */
+    private boolean valid;
+
+    /**
+     * Start redrawing the layer if it is out of date.
+     *
+     * Must be called between beginHUDDrawing and endHUDDrawing.
+     *
+     * @param canvas the canvas the layer is drawn on
+     * @param key everything the elements' look depends on
+     * @return true if the caller must draw the elements and then call end
+     */
+    public boolean begin(GameCanvas canvas, int key) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            dispose();
+            buffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+            image = new TextureRegion(buffer.getColorBufferTexture());
+            image.flip(false, true);
+        } else if (valid && key == this.key) {
+            return false;
+        }
+        this.key = key;
+        valid = true;
+        canvas.beginLayer(buffer);
+        return true;
+    }
+
+    /**
+     * Finish redrawing the layer.
+     *
+     * @param canvas the canvas the layer is drawn on
+     */
+    public void end(GameCanvas canvas) {
+        canvas.endLayer(buffer);
+    }
+
+    /**
+     * Draw the cached elements.
+     *
+     * @param canvas the canvas the layer is drawn on
+     */
+    public void draw(GameCanvas canvas) {
+        if (valid) {
+            canvas.drawLayer(image);
+        }
+    }
+
+    /**
+     * Make the next begin redraw the layer, e.g. when the elements were drawn
+     * directly for a while.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Free the buffer.
+     */
+    public void dispose() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+            image = null;
+        }
+        valid = false;
+    }
+}
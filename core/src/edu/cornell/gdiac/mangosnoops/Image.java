@@ -2,6 +2,7 @@ package edu.cornell.gdiac.mangosnoops;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 public class Image {
@@ -11,6 +12,8 @@ public class Image {
     private float flashDeltaSum = 0;
     private Texture specialTexture;
     private Texture normalTexture;
+    private TextureRegion specialRegion;
+    private TextureRegion normalRegion;
     private boolean isFlashed = false;
     private boolean isFlashing = false;
 
@@ -19,6 +22,8 @@ public class Image {
     protected Vector2 position;
     /** The object's texture asset **/
     protected Texture texture;
+    /** The object's region of a texture atlas, drawn instead of texture if not null */
+    protected TextureRegion region;
     /** Relative width and height divided by texture -- i.e. 0.5f will make the
      * height of the texture half of the canvas screen height (width would scale the same amount)*/
     protected float relativeScale;
@@ -65,6 +70,7 @@ public class Image {
 
             if (isFlashed) {
                 texture = specialTexture;
+                if (normalRegion != null) region = specialRegion;
                 relativeScale = ORIGINAL_SCALE * 1.06f;
                 if(origin == GameCanvas.TextureOrigin.BOTTOM_LEFT) {
                     position.x = ORIGINAL_X - 0.01f;
@@ -72,6 +78,7 @@ public class Image {
                 }
             } else {
                 texture = normalTexture;
+                if (normalRegion != null) region = normalRegion;
                 relativeScale = ORIGINAL_SCALE;
                 if(origin == GameCanvas.TextureOrigin.BOTTOM_LEFT) {
                     position.x = ORIGINAL_X;
@@ -80,6 +87,7 @@ public class Image {
             }
         } else {
             texture = normalTexture;
+            if (normalRegion != null) region = normalRegion;
             relativeScale = ORIGINAL_SCALE;
             if(origin == GameCanvas.TextureOrigin.BOTTOM_LEFT) {
                 position.x = ORIGINAL_X;
@@ -112,6 +120,17 @@ public class Image {
 
     }
 
+    /** Stop any shake at once, e.g. when a level starts. */
+    public static void stopShake() {
+        isShaking = false;
+        currentShakeAmount = 0;
+        currentShakeMagnitude = 0;
+        shakeDeltaSum = 0;
+    }
+
+    /** Return true if HUD images are currently drawn shaken. */
+    public static boolean isHudShaking() { return currentShakeAmount != 0; }
+
     /** Apply the shake to the particular image.  Inventory must override this,
      *  because items should not shake if they are being dragged by the mouse. */
     public void applyShake() {
@@ -134,6 +153,11 @@ public class Image {
         specialTexture = t;
     }
 
+    /** Same as above but for an image drawn from an atlas region */
+    public void setSpecialTexture(TextureRegion r) {
+        specialRegion = r;
+    }
+
     public Image(float x, float y, float relSca, Texture tex) {
         position = new Vector2(x,y);
         if(tex == null){
@@ -190,17 +214,53 @@ public class Image {
         }
     }
 
+    /**
+     * Create an image drawn from a region of a texture atlas.
+     *
+     * @see AtlasLookup
+     */
+    public Image(float x, float y, float relSca, TextureRegion reg) {
+        this(x, y, relSca, (Texture) null);
+        if (reg != null) {
+            ORIGINAL_SCALE = relSca;
+            relativeScale = relSca;
+            region = reg;
+        }
+        normalRegion = reg;
+    }
+
+    public Image(float x, float y, float relSca, float cb, TextureRegion reg) {
+        this(x, y, relSca, reg);
+        controlBuffer = cb;
+        while(controlBuffer > 1) {
+            controlBuffer = controlBuffer/10f;
+        }
+    }
+
+    public Image(float x, float y, float relSca, TextureRegion reg, GameCanvas.TextureOrigin o) {
+        this(x, y, relSca, reg);
+        origin = o;
+    }
+
+    public Image(float x, float y, float relSca, float cb, TextureRegion reg, GameCanvas.TextureOrigin o) {
+        this(x, y, relSca, cb, reg);
+        origin = o;
+    }
+
     public Image(Image i){
         this.position = new Vector2(i.position);
         this.relativeScale = i.relativeScale;
         this.controlBuffer = i.controlBuffer;
         this.texture = i.texture;
+        this.region = i.region;
         this.ORIGINAL_SCALE = i.ORIGINAL_SCALE;
         this.origin = i.origin;
     }
 
     public Texture getTexture() {return texture; }
 
+    public TextureRegion getRegion() {return region; }
+
     public static float getScreenWidth() {
         return c.getWidth();
     }
@@ -231,6 +291,10 @@ public class Image {
      *  @param p the vector giving the mouse's (x,y) screen coordinates
      */
     public boolean inArea(Vector2 p) {
+        if (region != null) {
+            return c.inArea(p, region, origin, position.x, position.y,
+                    relativeScale, false, controlBuffer);
+        }
         return c.inArea(p, texture, origin, position.x, position.y,
                 relativeScale, false, controlBuffer);
     }
@@ -243,27 +307,43 @@ public class Image {
      * @return
      */
     public boolean inAreaWOriginScale(Vector2 p) {
+        if (region != null) {
+            return c.inArea(p, region, origin, position.x, position.y,
+                    ORIGINAL_SCALE, false, controlBuffer);
+        }
         return c.inArea(p, texture, origin, position.x, position.y,
                 ORIGINAL_SCALE, false, controlBuffer);
     }
 
     public void drawNoShake(GameCanvas canvas) {
+        if (region != null) {
+            canvas.draw(region, origin, position.x, position.y,
+                    relativeScale, false, 0, Color.WHITE);
+            return;
+        }
         canvas.draw(texture, origin, position.x, position.y,
                 relativeScale, false, 0, Color.WHITE);
     }
 
     public void draw(GameCanvas canvas) {
-        canvas.drawShake(texture, origin, position.x, position.y,
-                relativeScale, false, 0, Color.WHITE, currentShakeAmount);
+        draw(canvas, 0, Color.WHITE);
     }
 
     public void draw(GameCanvas canvas, Color tint) {
-        canvas.drawShake(texture, origin, position.x, position.y,
-                relativeScale, false, 0, tint, currentShakeAmount);
+        draw(canvas, 0, tint);
     }
 
     public void draw(GameCanvas canvas, float ang) {
+        draw(canvas, ang, Color.WHITE);
+    }
+
+    private void draw(GameCanvas canvas, float ang, Color tint) {
+        if (region != null) {
+            canvas.drawShake(region, origin, position.x, position.y,
+                    relativeScale, false, ang, tint, currentShakeAmount);
+            return;
+        }
         canvas.drawShake(texture, origin, position.x, position.y,
-                relativeScale, false, ang, Color.WHITE, currentShakeAmount);
+                relativeScale, false, ang, tint, currentShakeAmount);
     }
 }
@@ -25,6 +25,8 @@ import edu.cornell.gdiac.mangosnoops.hudentity.Radio;
 import edu.cornell.gdiac.mangosnoops.hudentity.Wheel;
 import org.omg.PortableInterceptor.SYSTEM_EXCEPTION;
 
+import java.io.IOException;
+
 /**
  * Class for reading player keyboard input.
  */
@@ -52,6 +54,29 @@ public class InputController {
 	private boolean turnPressed;
 	/** Whether the pause button was pressed or not **/
 	private boolean pausePressed;
+	/** Whether the skip button is held, and whether it was just pressed */
+	private boolean skipHeld;
+	private boolean skipPressed;
+
+	/** What was read from the devices, or from the replay, this step */
+	private InputRecording.Step step = new InputRecording.Step();
+	/** Where each step's input is written, or null if it is not recorded */
+	private InputRecording recording;
+	/** Where each step's input is read from instead of the devices, or null */
+	private InputRecording replay;
+
+	// Input seen by poll() since the last readInput()
+	/** Whether the pause button was pressed */
+	private boolean pendingPause;
+	/** Whether the reset button was pressed */
+	private boolean pendingReset;
+	/** Whether the skip button was pressed */
+	private boolean pendingSkip;
+	/** Whether the left mouse button was down */
+	private boolean pendingClick;
+	/** How far the mouse was dragged */
+	private float pendingDX;
+	private float pendingDY;
 	/**
 	 * Creates a new input controller.
 	 */
@@ -77,7 +102,7 @@ public class InputController {
 	/**
 	 * @return The current mouse position
 	 */
-	public Vector2 getHoverPos() { return new Vector2(Gdx.input.getX(),Gdx.input.getY()); }
+	public Vector2 getHoverPos() { return new Vector2(step.x, step.y); }
 
 	/**
 	 * @return true if the reset button was pressed.
@@ -121,11 +146,56 @@ public class InputController {
 	 */
 	public boolean pressedPause(){ return pausePressed; }
 
+	/**
+	 * @return true if the skip button (for cutscenes) is held
+	 */
+	public boolean isSkipHeld() { return skipHeld; }
+
+	/**
+	 * @return true if the skip button was just pressed
+	 */
+	public boolean didSkip() { return skipPressed; }
 
 	/**
-	 * Reads the input for the player and converts the result into game logic.
+	 * Write the input of every step to a recording, from the next step on.
+	 */
+	public void startRecording(InputRecording recording) {
+		this.recording = recording;
+		// The recording starts at this size, so only later changes are resizes
+		step.width = recording.getWidth();
+		step.height = recording.getHeight();
+	}
+
+	/**
+	 * Stop writing the input to the recording.
+	 */
+	public void stopRecording() {
+		recording = null;
+	}
+
+	/**
+	 * Read the input of every step from a recording instead of the devices,
+	 * from the next step on. Once the recording runs out there is no input.
 	 */
-	public void readInput() {
+	public void startReplay(InputRecording replay) {
+		this.replay = replay;
+	}
+
+
+	/**
+	 * Collects the presses and mouse movement of this frame, to be handed to
+	 * the next readInput.
+	 *
+	 * Must be called once every frame. The game can read its input more or
+	 * less often than once a frame (it does so once per simulation step), and
+	 * libGDX only reports a key as just pressed for the frame it went down in.
+	 * Holding on to the presses here means each one is seen by exactly one
+	 * readInput, and the mouse movement of frames without a step is not lost.
+	 */
+	public void poll() {
+		if (replay != null) {
+			return;
+		}
 		//Full screen/Escape Full Screen
 		if(Gdx.input.isKeyJustPressed(Input.Keys.F)) {
 			settings.setFullScreen(true);
@@ -134,41 +204,68 @@ public class InputController {
 			settings.setFullScreen(false);
 		}
 
-		//Read input for Gameplay
-		prevMouseClicked = mouseClicked;
-		mouseClicked = (Gdx.input.isButtonPressed(Input.Buttons.LEFT));
-		pausePressed = (Gdx.input.isKeyJustPressed(Input.Keys.P) || Gdx.input.isKeyJustPressed(Input.Keys.SHIFT_LEFT));
-		resetPressed = (Gdx.input.isKeyJustPressed(Input.Keys.R));
+		pendingPause |= (Gdx.input.isKeyJustPressed(Input.Keys.P) || Gdx.input.isKeyJustPressed(Input.Keys.SHIFT_LEFT));
+		pendingReset |= (Gdx.input.isKeyJustPressed(Input.Keys.R));
+		pendingSkip |= (Gdx.input.isKeyJustPressed(Input.Keys.SPACE));
+		if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
+			pendingClick = true;
+			pendingDX += Gdx.input.getDeltaX();
+			pendingDY += Gdx.input.getDeltaY();
+		}
+	}
 
-		//Process number input for SAT Question
-		if(Gdx.input.isKeyPressed(Input.Keys.NUM_0)) {
-			numKeyPressed = 0;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_1)) {
-			numKeyPressed = 1;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_2)) {
-			numKeyPressed = 2;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_3)) {
-			numKeyPressed = 3;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_4)) {
-			numKeyPressed = 4;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_5)) {
-			numKeyPressed = 5;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_6)) {
-			numKeyPressed = 6;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_7)) {
-			numKeyPressed = 7;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_8)) {
-			numKeyPressed = 8;
-		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_9)) {
-			numKeyPressed = 9;
+	/**
+	 * Reads the input for the player and converts the result into game logic.
+	 *
+	 * Presses and mouse movement are those collected by poll() since the last
+	 * call, so they are only seen once however often this is called.
+	 *
+	 * What is read is first put in a Step, which is written to the recording
+	 * if there is one. When replaying, the Step is read from the replay
+	 * instead, so the game sees exactly the input it was recorded with. The
+	 * step's time is part of it, as the states other than play are updated
+	 * with the time of the frame.
+	 *
+	 * @param delta the time the step covers
+	 * @return the time the step covers: delta, or the recorded time when replaying
+	 */
+	public float readInput(float delta) {
+		if (replay != null) {
+			try {
+				if (!replay.read(step)) {
+					clearStep(delta);
+				}
+			} catch (IOException e) {
+				System.out.println("Could not read the replay: " + e.getMessage());
+				replay = null;
+				clearStep(delta);
+			}
 		} else {
-			numKeyPressed = -1;
+			sampleDevices(delta);
+			if (recording != null) {
+				try {
+					recording.write(step);
+				} catch (IOException e) {
+					System.out.println("Could not record input: " + e.getMessage());
+					recording = null;
+				}
+			}
 		}
+
+		//Read input for Gameplay
+		prevMouseClicked = mouseClicked;
+		mouseClicked = step.is(InputRecording.Step.MOUSE);
+		pausePressed = step.is(InputRecording.Step.PAUSE);
+		resetPressed = step.is(InputRecording.Step.RESET);
+		skipHeld = step.is(InputRecording.Step.SKIP_HELD);
+		skipPressed = step.is(InputRecording.Step.SKIP);
+		numKeyPressed = step.numKey;
+
 		//Process mouse input
 		if (mouseClicked) {
-			clickPos = new Vector2(Gdx.input.getX(), Gdx.input.getY());
-			dx = Gdx.input.getDeltaX();
-			dy = Gdx.input.getDeltaY();
+			clickPos = new Vector2(step.x, step.y);
+			dx = step.dx;
+			dy = step.dy;
 			//System.out.println(mouseClicked);
 			//            System.out.println("Mouse at: "+ clickPos);
 		} else {
@@ -176,7 +273,7 @@ public class InputController {
 		}
 		turnPressed = false;
 		//Process WASD/Arrow input (for turning wheel)
-        if(Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+        if(step.is(InputRecording.Step.RIGHT)) {
 			turnPressed = true;
             if(dx > 10){
                 dx -= 4;
@@ -185,7 +282,7 @@ public class InputController {
             } else {
                 dx = 6;
             }
-        } else if(Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+        } else if(step.is(InputRecording.Step.LEFT)) {
 			turnPressed = true;
             if (dx < -10) {
                 dx -= 4;
@@ -197,6 +294,96 @@ public class InputController {
         } else if(!mouseClicked) {
             dx = 0;
         }
+		return step.delta;
+	}
+
+	/**
+	 * Reads this step's input from the devices, and what poll() collected,
+	 * into step.
+	 */
+	private void sampleDevices(float delta) {
+		int flags = 0;
+		if (pendingClick || Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
+			flags |= InputRecording.Step.MOUSE;
+		}
+		if (pendingPause) {
+			flags |= InputRecording.Step.PAUSE;
+		}
+		if (pendingReset) {
+			flags |= InputRecording.Step.RESET;
+		}
+		if (pendingSkip) {
+			flags |= InputRecording.Step.SKIP;
+		}
+		if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+			flags |= InputRecording.Step.SKIP_HELD;
+		}
+		// Right wins if both are held, as the wheel only turns one way at a time
+		if (Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+			flags |= InputRecording.Step.RIGHT;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+			flags |= InputRecording.Step.LEFT;
+		}
+		step.flags = flags;
+
+		//Process number input for SAT Question
+		if(Gdx.input.isKeyPressed(Input.Keys.NUM_0)) {
+			step.numKey = 0;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_1)) {
+			step.numKey = 1;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_2)) {
+			step.numKey = 2;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_3)) {
+			step.numKey = 3;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_4)) {
+			step.numKey = 4;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_5)) {
+			step.numKey = 5;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_6)) {
+			step.numKey = 6;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_7)) {
+			step.numKey = 7;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_8)) {
+			step.numKey = 8;
+		} else if (Gdx.input.isKeyPressed(Input.Keys.NUM_9)) {
+			step.numKey = 9;
+		} else {
+			step.numKey = -1;
+		}
+
+		// Full screen toggles and window resizes take effect between steps
+		int width = Gdx.graphics.getWidth();
+		int height = Gdx.graphics.getHeight();
+		if (width != step.width || height != step.height) {
+			step.flags |= InputRecording.Step.RESIZE;
+		}
+		step.width = width;
+		step.height = height;
+
+		step.x = Gdx.input.getX();
+		step.y = Gdx.input.getY();
+		step.dx = pendingDX;
+		step.dy = pendingDY;
+		step.delta = delta;
+
+		pendingPause = false;
+		pendingReset = false;
+		pendingSkip = false;
+		pendingClick = false;
+		pendingDX = 0;
+		pendingDY = 0;
+	}
+
+	/**
+	 * Make this step one with no input, keeping the mouse where it was and
+	 * the screen the size it was.
+	 */
+	private void clearStep(float delta) {
+		step.flags = 0;
+		step.numKey = -1;
+		step.dx = 0;
+		step.dy = 0;
+		step.delta = delta;
 	}
 
 }
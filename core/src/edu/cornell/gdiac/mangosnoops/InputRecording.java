@@ -0,0 +1,320 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The input a level was played with, one record per step, which can be
+ * played back to make the level play out exactly as it did.
+ *
+ * While recording, InputController writes what it read from the devices each
+ * time the game reads its input. While replaying, it reads the records back
+ * instead, and the rest of the game runs as usual. A level seeds the random
+ * numbers from its seed when it is made, so the same records make the same
+ * game.
+ *
+ * Mouse positions are in pixels, and the HUD is laid out for the size of the
+ * screen, so a replay must be played at the size the level was played at.
+ * The size is recorded at the start, and again before any step at which the
+ * window was resized or made full screen or windowed.
+ *
+ * A recording starts with the level's name, the cutscene it was started
+ * with, its seed, the movies and snacks the player brought to it, and the
+ * size of the screen as two shorts. Each record is then
+ *   - SIZE and the new size of the screen, as two shorts, if it changed
+ *   - a byte of flags, the Step constants
+ *   - the number key held, or -1, as a byte
+ *   - the mouse position, as two shorts
+ *   - how far the mouse was dragged, as two shorts, if the button was down
+ *   - the time the step covered, as a float, if it was not GameMode.STEP
+ * which comes to 6 bytes for most steps. After the last record is END and
+ * how the level stood when the recording was finished, to check a replay
+ * against. A recording cut short, say by a crash, is replayed as far as it
+ * goes.
+ */
+public class InputRecording {
+    /** "MSIR", to tell a recording from any other file */
+    private static final int MAGIC = 0x4d534952;
+    private static final int VERSION = 2;
+    /** Written in place of the flags after the last record. No record has
+     *  these flags, as the wheel is never turned both ways at once. */
+    private static final int END = 0xff;
+    /** Written in place of the flags before a record made at a new screen
+     *  size. No record has these flags either. */
+    private static final int SIZE = Step.RIGHT | Step.LEFT;
+    /** Records between flushes, so a crash loses at most this many */
+    private static final int FLUSH_STEPS = 600;
+
+    /**
+     * What the game read from the input in one step.
+     */
+    public static class Step {
+        public static final int MOUSE = 1;
+        public static final int PAUSE = 2;
+        public static final int RESET = 4;
+        public static final int RIGHT = 8;
+        public static final int LEFT = 16;
+        public static final int SKIP_HELD = 32;
+        public static final int SKIP = 64;
+        /** The step did not cover GameMode.STEP, so its time is recorded */
+        public static final int TIMED = 128;
+        /** The screen changed size since the step before. Not part of the
+         *  flags byte: it is recorded as a SIZE before the record instead. */
+        public static final int RESIZE = 256;
+
+        public int flags;
+        public int numKey;
+        public int x;
+        public int y;
+        public float dx;
+        public float dy;
+        public float delta;
+        /** Size of the screen when the step was read */
+        public int width;
+        public int height;
+
+        public boolean is(int flag) { return (flags & flag) != 0; }
+    }
+
+    private String level;
+    private int cutscene;
+    private int seed;
+    private int numMovies;
+    private int numSnacks;
+    /** Size of the screen at the start, and at the last record written or
+     *  the next one to replay */
+    private int startWidth;
+    private int startHeight;
+    private int width;
+    private int height;
+    /** Whether the next record to replay is preceded by a SIZE */
+    private boolean resized;
+    private DataOutputStream out;
+    private DataInputStream in;
+    /** Flags of the next record to replay, or END */
+    private int next;
+    /** Records written or read so far */
+    private int steps;
+
+    /** Whether the recording was finished, rather than cut short */
+    private boolean complete;
+    /** How the level stood when the recording was finished */
+    private int finalSteps;
+    private int finalHealth;
+    private float finalProgress;
+
+    /**
+     * Start a recording.
+     *
+     * @param out where to write it
+     * @param level file name of the level being played
+     * @param cutscene the cutscene the level starts with, or -1 if none
+     * @param seed the level's seed
+     * @param numMovies movies in the player's inventory
+     * @param numSnacks snacks in the player's inventory
+     * @param width width of the screen, in pixels
+     * @param height height of the screen, in pixels
+     */
+    public InputRecording(OutputStream out, String level, int cutscene, int seed,
+                          int numMovies, int numSnacks, int width, int height) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.level = level;
+        this.cutscene = cutscene;
+        this.seed = seed;
+        this.numMovies = numMovies;
+        this.numSnacks = numSnacks;
+        startWidth = this.width = width;
+        startHeight = this.height = height;
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeUTF(level);
+        this.out.writeByte(cutscene);
+        this.out.writeInt(seed);
+        this.out.writeByte(numMovies);
+        this.out.writeByte(numSnacks);
+        this.out.writeShort(width);
+        this.out.writeShort(height);
+    }
+
+    /**
+     * Open a recording to replay.
+     *
+     * @param in the recording, which is read as it is replayed
+     * @throws IOException if it could not be read or is not a recording
+     */
+    public InputRecording(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != MAGIC || this.in.readByte() != VERSION) {
+            throw new IOException("Not an input recording");
+        }
+        level = this.in.readUTF();
+        cutscene = this.in.readByte();
+        seed = this.in.readInt();
+        numMovies = this.in.readByte();
+        numSnacks = this.in.readByte();
+        startWidth = width = this.in.readShort();
+        startHeight = height = this.in.readShort();
+        readNext();
+    }
+
+    /** @return file name of the level played */
+    public String getLevel() { return level; }
+
+    /** @return the cutscene the level started with, or -1 if none */
+    public int getCutscene() { return cutscene; }
+
+    /** @return the level's seed */
+    public int getSeed() { return seed; }
+
+    /** @return movies in the player's inventory when the level started */
+    public int getNumMovies() { return numMovies; }
+
+    /** @return snacks in the player's inventory when the level started */
+    public int getNumSnacks() { return numSnacks; }
+
+    /** @return width of the screen when the level started, in pixels */
+    public int getStartWidth() { return startWidth; }
+
+    /** @return height of the screen when the level started, in pixels */
+    public int getStartHeight() { return startHeight; }
+
+    /** @return width of the screen the next record to replay was made at */
+    public int getWidth() { return width; }
+
+    /** @return height of the screen the next record to replay was made at */
+    public int getHeight() { return height; }
+
+    /** @return the number of records written, or replayed so far */
+    public int getSteps() { return steps; }
+
+    /** @return true if every record has been replayed */
+    public boolean isFinished() { return in != null && next == END; }
+
+    /** @return true if the recording was finished, so the final values below are known */
+    public boolean isComplete() { return complete; }
+
+    /** @return the number of records in the recording, once it is finished */
+    public int getFinalSteps() { return finalSteps; }
+
+    /** @return the car's health when the recording was finished */
+    public int getFinalHealth() { return finalHealth; }
+
+    /** @return how far along the level the car was when the recording was finished */
+    public float getFinalProgress() { return finalProgress; }
+
+    /**
+     * Append a step to the recording.
+     */
+    public void write(Step step) throws IOException {
+        if (step.width != width || step.height != height) {
+            width = step.width;
+            height = step.height;
+            out.writeByte(SIZE);
+            out.writeShort(width);
+            out.writeShort(height);
+        }
+        int flags = step.delta == GameMode.STEP ? step.flags & ~Step.TIMED : step.flags | Step.TIMED;
+        flags &= ~Step.RESIZE;
+        out.writeByte(flags);
+        out.writeByte(step.numKey);
+        out.writeShort(step.x);
+        out.writeShort(step.y);
+        if ((flags & Step.MOUSE) != 0) {
+            out.writeShort((int) step.dx);
+            out.writeShort((int) step.dy);
+        }
+        if ((flags & Step.TIMED) != 0) {
+            out.writeFloat(step.delta);
+        }
+        steps++;
+        if (steps % FLUSH_STEPS == 0) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Read the next step of the recording.
+     *
+     * @return false if there are no steps left, in which case step is not changed
+     */
+    public boolean read(Step step) throws IOException {
+        if (next == END) {
+            return false;
+        }
+        try {
+            int numKey = in.readByte();
+            int x = in.readShort();
+            int y = in.readShort();
+            int dx = (next & Step.MOUSE) != 0 ? in.readShort() : 0;
+            int dy = (next & Step.MOUSE) != 0 ? in.readShort() : 0;
+            float delta = (next & Step.TIMED) != 0 ? in.readFloat() : GameMode.STEP;
+            step.flags = resized ? next | Step.RESIZE : next;
+            step.numKey = numKey;
+            step.x = x;
+            step.y = y;
+            step.dx = dx;
+            step.dy = dy;
+            step.delta = delta;
+            step.width = width;
+            step.height = height;
+        } catch (EOFException e) {
+            // Cut short in the middle of a record
+            next = END;
+            return false;
+        }
+        steps++;
+        readNext();
+        return true;
+    }
+
+    /**
+     * End the recording with how the level stands, and close it.
+     *
+     * @param health the car's health
+     * @param progress how far along the level the car is
+     */
+    public void finish(int health, float progress) throws IOException {
+        out.writeByte(END);
+        out.writeInt(steps);
+        out.writeInt(health);
+        out.writeFloat(progress);
+        out.close();
+    }
+
+    /**
+     * Close a recording being replayed.
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Read the flags of the next record, and the screen size it was made at,
+     * or the end of the recording.
+     */
+    private void readNext() throws IOException {
+        try {
+            next = in.readUnsignedByte();
+            resized = next == SIZE;
+            if (resized) {
+                width = in.readShort();
+                height = in.readShort();
+                next = in.readUnsignedByte();
+            }
+            if (next == END) {
+                finalSteps = in.readInt();
+                finalHealth = in.readInt();
+                finalProgress = in.readFloat();
+                complete = true;
+            }
+        } catch (EOFException e) {
+            next = END;
+        }
+    }
+}
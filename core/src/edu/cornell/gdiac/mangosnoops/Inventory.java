@@ -2,6 +2,7 @@ package edu.cornell.gdiac.mangosnoops;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
@@ -30,7 +31,7 @@ public class Inventory extends Image {
 
     public void setItemOffset(float f) { itemOffset = f; }
 
-    public Inventory(float x_left, float y_bottom, float r, float cb, Texture t, float slotWidth, float slotHeight, int numSlots) {
+    public Inventory(float x_left, float y_bottom, float r, float cb, TextureRegion t, float slotWidth, float slotHeight, int numSlots) {
         super(x_left, y_bottom, r, cb, t);
         slots = new Array<Slot>(numSlots);
         slotsDimensions = new Vector2(slotWidth,slotHeight);
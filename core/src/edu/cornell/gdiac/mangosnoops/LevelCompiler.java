@@ -0,0 +1,166 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.utils.Array;
+import org.json.JSONObject;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Scanner;
+
+/**
+ * Build-time tool that compiles the designer spreadsheets into the binary
+ * level format read by LevelObject.
+ *
+ * Every levels/*.xlsx and levels/patterns/*.xlsx gets a .lvl file next to it,
+ * so the game never has to load Apache POI to start a level. The levels and
+ * rest stops the game plays are also bundled into a LevelPack. Run it from the
+ * assets directory (gradle desktop:compileLevels).
+ */
+public class LevelCompiler {
+    /** Directories, relative to levels/, that hold level spreadsheets */
+    private static final String[] LEVEL_DIRS = { "", "patterns/" };
+    /** File name patterns of the pack entries, in play order */
+    private static final String[] LEVEL_PATTERNS = { "^tut[0-9]+.xlsx$", "^level[0-9]+.xlsx$" };
+    private static final String[] REST_STOP_PATTERNS = { "^rest_stop_tut[0-9]+.json$", "^rest_stop[0-9]+.json$" };
+
+    public static void main(String[] args) {
+        int compiled = 0;
+        int failed = 0;
+        for (String dir : LEVEL_DIRS) {
+            String[] files = new File("levels/" + dir).list();
+            if (files == null) {
+                continue;
+            }
+            Arrays.sort(files);
+            for (String f : files) {
+                // Skip Excel lock files and anything that is not a spreadsheet
+                if (f.startsWith("~$") || !(f.endsWith(".xlsx") || f.endsWith(".xls"))) {
+                    continue;
+                }
+                try {
+                    compile(dir + f);
+                    compiled++;
+                } catch (Exception e) {
+                    System.out.println("Failed to compile " + dir + f + ": " + e.getMessage());
+                    failed++;
+                }
+            }
+        }
+        System.out.println("Compiled " + compiled + " levels, " + failed + " failed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+
+        try {
+            writePack(LevelPack.PACK_FILE);
+        } catch (Exception e) {
+            System.out.println("Failed to write level pack: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compile a single level spreadsheet.
+     *
+     * @param file filename of the Excel file, relative to "levels/"
+     * @return the path of the compiled level
+     */
+    public static String compile(String file) throws Exception {
+        LevelObject level = new LevelObject(file, false);
+        String out = "levels/" + file.substring(0, file.lastIndexOf('.') + 1) + LevelObject.COMPILED_EXT;
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out)));
+        try {
+            level.writeCompiled(stream);
+        } finally {
+            stream.close();
+        }
+        return out;
+    }
+
+    /**
+     * Bundle the levels and rest stops in levels/ into a level pack.
+     *
+     * @param out path of the pack to write
+     */
+    public static void writePack(String out) throws Exception {
+        Array<String> levels = listFiles(LEVEL_PATTERNS);
+        Array<String> restStops = listFiles(REST_STOP_PATTERNS);
+
+        // Serialize every entry first so the index can hold their offsets
+        Array<byte[]> blobs = new Array<byte[]>();
+        for (String name : levels) {
+            LevelObject level = new LevelObject(name);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream stream = new DataOutputStream(bytes);
+            level.writeCompiled(stream);
+            stream.close();
+            blobs.add(bytes.toByteArray());
+        }
+        for (String name : restStops) {
+            Scanner scanner = new Scanner(new File("levels/" + name));
+            JSONObject json = new JSONObject(scanner.useDelimiter("\\A").next());
+            scanner.close();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream stream = new DataOutputStream(bytes);
+            stream.writeInt(json.getInt("numCanTake"));
+            stream.writeInt(json.getInt("numSnacks"));
+            stream.writeInt(json.getInt("numMovies"));
+            stream.close();
+            blobs.add(bytes.toByteArray());
+        }
+
+        Array<String> names = new Array<String>(levels);
+        names.addAll(restStops);
+
+        // Header and index size
+        int offset = 12;
+        for (String name : names) {
+            offset += 11 + name.getBytes("UTF-8").length;
+        }
+
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out)));
+        try {
+            stream.writeInt(LevelPack.PACK_MAGIC);
+            stream.writeInt(LevelPack.PACK_VERSION);
+            stream.writeInt(names.size);
+            for (int i = 0; i < names.size; i++) {
+                boolean isLevel = i < levels.size;
+                byte[] name = names.get(i).getBytes("UTF-8");
+                stream.writeByte((isLevel ? LevelPack.EntryType.LEVEL : LevelPack.EntryType.REST_STOP).ordinal());
+                stream.writeShort(name.length);
+                stream.write(name);
+                stream.writeInt(offset);
+                stream.writeInt(blobs.get(i).length);
+                offset += blobs.get(i).length;
+            }
+            for (byte[] blob : blobs) {
+                stream.write(blob);
+            }
+        } finally {
+            stream.close();
+        }
+        System.out.println("Packed " + levels.size + " levels and " + restStops.size + " rest stops into " + out);
+    }
+
+    /**
+     * Return the files in levels/ matching each pattern in turn, sorted within
+     * each pattern.
+     */
+    private static Array<String> listFiles(String[] patterns) {
+        String[] files = new File("levels/").list();
+        Arrays.sort(files);
+        Array<String> result = new Array<String>();
+        for (String pattern : patterns) {
+            for (String f : files) {
+                if (f.matches(pattern)) {
+                    result.add(f);
+                }
+            }
+        }
+        return result;
+    }
+}
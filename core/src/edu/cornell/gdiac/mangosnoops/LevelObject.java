@@ -6,11 +6,29 @@ import com.badlogic.gdx.utils.*;
 import edu.cornell.gdiac.mangosnoops.hudentity.Radio.*;
 import edu.cornell.gdiac.mangosnoops.roadentity.*;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Random;
 import java.util.Scanner;
 
@@ -33,6 +51,8 @@ public class LevelObject {
     private boolean randomSelect;
     /** Random seed */
     private int seed;
+    /** Random numbers for placing enemies, from the seed */
+    private Random rand;
 
     /** Mapping between the level's song genres and its song mp3 files */
     private ObjectMap<String,Genre> songs;
@@ -43,6 +63,8 @@ public class LevelObject {
     private Array<Event> events;
     /** An array of the roadside objects for this level. */
     private Array<RoadImage> roadsideObjs;
+    /** Grills started in each lane of the block being processed */
+    private Array<Grill> blockGrills;
 
     /** Quantities of items in inventory as determined by the input level file */
     private int numSnacks;
@@ -93,7 +115,7 @@ public class LevelObject {
     private static final float MORE_PADDING_MILES = 8.0f;
     private static final float MOST_PADDING_MILES = 11.0f;
     /** Constants to help calculate x-coordinates of enemies */
-    private static final float LANE_X = 0.2f; // width of a lane
+    static final float LANE_X = Road.LANE_WIDTH; // width of a lane
     private static final float HALF_LANE_WIDTH = 0.1f;
     private static final int LANE_X_OFFSET = 1;
     /** x-coordinates of roadside areas */
@@ -137,6 +159,14 @@ public class LevelObject {
     private static final int ROAD_START_ROW = 1;
     private static final int ROAD_START_COL = 4;
 
+    /** Compiled level constants */
+    /** File extension of levels produced by the LevelCompiler */
+    public static final String COMPILED_EXT = "lvl";
+    /** Marks the start of a compiled level ("HAFG") */
+    private static final int COMPILED_MAGIC = 0x48414647;
+    /** Bumped whenever the compiled layout changes, so stale files are rejected */
+    private static final int COMPILED_VERSION = 1;
+
     /**
      * Return the region for this level.
      */
@@ -215,31 +245,51 @@ public class LevelObject {
     /**
      * Loads in a file to create a Level Object.
      *
-     * @param file filename of JSON or Excel file. does not need to include "levels/"
+     * If the level is in the loaded LevelPack it is read from there. Otherwise, if
+     * an Excel file is given and a compiled copy of it (see LevelCompiler) sits
+     * next to it and is up to date, the compiled copy is read instead.
+     *
+     * @param file filename of JSON, Excel or compiled level file. does not need to include "levels/"
      * @throws IOException if one is raised while opening or closing the file
      * @throws InvalidFormatException if Excel input file format is invalid
      * @throws RuntimeException for invalid settings in the Excel level builder or unsupported file types
      */
     public LevelObject(String file) throws IOException, InvalidFormatException, RuntimeException {
-        localMiles = LEVEL_START_EXTRA;
-        totalMiles = localMiles;
+        this(file, true);
+    }
 
-        // Initialize collections
-        songs = new ObjectMap<String,Genre>();
-        enemiez = new Array<Enemy>();
-        events = new Array<Event>();
-        useBlocks = new Array<Integer>();
-        roadsideObjs = new Array<RoadImage>();
+    /**
+     * Loads in a file to create a Level Object.
+     *
+     * @param file filename of JSON, Excel or compiled level file. does not need to include "levels/"
+     * @param useCompiled whether a packed or compiled copy of an Excel file may be read in its place
+     * @throws IOException if one is raised while opening or closing the file
+     * @throws InvalidFormatException if Excel input file format is invalid
+     * @throws RuntimeException for invalid settings in the Excel level builder or unsupported file types
+     */
+    LevelObject(String file, boolean useCompiled) throws IOException, InvalidFormatException, RuntimeException {
+        init();
 
-        // Inventory amounts - overwritten if a JSON is loaded
-        numSnacks = -1;
-        numBooks = -1;
-        numMovies = -1;
+        // if the level pack has this level
+        String ext = file.substring(file.lastIndexOf('.') + 1);
+        LevelPack pack = LevelPack.get();
+        if (useCompiled && pack != null && pack.isCurrent(file, "levels/" + file)) {
+            readCompiled(pack.getData(file));
+        }
 
         // if Excel file
-        String ext = file.substring(file.lastIndexOf('.') + 1);
-        if (ext.equals("xlsx") || ext.equals("xls")) {
-            parseExcel("levels/" + file);
+        else if (ext.equals("xlsx") || ext.equals("xls")) {
+            String compiled = useCompiled ? findCompiled("levels/" + file) : null;
+            if (compiled != null) {
+                parseCompiled(compiled);
+            } else {
+                parseExcel("levels/" + file);
+            }
+        }
+
+        // if compiled level file
+        else if (ext.equals(COMPILED_EXT)) {
+            parseCompiled("levels/" + file);
         }
 
         // if JSON file
@@ -252,9 +302,37 @@ public class LevelObject {
             throw new RuntimeException("Unsupported file type");
         }
 
-        // After parsing through level update any exit sign miles
-        updateSigns();
+    }
+
+    /**
+     * Creates a Level Object from the contents of a compiled level.
+     *
+     * @param data buffer positioned at the start of a compiled level
+     * @throws IOException if the data is not a compiled level of the current version
+     */
+    public LevelObject(ByteBuffer data) throws IOException {
+        init();
+        readCompiled(data);
+    }
+
+    /**
+     * Resets the parsing state and allocates the level collections.
+     */
+    private void init() {
+        localMiles = LEVEL_START_EXTRA;
+        totalMiles = localMiles;
+
+        // Initialize collections
+        songs = new ObjectMap<String,Genre>();
+        enemiez = new Array<Enemy>();
+        events = new Array<Event>();
+        useBlocks = new Array<Integer>();
+        roadsideObjs = new Array<RoadImage>();
 
+        // Inventory amounts - overwritten if a JSON is loaded
+        numSnacks = -1;
+        numBooks = -1;
+        numMovies = -1;
     }
 
     /**
@@ -319,7 +397,17 @@ public class LevelObject {
 
             // parse the excel level associated with this save file
             int currentLevelNum = json.getInt("currentLevelNum");
-            parseExcel("levels/level" + currentLevelNum + ".xlsx");
+            String level = "level" + currentLevelNum + ".xlsx";
+            String source = "levels/" + level;
+            String compiled = findCompiled(source);
+            LevelPack pack = LevelPack.get();
+            if (pack != null && pack.isCurrent(level, source)) {
+                readCompiled(pack.getData(level));
+            } else if (compiled != null) {
+                parseCompiled(compiled);
+            } else {
+                parseExcel(source);
+            }
 
         } catch (FileNotFoundException e) {
             System.out.println("Saved level JSON not found");
@@ -336,6 +424,11 @@ public class LevelObject {
 
     /**
      * Parse an Excel file for information about a level.
+     *
+     * xlsx files are streamed through the XSSF event API, so only the cells of
+     * the blocks in use are kept and reading stops once every block has hit its
+     * "END" marker. xls files are read through the usermodel API.
+     *
      * @param filepath relative path to an Excel file (xlsx or xls) stored in assets folder
      * @throws RuntimeException if an invalid setting was given in the level
      * @throws IOException if there is an error in opening/closing file
@@ -343,132 +436,14 @@ public class LevelObject {
      */
     public void parseExcel(String filepath) throws IOException, InvalidFormatException, RuntimeException {
         try {
-            FileInputStream f = new FileInputStream(new File(filepath));
-
-            // Create a workbook and get the first sheet
-            Workbook wb = WorkbookFactory.create(f);
-            Sheet sh = wb.getSheetAt(0);
-
-            // Data formatter to help with parsing
-            DataFormatter df = new DataFormatter();
-
-            // Region information
-            String regionStr = df.formatCellValue(sh.getRow(REGION_ROW).getCell(REGION_COL)).toLowerCase();
-            if (regionStr.equals("the burbs"))
-                region = Region.SUBURBS;
-            else if (regionStr.equals("highway"))
-                region = Region.HIGHWAY;
-            else if (regionStr.equals("midwest"))
-                region = Region.MIDWEST;
-            else if (regionStr.equals("colorado"))
-                region = Region.COLORADO;
-            else
-                throw new RuntimeException("Invalid region setting");
-
-            // Speed information
-            String speedStr = df.formatCellValue(sh.getRow(SPEED_ROW).getCell(SPEED_COL)).toLowerCase();
-            if (speedStr.equals("very slow"))
-                speed = VERY_SLOW_SPEED;
-            else if (speedStr.equals("slow"))
-                speed = SLOW_SPEED;
-            else if (speedStr.equals("normal"))
-                speed = NORMAL_SPEED;
-            else if (speedStr.equals("fast"))
-                speed = FAST_SPEED;
-            else if (speedStr.equals("very fast"))
-                speed = VERY_FAST_SPEED;
-            else
-                throw new RuntimeException("Invalid speed setting");
-
-            // Number of lanes
-            numLanes = Integer.parseInt(df.formatCellValue(sh.getRow(LANE_ROW).getCell(LANE_COL)));
-
-
-            // Add a speed limit sign depending on the region and number of lanes
-            addSpeedLimit(region, numLanes);
-
-            // Random selection of blocks
-            String randomStr = df.formatCellValue(sh.getRow(RANDOM_SELECT_ROW).getCell(RANDOM_SELECT_COL)).toLowerCase();
-            if (randomStr.equals("no"))
-                randomSelect = false;
-            else if (randomStr.equals("yes"))
-                randomSelect = true;
-            else
-                throw new RuntimeException("Invalid random selection setting");
-
-            // Which blocks to read from
-            String[] useBlocksStr = df.formatCellValue(sh.getRow(USE_BLOCKS_ROW).getCell((USE_BLOCKS_COL))).split(",");
-            for (int i = 0; i < useBlocksStr.length; i++) {
-                useBlocks.add(Integer.parseInt(useBlocksStr[i].trim()));
-            }
-
-            // Padding between enemies
-            String pStr = df.formatCellValue(sh.getRow(PADDING_ROW).getCell(PADDING_COL)).toLowerCase();
-            if (pStr.equals("less"))
-                padding = LESS_PADDING_MILES;
-            else if (pStr.equals("normal"))
-                padding = NORMAL_PADDING_MILES;
-            else if (pStr.equals("more"))
-                padding = MORE_PADDING_MILES;
-            else if (pStr.equals("least"))
-                padding = LEAST_PADDING_MILES;
-            else if (pStr.equals("most"))
-                padding = MOST_PADDING_MILES;
-            else
-                padding = Float.parseFloat(pStr);
-
-            // Seed
-            seed = Integer.parseInt(df.formatCellValue(sh.getRow(SEED_ROW).getCell(SEED_COL)));
-
-            // Iterate through cells for songs
-            for (int i = SONGS_START_ROW; i <= SONGS_END_ROW; i++) {
-                String songFile = "RadioSongs/" + df.formatCellValue(sh.getRow(i).getCell(SONG_FILE_COL));
-                String genreStr = df.formatCellValue(sh.getRow(i).getCell(SONG_GENRE_COL)).toLowerCase();
-
-                // Stop iterating if no more song files are listed
-                if (songFile.equals("RadioSongs/")) {
-                    break;
-                }
-
-                if (genreStr.equals("classical"))
-                    songs.put(songFile, Genre.CLASSICAL);
-                else if (genreStr.equals("pop"))
-                    songs.put(songFile, Genre.POP);
-                else if (genreStr.equals("creepy"))
-                    songs.put(songFile, Genre.CREEPY);
-                else if (genreStr.equals("comedy"))
-                    songs.put(songFile, Genre.COMEDY);
-                else if (genreStr.equals("action"))
-                    songs.put(songFile, Genre.ACTION);
-                else if (genreStr.equals("jazz"))
-                    songs.put(songFile, Genre.JAZZ);
-                else if (genreStr.equals("thug"))
-                    songs.put(songFile, Genre.THUG);
-                else
-                    throw new RuntimeException("Invalid song genre specified: " + genreStr);
-            }
-
-            // Iterate through desired number of blocks in order if randomSelect is false
-            if (!randomSelect) {
-                int roadStartCol;
-                int blocksProcessed = 0;
-                while (blocksProcessed < useBlocks.size) {
-                    // Process current block
-                    roadStartCol = ROAD_START_COL + ((useBlocks.get(blocksProcessed) - 1) * (numLanes + 3));
-                    processExcelBlock(sh, roadStartCol);
-
-                    // Move to the next block
-                    blocksProcessed += 1;
-                }
-            }
-
-            // Else randomly select desired number of blocks
-            else {
-                // TODO: extend to work w/ random blocks
+            if (filepath.endsWith(".xlsx")) {
+                streamExcel(filepath);
+            } else {
+                parseWorkbook(filepath);
             }
 
-            // Close the file
-            f.close();
+            // After parsing through level update any exit sign miles
+            updateSigns();
 
         } catch (IOException e) {
             throw new IOException(e.getMessage());
@@ -481,6 +456,218 @@ public class LevelObject {
         }
     }
 
+    /**
+     * Read an Excel file through the usermodel API, which loads the whole sheet.
+     *
+     * @param filepath relative path to an Excel file (xlsx or xls) stored in assets folder
+     */
+    private void parseWorkbook(String filepath) throws IOException, InvalidFormatException {
+        FileInputStream f = new FileInputStream(new File(filepath));
+
+        // Create a workbook and get the first sheet
+        Workbook wb = WorkbookFactory.create(f);
+        Sheet sh = wb.getSheetAt(0);
+
+        // Data formatter to help with parsing
+        DataFormatter df = new DataFormatter();
+
+        applySettings(df.formatCellValue(sh.getRow(REGION_ROW).getCell(REGION_COL)),
+                      df.formatCellValue(sh.getRow(SPEED_ROW).getCell(SPEED_COL)),
+                      df.formatCellValue(sh.getRow(LANE_ROW).getCell(LANE_COL)),
+                      df.formatCellValue(sh.getRow(RANDOM_SELECT_ROW).getCell(RANDOM_SELECT_COL)),
+                      df.formatCellValue(sh.getRow(USE_BLOCKS_ROW).getCell(USE_BLOCKS_COL)),
+                      df.formatCellValue(sh.getRow(PADDING_ROW).getCell(PADDING_COL)),
+                      df.formatCellValue(sh.getRow(SEED_ROW).getCell(SEED_COL)));
+
+        // Iterate through cells for songs
+        for (int i = SONGS_START_ROW; i <= SONGS_END_ROW; i++) {
+            if (!addSong(df.formatCellValue(sh.getRow(i).getCell(SONG_GENRE_COL)),
+                         df.formatCellValue(sh.getRow(i).getCell(SONG_FILE_COL)))) {
+                break;
+            }
+        }
+
+        // Iterate through desired number of blocks in order if randomSelect is false
+        if (!randomSelect) {
+            int blocksProcessed = 0;
+            while (blocksProcessed < useBlocks.size) {
+                // Process current block
+                processExcelBlock(sh, blockStartCol(useBlocks.get(blocksProcessed)));
+
+                // Move to the next block
+                blocksProcessed += 1;
+            }
+        }
+
+        // Else randomly select desired number of blocks
+        else {
+            // TODO: extend to work w/ random blocks
+        }
+
+        // Close the file
+        f.close();
+    }
+
+    /**
+     * Read an xlsx file through the XSSF event API in a single pass.
+     *
+     * @param filepath relative path to an xlsx file stored in assets folder
+     */
+    private void streamExcel(String filepath) throws IOException, InvalidFormatException {
+        OPCPackage pkg = OPCPackage.open(new File(filepath), PackageAccess.READ);
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            // The level is always on the first sheet
+            InputStream sheet = reader.getSheetsData().next();
+            try {
+                SheetStreamer streamer = new SheetStreamer();
+                XMLReader parser = SAXHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, streamer, new DataFormatter(), false));
+                try {
+                    parser.parse(new InputSource(sheet));
+                    streamer.endSheet();
+                } catch (StopReading e) {
+                    // Every block has been read
+                }
+            } finally {
+                sheet.close();
+            }
+        } catch (SAXException e) {
+            throw new IOException(e.getMessage());
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e.getMessage());
+        } catch (OpenXML4JException e) {
+            throw new InvalidFormatException(e.getMessage());
+        } finally {
+            // Opened read-only, so close without saving
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Apply the level settings from the top left of a level sheet.
+     *
+     * @throws RuntimeException if an invalid setting was given in the level
+     */
+    private void applySettings(String regionStr, String speedStr, String lanesStr, String randomStr,
+                               String useBlocksStr, String pStr, String seedStr) {
+        // Region information
+        regionStr = regionStr.toLowerCase();
+        if (regionStr.equals("the burbs"))
+            region = Region.SUBURBS;
+        else if (regionStr.equals("highway"))
+            region = Region.HIGHWAY;
+        else if (regionStr.equals("midwest"))
+            region = Region.MIDWEST;
+        else if (regionStr.equals("colorado"))
+            region = Region.COLORADO;
+        else
+            throw new RuntimeException("Invalid region setting");
+
+        // Speed information
+        speedStr = speedStr.toLowerCase();
+        if (speedStr.equals("very slow"))
+            speed = VERY_SLOW_SPEED;
+        else if (speedStr.equals("slow"))
+            speed = SLOW_SPEED;
+        else if (speedStr.equals("normal"))
+            speed = NORMAL_SPEED;
+        else if (speedStr.equals("fast"))
+            speed = FAST_SPEED;
+        else if (speedStr.equals("very fast"))
+            speed = VERY_FAST_SPEED;
+        else
+            throw new RuntimeException("Invalid speed setting");
+
+        // Number of lanes
+        numLanes = Integer.parseInt(lanesStr);
+
+        // Add a speed limit sign depending on the region and number of lanes
+        addSpeedLimit(region, numLanes);
+
+        // Random selection of blocks
+        randomStr = randomStr.toLowerCase();
+        if (randomStr.equals("no"))
+            randomSelect = false;
+        else if (randomStr.equals("yes"))
+            randomSelect = true;
+        else
+            throw new RuntimeException("Invalid random selection setting");
+
+        // Which blocks to read from
+        String[] blocks = useBlocksStr.split(",");
+        for (int i = 0; i < blocks.length; i++) {
+            useBlocks.add(Integer.parseInt(blocks[i].trim()));
+        }
+
+        // Padding between enemies
+        pStr = pStr.toLowerCase();
+        if (pStr.equals("less"))
+            padding = LESS_PADDING_MILES;
+        else if (pStr.equals("normal"))
+            padding = NORMAL_PADDING_MILES;
+        else if (pStr.equals("more"))
+            padding = MORE_PADDING_MILES;
+        else if (pStr.equals("least"))
+            padding = LEAST_PADDING_MILES;
+        else if (pStr.equals("most"))
+            padding = MOST_PADDING_MILES;
+        else
+            padding = Float.parseFloat(pStr);
+
+        // Seed
+        seed = Integer.parseInt(seedStr);
+        rand = new Random(seed);
+    }
+
+    /**
+     * Add a song from the song list of a level sheet.
+     *
+     * @param genreStr contents of the genre cell
+     * @param fileStr contents of the song file cell
+     * @return false if the row was empty, ie there are no more songs
+     * @throws RuntimeException if an invalid genre was given
+     */
+    private boolean addSong(String genreStr, String fileStr) {
+        String songFile = "RadioSongs/" + fileStr;
+        genreStr = genreStr.toLowerCase();
+
+        // Stop iterating if no more song files are listed
+        if (songFile.equals("RadioSongs/")) {
+            return false;
+        }
+
+        if (genreStr.equals("classical"))
+            songs.put(songFile, Genre.CLASSICAL);
+        else if (genreStr.equals("pop"))
+            songs.put(songFile, Genre.POP);
+        else if (genreStr.equals("creepy"))
+            songs.put(songFile, Genre.CREEPY);
+        else if (genreStr.equals("comedy"))
+            songs.put(songFile, Genre.COMEDY);
+        else if (genreStr.equals("action"))
+            songs.put(songFile, Genre.ACTION);
+        else if (genreStr.equals("jazz"))
+            songs.put(songFile, Genre.JAZZ);
+        else if (genreStr.equals("thug"))
+            songs.put(songFile, Genre.THUG);
+        else
+            throw new RuntimeException("Invalid song genre specified: " + genreStr);
+        return true;
+    }
+
+    /**
+     * Return the first column of a block in a level sheet.
+     *
+     * @param block the block number, starting from 1
+     */
+    private int blockStartCol(int block) {
+        return ROAD_START_COL + ((block - 1) * (numLanes + 3));
+    }
+
     /** Process a block of enemies and events in an Excel level.
      *
      * @param sh the Excel sheet containing the level
@@ -488,145 +675,340 @@ public class LevelObject {
      */
     private void processExcelBlock(Sheet sh, int roadStartCol) {
         DataFormatter df = new DataFormatter();
+        String[] cells = new String[numLanes + 3];
+
+        startBlock();
+
+        // Iterate through rows until "END" is reached in first column
+        int roadCurrRow = ROAD_START_ROW;
+        do {
+            Row row = sh.getRow(roadCurrRow);
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = row == null ? "" : df.formatCellValue(row.getCell(roadStartCol + i));
+            }
+            roadCurrRow += 1;
+        } while (processBlockRow(cells));
+
+        // Update total miles
+        totalMiles = localMiles;
+    }
 
-        Array<Grill> newGrill = new Array<Grill>(numLanes);
+    /**
+     * Prepare to process the rows of a block.
+     */
+    private void startBlock() {
+        blockGrills = new Array<Grill>(numLanes);
         for (int i = 0; i < numLanes; i++) {
-            newGrill.add(null);
+            blockGrills.add(null);
+        }
+    }
+
+    /**
+     * Process one row of a block of enemies and events in an Excel level.
+     *
+     * @param cells the row's cells, from the events column to the left roadside column
+     * @return false if the row is the "END" of the block
+     */
+    private boolean processBlockRow(String[] cells) {
+        if (cells[0].toUpperCase().equals("END")) {
+            return false;
         }
 
+        // Convert miles into the y-coordinate for this block
+        float y = localMiles * MILES_TO_PIXELS;
+
+        // Read the events column - first column of the block
+        String eventStr = cells[0].toLowerCase();
+
+        if (eventStr.equals("rear enemy")) {
+            events.add(new Event(y, Event.EventType.REAR_ENEMY));
+        } else if (eventStr.equals("sun start")) {
+            events.add(new Event(y, Event.EventType.SUN_START));
+        } else if (eventStr.equals("sun end")) {
+            events.add(new Event(y, Event.EventType.SUN_END));
+        } else if (eventStr.equals("ned wakes up")) {
+            events.add(new Event(y, Event.EventType.NED_WAKES_UP));
+        } else if (eventStr.equals("nosh wakes up")) {
+            events.add(new Event(y, Event.EventType.NOSH_WAKES_UP));
+        } else if (eventStr.equals("sat question")) {
+            events.add(new Event(y, Event.EventType.SAT_QUESTION));
+        } else if (eventStr.equals("ned requests music")) {
+            events.add(new Event(y, Event.EventType.NED_REQUESTS_MUSIC));
+        } else if (eventStr.equals("nosh requests music")) {
+            events.add(new Event(y, Event.EventType.NOSH_REQUESTS_MUSIC));
+        } else if (!eventStr.equals("")) {
+            throw new RuntimeException("Invalid event specified: " + eventStr);
+        }
+
+        // Starting x-coordinate for rightmost lane
+        float x = LANE_X * (numLanes - LANE_X_OFFSET);
+        // Check for enemies in each lane
+        // Set to null before checking the lanes
         Enemy prevEnemy = null;
+        for (int i = 1; i <= numLanes; i++) {
+
+            // Calculate the x-coordinate for this enemy - decrease by 0.2 for each lane left
+            x -= LANE_X;
+            // add some offset so they are not always in the middle of the lane
+            int direction = rand.nextInt(1) == 0 ? -1 : 1;
+            float offset = rand.nextFloat() * 0.4f * HALF_LANE_WIDTH;
+            x = x + (offset*direction);
+
+            String enemyStr = cells[i + 1].toLowerCase();
+
+            if (enemyStr.equals("gnome")) {
+                Gnome gnome = new Gnome(x, y);
+                enemiez.add(gnome);
+                if (prevEnemy != null) {
+                    gnome.setRightEnemy(prevEnemy);
+                }
+                prevEnemy = gnome;
+            } else if (enemyStr.equals("flamingo")) {
+                Flamingo flamingo = new Flamingo(x, y);
+                enemiez.add(flamingo);
+                if (prevEnemy != null) {
+                    flamingo.setRightEnemy(prevEnemy);
+                }
+                prevEnemy = flamingo;
+            } else if (enemyStr.equals("grill start")) {
+                blockGrills.set(i-1, new Grill(x, y));
+            } else if (enemyStr.equals("grill end")) {
+                blockGrills.get(i-1).setStartOfGrill(y);
+                enemiez.add(blockGrills.get(i-1));
+                if (prevEnemy != null) {
+                    blockGrills.get(i-1).setRightEnemy(prevEnemy);
+                }
+                prevEnemy = blockGrills.get(i-1);
+            } else if (enemyStr.equals("")) {
+                prevEnemy = null;
+            } else if (!enemyStr.equals("")) {
+                throw new RuntimeException("Invalid enemy type specified: " + enemyStr);
+            }
+        }
 
-        // Iterate through cells until "END" is reached in first column
-        int roadCurrRow = ROAD_START_ROW;
-        while (!df.formatCellValue(sh.getRow(roadCurrRow).getCell(roadStartCol)).toUpperCase().equals("END")) {
-            // Convert miles into the y-coordinate for this block
-            float y = localMiles * MILES_TO_PIXELS;
-
-            // Read the events column - first column of the block
-            String eventStr = df.formatCellValue(sh.getRow(roadCurrRow).getCell(roadStartCol)).toLowerCase();
-
-            if (eventStr.equals("rear enemy")) {
-                events.add(new Event(y, Event.EventType.REAR_ENEMY));
-            } else if (eventStr.equals("sun start")) {
-                events.add(new Event(y, Event.EventType.SUN_START));
-            } else if (eventStr.equals("sun end")) {
-                events.add(new Event(y, Event.EventType.SUN_END));
-            } else if (eventStr.equals("ned wakes up")) {
-                events.add(new Event(y, Event.EventType.NED_WAKES_UP));
-            } else if (eventStr.equals("nosh wakes up")) {
-                events.add(new Event(y, Event.EventType.NOSH_WAKES_UP));
-            } else if (eventStr.equals("sat question")) {
-                events.add(new Event(y, Event.EventType.SAT_QUESTION));
-            } else if (eventStr.equals("ned requests music")) {
-                events.add(new Event(y, Event.EventType.NED_REQUESTS_MUSIC));
-            } else if (eventStr.equals("nosh requests music")) {
-                events.add(new Event(y, Event.EventType.NOSH_REQUESTS_MUSIC));
-            } else if (!eventStr.equals("")) {
-                throw new RuntimeException("Invalid event specified: " + eventStr);
+        // Check for left roadside objects
+        float leftRoadsideX = x - 3*LANE_X;
+        String leftRoadsideStr = cells[numLanes + 2].toLowerCase();
+
+        if (leftRoadsideStr.equals(BILLBOARD_END_IS_NEAR)
+                || leftRoadsideStr.equals(BILLBOARD_GRILL)
+                || leftRoadsideStr.equals(BILLBOARD_FLAMINGO)
+                || leftRoadsideStr.equals(BILLBOARD_WHERE_WILL_YOU_BE)
+                || leftRoadsideStr.equals(SUNFLOWER)
+                || leftRoadsideStr.equals(TREE)
+                || leftRoadsideStr.equals(TOPIARY)) {
+            RoadImage i = new RoadImage(leftRoadsideX, y, leftRoadsideStr);
+            roadsideObjs.add(i);
+        } else if (leftRoadsideStr.equals(EXIT_SIGN)) {
+            RoadImage exit = new RoadImage(leftRoadsideX, y, leftRoadsideStr, milesToInt(localMiles));
+            roadsideObjs.add(exit);
+        } else if (!leftRoadsideStr.equals("")) {
+            throw new RuntimeException("Invalid left roadside object specified: " + leftRoadsideStr);
+        }
+
+        // Check for right roadside objects
+
+        float rightRoadsideX = LANE_X * (numLanes+1);
+        String rightRoadsideStr = cells[1].toLowerCase();
+        if (rightRoadsideStr.equals(BILLBOARD_END_IS_NEAR)
+                || rightRoadsideStr.equals(BILLBOARD_GRILL)
+                || rightRoadsideStr.equals(BILLBOARD_FLAMINGO)
+                || rightRoadsideStr.equals(BILLBOARD_WHERE_WILL_YOU_BE)
+                || rightRoadsideStr.equals(SUNFLOWER)
+                || rightRoadsideStr.equals(TREE)
+                || rightRoadsideStr.equals(TOPIARY)) {
+            RoadImage i = new RoadImage(rightRoadsideX, y, rightRoadsideStr);
+            roadsideObjs.add(i);
+        } else if (rightRoadsideStr.equals(EXIT_SIGN)) {
+            RoadImage exit = new RoadImage(rightRoadsideX, y, rightRoadsideStr, milesToInt(localMiles));
+            roadsideObjs.add(exit);
+        } else if (!rightRoadsideStr.equals("")) {
+            throw new RuntimeException("Invalid right roadside object specified: " + rightRoadsideStr);
+        }
+
+        localMiles += padding;
+        levelEndY = y + LEVEL_END_EXTRA;
+        return true;
+    }
+
+    /** Thrown out of the SAX parser to stop reading a sheet early */
+    private static class StopReading extends RuntimeException {
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Receives the cells of a level sheet row by row from the XSSF event API.
+     *
+     * The settings rows are kept until the level settings are complete. After
+     * that only the columns of blocks that still have to be processed are kept,
+     * and each row is processed as soon as the block it belongs to is up.
+     */
+    private class SheetStreamer implements XSSFSheetXMLHandler.SheetContentsHandler {
+        /** Rows read before the settings were complete */
+        private Array<String[]> settingsRows = new Array<String[]>();
+        /** Cells of the current row, by column */
+        private Array<String> rowCells = new Array<String>();
+        /** Index of the current row */
+        private int currRow = -1;
+        /** Column of the last cell read */
+        private int lastCol = -1;
+        /** True once the level settings have been applied */
+        private boolean settingsDone;
+
+        /** Buffered rows of each block still to be processed */
+        private IntMap<Array<String[]>> blockRows = new IntMap<Array<String[]>>();
+        /** Blocks whose END row has been read */
+        private IntSet endedBlocks = new IntSet();
+        /** Index into useBlocks of the block being processed */
+        private int currBlock;
+        /** Index of the next row of the current block to process */
+        private int blockCursor;
+
+        public void startRow(int rowNum) {
+            // Rows with no cells are skipped in the file, treat them as empty
+            while (currRow + 1 < rowNum) {
+                currRow++;
+                endRow(currRow);
+            }
+            currRow = rowNum;
+            lastCol = -1;
+        }
+
+        public void endRow(int rowNum) {
+            String[] cells = rowCells.toArray(String.class);
+            rowCells.clear();
+            if (!settingsDone) {
+                settingsRows.add(cells);
+                if (rowNum == SONGS_END_ROW) {
+                    finishSettings();
+                }
+            } else {
+                addRow(rowNum, cells);
             }
+        }
+
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference == null ? lastCol + 1 : new CellReference(cellReference).getCol();
+            lastCol = col;
+            while (rowCells.size <= col) {
+                rowCells.add("");
+            }
+            rowCells.set(col, formattedValue == null ? "" : formattedValue);
+        }
+
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+        /**
+         * Called once the whole sheet has been read without every block ending.
+         */
+        void endSheet() {
+            if (!settingsDone) {
+                finishSettings();
+            }
+            if (!randomSelect && currBlock < useBlocks.size) {
+                throw new RuntimeException("Block " + useBlocks.get(currBlock) + " has no END");
+            }
+        }
 
-            // Starting x-coordinate for rightmost lane
-            float x = LANE_X * (numLanes - LANE_X_OFFSET);
-            // Check for enemies in each lane
-            // Set to null before checking the lanes
-            prevEnemy = null;
-            for (int i = 1; i <= numLanes; i++) {
-
-                // Calculate the x-coordinate for this enemy - decrease by 0.2 for each lane left
-                x -= LANE_X;
-                // add some offset so they are not always in the middle of the lane
-                Random rand = new Random();
-                int direction = rand.nextInt(1) == 0 ? -1 : 1;
-                float offset = rand.nextFloat() * 0.4f * HALF_LANE_WIDTH;
-                x = x + (offset*direction);
-
-                String enemyStr = df.formatCellValue(sh.getRow(roadCurrRow).getCell
-                                    (roadStartCol + i + 1)).toLowerCase();
-
-                /* Get the cell to the right. Only matters if we're not in the rightmost
-                   lane. */
-                String enemyStrRight = "";
-
-                if (enemyStr.equals("gnome")) {
-                    Gnome gnome = new Gnome(x, y);
-                    enemiez.add(gnome);
-                    if (prevEnemy != null) {
-                        gnome.setRightEnemy(prevEnemy);
-                    }
-                    prevEnemy = gnome;
-                } else if (enemyStr.equals("flamingo")) {
-                    Flamingo flamingo = new Flamingo(x, y);
-                    enemiez.add(flamingo);
-                    if (prevEnemy != null) {
-                        flamingo.setRightEnemy(prevEnemy);
-                    }
-                    prevEnemy = flamingo;
-                } else if (enemyStr.equals("grill start")) {
-                    newGrill.set(i-1, new Grill(x, y));
-                } else if (enemyStr.equals("grill end")) {
-                    newGrill.get(i-1).setStartOfGrill(y);
-                    enemiez.add(newGrill.get(i-1));
-                    if (prevEnemy != null) {
-                        newGrill.get(i-1).setRightEnemy(prevEnemy);
-                    }
-                    prevEnemy = newGrill.get(i-1);
-                } else if (enemyStr.equals("")) {
-                    prevEnemy = null;
-                } else if (!enemyStr.equals("")) {
-                    throw new RuntimeException("Invalid enemy type specified: " + enemyStr);
+        /**
+         * Apply the level settings and process the rows read so far.
+         */
+        private void finishSettings() {
+            settingsDone = true;
+            applySettings(settingsCell(REGION_ROW, REGION_COL), settingsCell(SPEED_ROW, SPEED_COL),
+                          settingsCell(LANE_ROW, LANE_COL), settingsCell(RANDOM_SELECT_ROW, RANDOM_SELECT_COL),
+                          settingsCell(USE_BLOCKS_ROW, USE_BLOCKS_COL), settingsCell(PADDING_ROW, PADDING_COL),
+                          settingsCell(SEED_ROW, SEED_COL));
+            for (int i = SONGS_START_ROW; i <= SONGS_END_ROW; i++) {
+                if (!addSong(settingsCell(i, SONG_GENRE_COL), settingsCell(i, SONG_FILE_COL))) {
+                    break;
                 }
             }
 
-            // Check for left roadside objects
-            float leftRoadsideX = x - 3*LANE_X;
-            String leftRoadsideStr = df.formatCellValue(sh.getRow(roadCurrRow).getCell
-                                        (roadStartCol + numLanes + 2)).toLowerCase();
-
-            if (leftRoadsideStr.equals(BILLBOARD_END_IS_NEAR)
-                    || leftRoadsideStr.equals(BILLBOARD_GRILL)
-                    || leftRoadsideStr.equals(BILLBOARD_FLAMINGO)
-                    || leftRoadsideStr.equals(BILLBOARD_WHERE_WILL_YOU_BE)
-                    || leftRoadsideStr.equals(SUNFLOWER)
-                    || leftRoadsideStr.equals(TREE)
-                    || leftRoadsideStr.equals(TOPIARY)) {
-                RoadImage i = new RoadImage(leftRoadsideX, y, leftRoadsideStr);
-                roadsideObjs.add(i);
-            } else if (leftRoadsideStr.equals(EXIT_SIGN)) {
-                RoadImage exit = new RoadImage(leftRoadsideX, y, leftRoadsideStr, milesToInt(localMiles));
-                roadsideObjs.add(exit);
-            } else if (!leftRoadsideStr.equals("")) {
-                throw new RuntimeException("Invalid left roadside object specified: " + leftRoadsideStr);
+            // TODO: extend to work w/ random blocks
+            if (randomSelect || useBlocks.size == 0) {
+                throw new StopReading();
             }
 
-            // Check for right roadside objects
-
-            float rightRoadsideX = LANE_X * (numLanes+1);
-            String rightRoadsideStr = df.formatCellValue(sh.getRow(roadCurrRow).getCell
-                                        (roadStartCol + 1)).toLowerCase();
-            if (rightRoadsideStr.equals(BILLBOARD_END_IS_NEAR)
-                    || rightRoadsideStr.equals(BILLBOARD_GRILL)
-                    || rightRoadsideStr.equals(BILLBOARD_FLAMINGO)
-                    || rightRoadsideStr.equals(BILLBOARD_WHERE_WILL_YOU_BE)
-                    || rightRoadsideStr.equals(SUNFLOWER)
-                    || rightRoadsideStr.equals(TREE)
-                    || rightRoadsideStr.equals(TOPIARY)) {
-                RoadImage i = new RoadImage(rightRoadsideX, y, rightRoadsideStr);
-                roadsideObjs.add(i);
-            } else if (rightRoadsideStr.equals(EXIT_SIGN)) {
-                RoadImage exit = new RoadImage(rightRoadsideX, y, rightRoadsideStr, milesToInt(localMiles));
-                roadsideObjs.add(exit);
-            } else if (!rightRoadsideStr.equals("")) {
-                throw new RuntimeException("Invalid right roadside object specified: " + rightRoadsideStr);
+            for (int i = 0; i < useBlocks.size; i++) {
+                blockRows.put(useBlocks.get(i), new Array<String[]>());
             }
+            startBlock();
+            for (int i = 0; i < settingsRows.size; i++) {
+                addRow(i, settingsRows.get(i));
+            }
+            settingsRows = null;
+        }
 
-            localMiles += padding;
-            roadCurrRow += 1;
-            levelEndY = y + LEVEL_END_EXTRA;
+        /**
+         * Return a settings cell, or "" if it is empty.
+         */
+        private String settingsCell(int row, int col) {
+            if (row >= settingsRows.size || col >= settingsRows.get(row).length) {
+                return "";
+            }
+            return settingsRows.get(row)[col];
         }
 
-        // Update total miles
-        totalMiles = localMiles;
+        /**
+         * Keep the cells of a row for each block still to be processed, then
+         * process any rows of the current block.
+         */
+        private void addRow(int rowNum, String[] cells) {
+            if (rowNum < ROAD_START_ROW) {
+                return;
+            }
+            for (IntMap.Entry<Array<String[]>> e : blockRows.entries()) {
+                if (endedBlocks.contains(e.key)) {
+                    continue;
+                }
+                int start = blockStartCol(e.key);
+                String[] blockCells = new String[numLanes + 3];
+                for (int i = 0; i < blockCells.length; i++) {
+                    blockCells[i] = start + i < cells.length ? cells[start + i] : "";
+                }
+                e.value.add(blockCells);
+                if (blockCells[0].toUpperCase().equals("END")) {
+                    endedBlocks.add(e.key);
+                }
+            }
+            processRows();
+        }
 
+        /**
+         * Process buffered rows of the blocks in order until more rows are needed.
+         */
+        private void processRows() {
+            while (currBlock < useBlocks.size) {
+                int block = useBlocks.get(currBlock);
+                Array<String[]> rows = blockRows.get(block);
+                if (blockCursor == rows.size) {
+                    return;
+                }
+                if (processBlockRow(rows.get(blockCursor++))) {
+                    continue;
+                }
+
+                // Reached the END of this block
+                totalMiles = localMiles;
+                currBlock++;
+                blockCursor = 0;
+                boolean usedAgain = false;
+                for (int i = currBlock; i < useBlocks.size; i++) {
+                    usedAgain |= useBlocks.get(i) == block;
+                }
+                if (!usedAgain) {
+                    blockRows.remove(block);
+                }
+                startBlock();
+            }
+
+            // Every block has been read
+            throw new StopReading();
+        }
     }
 
     /**
@@ -635,4 +1017,216 @@ public class LevelObject {
     private int milesToInt(float miles) {
         return (int) miles;
     }
+
+    /**
+     * Returns the path of the compiled copy of an Excel level, or null if there
+     * is none or the spreadsheet has been edited since it was compiled.
+     *
+     * @param filepath relative path to an Excel file stored in assets folder
+     */
+    public static String findCompiled(String filepath) {
+        String compiled = filepath.substring(0, filepath.lastIndexOf('.') + 1) + COMPILED_EXT;
+        File c = new File(compiled);
+        if (!c.exists()) {
+            return null;
+        }
+        File source = new File(filepath);
+        if (source.exists() && source.lastModified() > c.lastModified()) {
+            return null;
+        }
+        return compiled;
+    }
+
+    /**
+     * Read a compiled level file in a single sequential read.
+     *
+     * @param filepath relative path to a compiled level stored in assets folder
+     * @throws IOException if there is an error reading the file or it is not a compiled level
+     */
+    public void parseCompiled(String filepath) throws IOException {
+        File file = new File(filepath);
+        byte[] data = new byte[(int) file.length()];
+        FileInputStream f = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < data.length) {
+                int n = f.read(data, read, data.length - read);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of compiled level " + filepath);
+                }
+                read += n;
+            }
+        } finally {
+            f.close();
+        }
+        readCompiled(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Fill this level from a compiled level.
+     *
+     * The layout is the one written by writeCompiled: a header with the level
+     * settings, followed by the songs, enemies, events and roadside objects.
+     *
+     * @param in buffer positioned at the start of a compiled level
+     * @throws IOException if the data is not a compiled level of the current version
+     */
+    private void readCompiled(ByteBuffer in) throws IOException {
+        if (in.getInt() != COMPILED_MAGIC) {
+            throw new IOException("Not a compiled level");
+        }
+        if (in.getInt() != COMPILED_VERSION) {
+            throw new IOException("Compiled level is out of date, rerun the level compiler");
+        }
+
+        // Settings
+        region = Region.values()[in.get()];
+        speed = in.getFloat();
+        numLanes = in.getInt();
+        randomSelect = in.get() != 0;
+        padding = in.getFloat();
+        seed = in.getInt();
+        totalMiles = in.getFloat();
+        levelEndY = in.getFloat();
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            useBlocks.add(in.getInt());
+        }
+
+        // Songs
+        n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            String songFile = readString(in);
+            songs.put(songFile, Genre.values()[in.get()]);
+        }
+
+        // Enemies, linked up to their right neighbors once all of them exist
+        RoadObject.ObjectType[] types = RoadObject.ObjectType.values();
+        n = in.getInt();
+        int[] rightIndices = new int[n];
+        for (int i = 0; i < n; i++) {
+            RoadObject.ObjectType type = types[in.get()];
+            float x = in.getFloat();
+            float y = in.getFloat();
+            float startY = in.getFloat();
+            rightIndices[i] = in.getInt();
+            switch (type) {
+                case GNOME:
+                    enemiez.add(new Gnome(x, y));
+                    break;
+                case FLAMINGO:
+                    enemiez.add(new Flamingo(x, y));
+                    break;
+                case GRILL:
+                    Grill grill = new Grill(x, startY);
+                    grill.setStartOfGrill(y);
+                    enemiez.add(grill);
+                    break;
+                default:
+                    throw new IOException("Invalid enemy type in compiled level: " + type);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (rightIndices[i] >= 0) {
+                enemiez.get(i).setRightEnemy(enemiez.get(rightIndices[i]));
+            }
+        }
+
+        // Events
+        Event.EventType[] eventTypes = Event.EventType.values();
+        n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            float y = in.getFloat();
+            events.add(new Event(y, eventTypes[in.get()]));
+        }
+
+        // Roadside objects
+        n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            float x = in.getFloat();
+            float y = in.getFloat();
+            float hover = in.getFloat();
+            int miles = in.getInt();
+            RoadImage image = new RoadImage(x, y, readString(in), hover);
+            image.setMiles(miles);
+            roadsideObjs.add(image);
+        }
+    }
+
+    /**
+     * Write this level in the compiled format read by parseCompiled.
+     *
+     * @param out stream to write the compiled level to
+     * @throws IOException if there is an error writing to the stream
+     */
+    public void writeCompiled(DataOutputStream out) throws IOException {
+        out.writeInt(COMPILED_MAGIC);
+        out.writeInt(COMPILED_VERSION);
+
+        // Settings
+        out.writeByte(region.ordinal());
+        out.writeFloat(speed);
+        out.writeInt(numLanes);
+        out.writeByte(randomSelect ? 1 : 0);
+        out.writeFloat(padding);
+        out.writeInt(seed);
+        out.writeFloat(totalMiles);
+        out.writeFloat(levelEndY);
+        out.writeInt(useBlocks.size);
+        for (int i = 0; i < useBlocks.size; i++) {
+            out.writeInt(useBlocks.get(i));
+        }
+
+        // Songs
+        out.writeInt(songs.size);
+        for (ObjectMap.Entry<String,Genre> song : songs.entries()) {
+            writeString(out, song.key);
+            out.writeByte(song.value.ordinal());
+        }
+
+        // Enemies
+        out.writeInt(enemiez.size);
+        for (Enemy e : enemiez) {
+            out.writeByte(e.getType().ordinal());
+            out.writeFloat(e.getX());
+            out.writeFloat(e.getY());
+            out.writeFloat(e.getStartPos().y);
+            out.writeInt(e.getRightEnemy() == null ? -1 : enemiez.indexOf(e.getRightEnemy(), true));
+        }
+
+        // Events
+        out.writeInt(events.size);
+        for (Event e : events) {
+            out.writeFloat(e.getY());
+            out.writeByte(e.getType().ordinal());
+        }
+
+        // Roadside objects
+        out.writeInt(roadsideObjs.size);
+        for (RoadImage i : roadsideObjs) {
+            out.writeFloat(i.getX());
+            out.writeFloat(i.getY());
+            out.writeFloat(i.getHoverDistance());
+            out.writeInt(i.getMiles());
+            writeString(out, i.getName());
+        }
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string from a compiled level.
+     */
+    private static String readString(ByteBuffer in) throws IOException {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string to a compiled level.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes("UTF-8");
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
 }
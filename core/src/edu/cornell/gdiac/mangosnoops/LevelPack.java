@@ -0,0 +1,164 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A single memory-mapped file holding every compiled level and rest stop.
+ *
+ * The pack starts with an index of all of its entries, so the level lists
+ * and the data for any one level can be read without parsing or scanning the
+ * levels directory. It is written by LevelCompiler. An entry whose source
+ * file was edited after the pack was written is not used, so levels can be
+ * edited without recompiling the pack after every change.
+ *
+ * Layout: magic, version and entry count, then one index record per entry
+ * (type, name, offset and length), then the entry data.
+ * Level data is a compiled level (see LevelObject.writeCompiled); rest stop
+ * data is its numCanTake, numSnacks and numMovies.
+ */
+public class LevelPack {
+    /** Location of the pack, relative to the assets folder */
+    public static final String PACK_FILE = "levels/levels.pack";
+    /** Marks the start of a level pack ("HAFP") */
+    static final int PACK_MAGIC = 0x48414650;
+    /** Bumped whenever the pack layout changes */
+    static final int PACK_VERSION = 2;
+
+    /** Kinds of entries stored in the pack */
+    public enum EntryType {
+        LEVEL,
+        REST_STOP
+    }
+
+    /** The pack opened by the game, or null if it has none */
+    private static LevelPack loaded;
+
+    /** The mapped pack file */
+    private MappedByteBuffer data;
+    /** When the pack file was written */
+    private long modified;
+    /** Index records by entry name */
+    private ObjectMap<String,Entry> entries;
+    /** Level names, in play order */
+    private Array<String> levelNames;
+    /** Rest stop names, in play order */
+    private Array<String> restStopNames;
+
+    /** One record of the pack index */
+    private static class Entry {
+        EntryType type;
+        int offset;
+        int length;
+    }
+
+    /**
+     * Open the level pack at the given path and make it the loaded pack.
+     *
+     * @param path relative path to the pack stored in assets folder
+     * @return the pack, or null if there is no pack at that path
+     * @throws IOException if the file could not be mapped or is not a level pack
+     */
+    public static LevelPack open(String path) throws IOException {
+        if (!new File(path).exists()) {
+            loaded = null;
+            return null;
+        }
+        loaded = new LevelPack(path);
+        return loaded;
+    }
+
+    /**
+     * Return the pack opened by the game, or null if levels are read from
+     * their individual files.
+     */
+    public static LevelPack get() { return loaded; }
+
+    private LevelPack(String path) throws IOException {
+        modified = new File(path).lastModified();
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            data = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        } finally {
+            // The mapping stays valid after the channel is closed
+            file.close();
+        }
+
+        if (data.getInt() != PACK_MAGIC) {
+            throw new IOException("Not a level pack: " + path);
+        }
+        if (data.getInt() != PACK_VERSION) {
+            throw new IOException("Level pack is out of date, rerun the level compiler");
+        }
+
+        int n = data.getInt();
+        entries = new ObjectMap<String,Entry>(n);
+        levelNames = new Array<String>();
+        restStopNames = new Array<String>();
+        for (int i = 0; i < n; i++) {
+            Entry e = new Entry();
+            e.type = EntryType.values()[data.get()];
+            byte[] name = new byte[data.getShort()];
+            data.get(name);
+            e.offset = data.getInt();
+            e.length = data.getInt();
+
+            String key = new String(name, "UTF-8");
+            entries.put(key, e);
+            if (e.type == EntryType.LEVEL) {
+                levelNames.add(key);
+            } else {
+                restStopNames.add(key);
+            }
+        }
+    }
+
+    /**
+     * Return the names of the levels in the pack, tutorials first.
+     */
+    public Array<String> getLevelNames() { return levelNames; }
+
+    /**
+     * Return the names of the rest stops in the pack, in the same order as
+     * the levels they follow.
+     */
+    public Array<String> getRestStopNames() { return restStopNames; }
+
+    /**
+     * Return true if the pack has an entry with the given name, and its
+     * source file has not been edited since the pack was written.
+     *
+     * @param name the entry name, e.g. "level0.xlsx" or "rest_stop0.json"
+     * @param source path of the entry's source file, relative to the assets
+     */
+    public boolean isCurrent(String name, String source) {
+        if (!entries.containsKey(name)) {
+            return false;
+        }
+        File f = new File(source);
+        return !f.exists() || f.lastModified() <= modified;
+    }
+
+    /**
+     * Return a read-only view of an entry's data, positioned at its start.
+     *
+     * @param name the entry name, e.g. "level0.xlsx" or "rest_stop0.json"
+     */
+    public ByteBuffer getData(String name) {
+        Entry e = entries.get(name);
+        if (e == null) {
+            throw new RuntimeException("Level pack has no entry " + name);
+        }
+        ByteBuffer view = data.duplicate();
+        view.position(e.offset);
+        view.limit(e.offset + e.length);
+        return view.slice();
+    }
+}
@@ -0,0 +1,204 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.ObjectMap;
+import edu.cornell.gdiac.mangosnoops.Menus.SettingsMenu;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Loads the next level and rest stop while the current level is played.
+ *
+ * Level files and rest stop quantities are parsed on a worker thread. Once the
+ * next level is parsed, its GameMode is made on the render thread and its
+ * textures are queued. Textures need the GL context, so update() lets the
+ * AssetManager create them on the render thread a few milliseconds per frame,
+ * and GDXRoot switches to the level once they are all in.
+ */
+public class LevelPrefetcher {
+    /** Milliseconds per frame the AssetManager may spend loading */
+    private static final int GL_BUDGET_MILLIS = 4;
+
+    /** AssetManager that creates the GL resources */
+    private AssetManager manager;
+    /** What a GameMode is made with */
+    private GameCanvas canvas;
+    private SettingsMenu settings;
+    private SoundController soundController;
+    /** Thread that parses the files */
+    private ExecutorService worker;
+    /** File name and index of the next level, or null if none is prefetched */
+    private String levelFile;
+    private int levelIndex;
+    /** The next level being parsed, until its GameMode is made */
+    private Future<LevelObject> level;
+    /** The next level, once it is made, with its textures queued */
+    private GameMode mode;
+    /** Rest stops being parsed, by file name */
+    private ObjectMap<String,Future<RestStopMode.Stock>> restStops;
+    /**
+     * The rest stop's textures. Every rest stop shares them, so this keeps one
+     * reference to them from the first prefetch until the prefetcher is disposed.
+     */
+    private AssetManifest restStopAssets;
+
+    public LevelPrefetcher(AssetManager manager, GameCanvas canvas, SettingsMenu settings,
+                           SoundController soundController) {
+        this.manager = manager;
+        this.canvas = canvas;
+        this.settings = settings;
+        this.soundController = soundController;
+        restStops = new ObjectMap<String,Future<RestStopMode.Stock>>();
+        restStopAssets = RestStopMode.createManifest();
+        worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "LevelPrefetcher");
+                // Never keep the game alive on exit
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Start parsing a level in the background. Once it is parsed, update()
+     * makes its GameMode and queues its textures.
+     *
+     * A level prefetched before that was not taken is dropped.
+     *
+     * @param file level file name, as given to LevelObject
+     * @param index index of the level in the game's level list
+     */
+    public void prefetchLevel(final String file, int index) {
+        if (file.equals(levelFile) && index == levelIndex) {
+            return;
+        }
+        dropLevel();
+        levelFile = file;
+        levelIndex = index;
+        level = worker.submit(new Callable<LevelObject>() {
+            public LevelObject call() throws Exception {
+                return new LevelObject(file);
+            }
+        });
+    }
+
+    /**
+     * Start parsing a rest stop in the background and queue its textures.
+     *
+     * @param file rest stop file name, relative to "levels/"
+     */
+    public void prefetchRestStop(final String file) {
+        if (restStops.containsKey(file)) {
+            return;
+        }
+        restStops.put(file, worker.submit(new Callable<RestStopMode.Stock>() {
+            public RestStopMode.Stock call() {
+                return RestStopMode.Stock.load(file);
+            }
+        }));
+        restStopAssets.preLoad(manager);
+    }
+
+    /**
+     * Return the prefetched level, making it now if it is not made yet.
+     *
+     * Its textures are queued, but may still be loading; see
+     * GameMode.isContentLoaded().
+     *
+     * @param file level file name, as given to LevelObject
+     * @param index index of the level in the game's level list
+     * @return the level, or null if it was not prefetched
+     */
+    public GameMode takeLevel(String file, int index) {
+        if (!file.equals(levelFile) || index != levelIndex) {
+            return null;
+        }
+        if (mode == null) {
+            makeMode();
+        }
+        GameMode m = mode;
+        mode = null;
+        levelFile = null;
+        return m;
+    }
+
+    /**
+     * Return a prefetched rest stop, waiting for it if it is still being parsed.
+     *
+     * @param file rest stop file name, relative to "levels/"
+     * @return the rest stop quantities, read now if they were not prefetched
+     */
+    public RestStopMode.Stock takeRestStop(String file) {
+        Future<RestStopMode.Stock> f = restStops.remove(file);
+        if (f != null) {
+            try {
+                return f.get();
+            } catch (Exception e) {
+                System.out.println("Could not prefetch " + file + ": " + e.getMessage());
+            }
+        }
+        return RestStopMode.Stock.load(file);
+    }
+
+    /**
+     * Make the next level once it is parsed, and create queued GL resources
+     * for a small slice of this frame.
+     *
+     * Must be called on the render thread.
+     */
+    public void update() {
+        if (level != null && level.isDone()) {
+            makeMode();
+        }
+        manager.update(GL_BUDGET_MILLIS);
+    }
+
+    /**
+     * Stop the worker thread and release the prefetched level and textures.
+     */
+    public void dispose() {
+        worker.shutdownNow();
+        dropLevel();
+        restStopAssets.unload(manager);
+        restStops.clear();
+    }
+
+    /**
+     * Make the GameMode of the next level, waiting for it to be parsed, and
+     * queue its textures.
+     */
+    private void makeMode() {
+        LevelObject parsed = null;
+        try {
+            parsed = level.get();
+        } catch (Exception e) {
+            // The GameMode parses it again, and reports the error
+            System.out.println("Could not prefetch " + levelFile + ": " + e.getMessage());
+        }
+        level = null;
+        mode = new GameMode(levelIndex, canvas, settings, soundController, levelFile, parsed);
+        mode.preLoadContent(manager);
+    }
+
+    /**
+     * Forget the prefetched level, releasing its textures.
+     */
+    private void dropLevel() {
+        if (level != null) {
+            level.cancel(true);
+            level = null;
+        }
+        if (mode != null) {
+            mode.unloadContent(manager);
+            mode.dispose();
+            mode = null;
+        }
+        levelFile = null;
+    }
+}
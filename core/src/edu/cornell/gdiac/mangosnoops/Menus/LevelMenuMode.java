@@ -8,6 +8,7 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.mangosnoops.*;
@@ -23,26 +24,34 @@ public class LevelMenuMode implements Screen, InputProcessor {
     private static final String SELECTED_LEVEL_MARKER_FILE = "images/levelSelectAssets/selectedLevelMarker.png";
     private static final String MAP_FILE = "images/levelSelectAssets/usMap.png";
     private static final String PATH_FILE = "images/levelSelectAssets/levelsPath.png";
-    private Texture backButtonTex;
-    private Texture goButtonTex;
-    private Texture finalLevelMarkerTex;
-    private Texture levelMarkerTex;
-    private Texture selectedLevelMarkerTex;
+    private TextureRegion backButtonTex;
+    private TextureRegion goButtonTex;
+    private TextureRegion finalLevelMarkerTex;
+    private TextureRegion levelMarkerTex;
+    private TextureRegion selectedLevelMarkerTex;
     private Texture mapTex;
-    private Texture pathTex;
-    /** An array of hover textures for each level. Index 0 is the tutorial. */
-    private static final Texture[] HOVER_TEXS = new Texture[] {
-            new Texture("images/levelSelectAssets/stage1.png"), // tutorial
-            new Texture("images/levelSelectAssets/stage2.png"), // highway level 1
-            new Texture("images/levelSelectAssets/stage3.png"), // highway level 2
-            new Texture("images/levelSelectAssets/stage4.png"), // highway level 3
-            new Texture("images/levelSelectAssets/stage5.png"), // midwest level 1
-            new Texture("images/levelSelectAssets/stage6.png"), // midwest level 2
-            new Texture("images/levelSelectAssets/stage7.png"), // midwest level 3
-            new Texture("images/levelSelectAssets/stage8.png"), // west level 1
-            new Texture("images/levelSelectAssets/stage9.png"), // west level 2
-            new Texture("images/levelSelectAssets/stage10.png"), // west level 3
+    private TextureRegion pathTex;
+    /** The hover texture files for each level. Index 0 is the tutorial. */
+    private static final String[] HOVER_FILES = new String[] {
+            "images/levelSelectAssets/stage1.png", // tutorial
+            "images/levelSelectAssets/stage2.png", // highway level 1
+            "images/levelSelectAssets/stage3.png", // highway level 2
+            "images/levelSelectAssets/stage4.png", // highway level 3
+            "images/levelSelectAssets/stage5.png", // midwest level 1
+            "images/levelSelectAssets/stage6.png", // midwest level 2
+            "images/levelSelectAssets/stage7.png", // midwest level 3
+            "images/levelSelectAssets/stage8.png", // west level 1
+            "images/levelSelectAssets/stage9.png", // west level 2
+            "images/levelSelectAssets/stage10.png", // west level 3
     };
+    /** Atlas of everything on the map (see AtlasLookup). The map itself
+     *  fills the screen, so it is loaded on its own. */
+    public static final String ATLAS = "level_menu";
+    public static final String[] ATLAS_FILES = atlasFiles();
+    /** An array of hover textures for each level. Index 0 is the tutorial. */
+    private TextureRegion[] hoverTexs;
+    /** The textures of this menu */
+    private AssetManifest assets;
 
     // BUTTONS
     /** 0: Unclicked, 1: Button Down, 2: Button Up */
@@ -146,15 +155,36 @@ public class LevelMenuMode implements Screen, InputProcessor {
 
     }
 
+    /** Return the images packed into the atlas: the buttons, markers, path and hovers */
+    private static String[] atlasFiles() {
+        String[] files = new String[] {
+                BACK_BUTTON_FILE, GO_BUTTON_FILE, FINAL_LEVEL_MARKER_FILE, LEVEL_MARKER_FILE,
+                SELECTED_LEVEL_MARKER_FILE, PATH_FILE
+        };
+        String[] all = new String[files.length + HOVER_FILES.length];
+        System.arraycopy(files, 0, all, 0, files.length);
+        System.arraycopy(HOVER_FILES, 0, all, files.length, HOVER_FILES.length);
+        return all;
+    }
+
     /** Initialize all textures */
     private void initTextures() {
-        backButtonTex = new Texture(BACK_BUTTON_FILE);
-        goButtonTex = new Texture(GO_BUTTON_FILE);
-        finalLevelMarkerTex = new Texture(FINAL_LEVEL_MARKER_FILE);
-        levelMarkerTex = new Texture(LEVEL_MARKER_FILE);
-        selectedLevelMarkerTex = new Texture(SELECTED_LEVEL_MARKER_FILE);
-        mapTex = new Texture(MAP_FILE);
-        pathTex = new Texture(PATH_FILE);
+        assets = new AssetManifest();
+        assets.addTexture(MAP_FILE).addAtlas(ATLAS, ATLAS_FILES);
+        assets.preLoad(manager);
+        assets.finishLoading(manager);
+
+        backButtonTex = assets.getRegion(manager, BACK_BUTTON_FILE);
+        goButtonTex = assets.getRegion(manager, GO_BUTTON_FILE);
+        finalLevelMarkerTex = assets.getRegion(manager, FINAL_LEVEL_MARKER_FILE);
+        levelMarkerTex = assets.getRegion(manager, LEVEL_MARKER_FILE);
+        selectedLevelMarkerTex = assets.getRegion(manager, SELECTED_LEVEL_MARKER_FILE);
+        mapTex = assets.getTexture(manager, MAP_FILE);
+        pathTex = assets.getRegion(manager, PATH_FILE);
+        hoverTexs = new TextureRegion[HOVER_FILES.length];
+        for (int i = 0; i < HOVER_FILES.length; i++) {
+            hoverTexs[i] = assets.getRegion(manager, HOVER_FILES[i]);
+        }
     }
 
     /** Initialize all static images */
@@ -363,7 +393,7 @@ public class LevelMenuMode implements Screen, InputProcessor {
 
     /** Called when this screen should release all resources. */
     public void dispose () {
-
+        assets.unload(manager);
     }
 
     /**
@@ -556,7 +586,7 @@ public class LevelMenuMode implements Screen, InputProcessor {
         /** Whether or not this node is drawn to the screen */
         private boolean drawn;
 
-        private LevelNode(float x, float y, float relSca, Texture t, GameCanvas.TextureOrigin o, boolean savedLevel, int levelIndex) {
+        private LevelNode(float x, float y, float relSca, TextureRegion t, GameCanvas.TextureOrigin o, boolean savedLevel, int levelIndex) {
             super(x,y,relSca,t,o);
             this.levelIndex = levelIndex;
             this.savedLevel = savedLevel;
@@ -574,9 +604,9 @@ public class LevelMenuMode implements Screen, InputProcessor {
         public void createHover() {
             // for normal levels pick texture at index levelIndex + 1 in hover assets array
             // for tutorial pick texture at index 0
-            Texture hovTex = HOVER_TEXS[0];
+            TextureRegion hovTex = hoverTexs[0];
             if (savedLevel) {
-                hovTex = HOVER_TEXS[levelIndex - numTutorials + 1];
+                hovTex = hoverTexs[levelIndex - numTutorials + 1];
             }
 
             hover = new Image(position.x, position.y, 0.3f, hovTex, GameCanvas.TextureOrigin.TOP_RIGHT);
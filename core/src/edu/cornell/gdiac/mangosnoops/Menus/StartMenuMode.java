@@ -20,8 +20,8 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Timer;
+import edu.cornell.gdiac.mangosnoops.AssetManifest;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
 import edu.cornell.gdiac.mangosnoops.Image;
 import edu.cornell.gdiac.mangosnoops.SoundController;
@@ -60,7 +60,7 @@ public class StartMenuMode implements Screen, InputProcessor {
     /**Settings Menu**/
     private SettingsMenu settings;
     /** Track all loaded assets (for unloading purposes) */
-    private Array<String> assets;
+    private AssetManifest assets;
     /** Whether or not this player mode is still active */
     private boolean active;
 
@@ -174,11 +174,7 @@ public class StartMenuMode implements Screen, InputProcessor {
      * @param manager Reference to global asset manager.
      */
     public void unloadContent(AssetManager manager) {
-        for(String s : assets) {
-            if (manager.isLoaded(s)) {
-                manager.unload(s);
-            }
-        }
+        assets.unload(manager);
     }
 
     public StartMenuMode(GameCanvas canvas, AssetManager manager, SettingsMenu settings, SoundController soundController) {
@@ -188,12 +184,17 @@ public class StartMenuMode implements Screen, InputProcessor {
         this.settings = settings;
         this.soundController = soundController;
 
-        backgroundTexture = new Texture(BACKGROUND_FILE);
-        exitbuttonTexture = new Texture(EXITBUTTON_FILE);
-        levelsbuttonTexture = new Texture(LEVELSBUTTON_FILE);
-        settingbuttonTexture = new Texture(SETTINGSBUTTON_FILE);
-        startbuttonTexture = new Texture(STARTBUTTON_FILE);
-        logo = new Texture(LOGO_FILE);
+        assets = new AssetManifest();
+        assets.addTexture(BACKGROUND_FILE).addTexture(EXITBUTTON_FILE).addTexture(LEVELSBUTTON_FILE)
+                .addTexture(SETTINGSBUTTON_FILE).addTexture(STARTBUTTON_FILE).addTexture(LOGO_FILE);
+        assets.preLoad(manager);
+        assets.finishLoading(manager);
+        backgroundTexture = assets.getTexture(manager, BACKGROUND_FILE);
+        exitbuttonTexture = assets.getTexture(manager, EXITBUTTON_FILE);
+        levelsbuttonTexture = assets.getTexture(manager, LEVELSBUTTON_FILE);
+        settingbuttonTexture = assets.getTexture(manager, SETTINGSBUTTON_FILE);
+        startbuttonTexture = assets.getTexture(manager, STARTBUTTON_FILE);
+        logo = assets.getTexture(manager, LOGO_FILE);
 
         background= new Image(0.5f,0.5f,1f,backgroundTexture, GameCanvas.TextureOrigin.MIDDLE);
 
@@ -257,12 +258,7 @@ public class StartMenuMode implements Screen, InputProcessor {
      * Called when this screen should release all resources.
      */
     public void dispose() {
-        backgroundTexture.dispose();
-        exitbuttonTexture.dispose();
-        levelsbuttonTexture.dispose();
-        settingbuttonTexture.dispose();
-        startbuttonTexture.dispose();
-        logo.dispose();
+        unloadContent(manager);
         soundController.playMenuSong(false);
         background = null;
         exitbuttonTexture  = null;
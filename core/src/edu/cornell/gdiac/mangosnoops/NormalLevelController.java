@@ -7,7 +7,7 @@ import com.badlogic.gdx.utils.Array;
 public class NormalLevelController extends GameplayController {
 
     public NormalLevelController(String levelName, GameCanvas canvas, LevelObject level, SoundController sc) {
-        super(levelName, level.getRegion(), canvas, level.getLevelEndY(), level.getEnemiez(), level.getEvents(),
+        super(levelName, level.getRegion(), canvas, level.getLevelEndY(), level.getNumLanes(), level.getEnemiez(), level.getEvents(),
                 level.getSongs(), sc, level.getRoadsideObjs());
         getRoad().setSpeedFactor(level.getSpeed());
     }
@@ -24,6 +24,23 @@ public class RandomController {
 	/** Pseudo-random number generator */
 	private static Random generator = new Random(0); // Make it deterministic
 
+	/**
+	 * Makes the random numbers come from another generator.
+	 *
+	 * Each level has a generator of its own, seeded with the level's seed,
+	 * which it uses while it is made and while it is played. That way a level
+	 * played with the same input plays out the same way, even if the next
+	 * level is made while it is played.
+	 *
+	 * @param random the generator to use from now on
+	 * @return the generator used until now
+	 */
+	public static Random setGenerator(Random random) {
+		Random previous = generator;
+		generator = random;
+		return previous;
+	}
+
 	/**
 	 * Returns a random int between min and max (inclusive).
 	 *
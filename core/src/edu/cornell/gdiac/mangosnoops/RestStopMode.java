@@ -6,6 +6,7 @@ import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
@@ -15,6 +16,7 @@ import org.json.JSONObject;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
 import java.util.Scanner;
 
 public class RestStopMode implements Screen, InputProcessor {
@@ -38,6 +40,17 @@ public class RestStopMode implements Screen, InputProcessor {
     private static final String TIP_DVD_FILE = "images/restStopAssets/gameTips/dvdtip.png";
     private static final String SNACK_GLOW_FILE = "images/Items/mangoGlow.png";
     private static final String DVD_GLOW_FILE = "images/Items/dvdGlow.png";
+    /** The full screen background, shelf, popups and tips, each loaded on its own */
+    private static final String[] TEXTURE_FILES = {
+            BACKGROUND_FILE, SHELF_FILE, DVDPOPUP_FILE, MANGOPOPUP_FILE, TIP_GNOME_FILE, TIP_REAR_FILE,
+            TIP_CLASSICAL_FILE, TIP_MUSIC_FILE, TIP_REQUEST_FILE, TIP_DVD_FILE
+    };
+    /** Atlas of the items, button and speech bubbles (see AtlasLookup) */
+    public static final String ATLAS = "rest_stop";
+    public static final String[] ATLAS_FILES = {
+            READY_BUTTON_FILE, GNOMECOUNTRY_DVD_FILE, MANGO_FILE, TUT_SPEECH, CHILD_SPEECH,
+            SNACK_GLOW_FILE, DVD_GLOW_FILE
+    };
 
     private Image tutorialModule;
     private Texture tipGnomeTex;
@@ -48,19 +61,24 @@ public class RestStopMode implements Screen, InputProcessor {
     private Texture tipDvdTex;
     private Texture backgroundTex;
     private Texture shelfTex;
-    private Texture dvdTex;
-    private Texture snackTex;
-    private Texture readyButtonTex;
-    private Texture tutSpeech;
-    private Texture kidSpeech;
+    private TextureRegion dvdTex;
+    private TextureRegion snackTex;
+    private TextureRegion readyButtonTex;
+    private TextureRegion tutSpeech;
+    private TextureRegion kidSpeech;
     private Texture dvdPopupTex;
     private Texture mangoPopupTex;
-    private Texture snackGlowTex;
-    private Texture dvdGlowTex;
+    private TextureRegion snackGlowTex;
+    private TextureRegion dvdGlowTex;
     private BitmapFont displayFont;
     private BitmapFont speechFont;
-    private ObjectMap<String,Texture> itemTextures;
-    private static Music bgMusic = Gdx.audio.newMusic(Gdx.files.internal("sounds/bensound-jazzcomedy.mp3"));
+    private ObjectMap<String,TextureRegion> itemTextures;
+    /** The textures and fonts of this rest stop */
+    private AssetManifest assets;
+    /** Music of the rest stop, opened when one is shown so that build tools
+     *  can read the atlas lists without an audio backend */
+    private static final String MUSIC_FILE = "sounds/bensound-jazzcomedy.mp3";
+    private static Music bgMusic;
 
     // BUTTONS
     /** 0: Unclicked, 1: Button Down, 2: Button Up */
@@ -173,55 +191,85 @@ public class RestStopMode implements Screen, InputProcessor {
 
     /** Load the font. */
     private void loadFont() {
+        displayFont = manager.get(FONT_FILE,BitmapFont.class);
+        speechFont = manager.get(SPEECHFONT_FILE,BitmapFont.class);
+    }
+
+    /**
+     * Return a new manifest of the rest stop's textures and fonts.
+     *
+     * Every rest stop uses the same assets, so a manifest queued ahead of
+     * time keeps them loaded for the next rest stop.
+     */
+    public static AssetManifest createManifest() {
+        AssetManifest m = new AssetManifest();
+        for (String f : TEXTURE_FILES) {
+            m.addTexture(f);
+        }
+        m.addAtlas(ATLAS, ATLAS_FILES);
         FreetypeFontLoader.FreeTypeFontLoaderParameter size2Params = new FreetypeFontLoader.FreeTypeFontLoaderParameter();
         size2Params.fontFileName = FONT_FILE;
         size2Params.fontParameters.size = TITLE_FONT_SIZE;
-        manager.load(FONT_FILE, BitmapFont.class, size2Params);
+        m.add(FONT_FILE, BitmapFont.class, size2Params);
         size2Params = new FreetypeFontLoader.FreeTypeFontLoaderParameter();
         size2Params.fontFileName = SPEECHFONT_FILE;
         size2Params.fontParameters.size = FONT_SIZE;
-        manager.load(SPEECHFONT_FILE, BitmapFont.class, size2Params);
+        m.add(SPEECHFONT_FILE, BitmapFont.class, size2Params);
+        return m;
+    }
 
+    /**
+     * Return the texture for a file, which the manifest has loaded.
+     */
+    private Texture loadTexture(String file) {
+        return assets.getTexture(manager, file);
+    }
 
-        // Allocate the font
-        if (manager.isLoaded(FONT_FILE)) {
-            displayFont = manager.get(FONT_FILE,BitmapFont.class);
-        } else {
-            displayFont = null;
-        }
-        if (manager.isLoaded(SPEECHFONT_FILE)) {
-            speechFont = manager.get(SPEECHFONT_FILE,BitmapFont.class);
-        } else {
-            speechFont = null;
-        }
+    /**
+     * Return the region for an image of the atlas, which the manifest has loaded.
+     */
+    private TextureRegion loadRegion(String file) {
+        return assets.getRegion(manager, file);
     }
 
     /** Initialize all textures */
     private void initTextures() {
-        backgroundTex = new Texture(BACKGROUND_FILE);
-        shelfTex = new Texture(SHELF_FILE);
-        readyButtonTex = new Texture(READY_BUTTON_FILE);
-        dvdTex = new Texture(GNOMECOUNTRY_DVD_FILE);
-        snackTex = new Texture(MANGO_FILE);
-        tutSpeech = new Texture(TUT_SPEECH);
-        kidSpeech = new Texture(CHILD_SPEECH);
-        dvdPopupTex = new Texture(DVDPOPUP_FILE);
-        mangoPopupTex = new Texture(MANGOPOPUP_FILE);
-        tipGnomeTex = new Texture(TIP_GNOME_FILE);
-        tipRearTex = new Texture(TIP_REAR_FILE);
-        tipClassicalTex = new Texture(TIP_CLASSICAL_FILE);
-        tipMusicTex = new Texture(TIP_MUSIC_FILE);
-        tipRequestTex = new Texture(TIP_REQUEST_FILE);
-        tipDvdTex = new Texture(TIP_DVD_FILE);
-        snackGlowTex = new Texture(SNACK_GLOW_FILE);
-        dvdGlowTex = new Texture(DVD_GLOW_FILE);
-
-        itemTextures = new ObjectMap<String,Texture>();
+        assets = createManifest();
+        assets.preLoad(manager);
+        assets.finishLoading(manager);
+        backgroundTex = loadTexture(BACKGROUND_FILE);
+        shelfTex = loadTexture(SHELF_FILE);
+        readyButtonTex = loadRegion(READY_BUTTON_FILE);
+        dvdTex = loadRegion(GNOMECOUNTRY_DVD_FILE);
+        snackTex = loadRegion(MANGO_FILE);
+        tutSpeech = loadRegion(TUT_SPEECH);
+        kidSpeech = loadRegion(CHILD_SPEECH);
+        dvdPopupTex = loadTexture(DVDPOPUP_FILE);
+        mangoPopupTex = loadTexture(MANGOPOPUP_FILE);
+        tipGnomeTex = loadTexture(TIP_GNOME_FILE);
+        tipRearTex = loadTexture(TIP_REAR_FILE);
+        tipClassicalTex = loadTexture(TIP_CLASSICAL_FILE);
+        tipMusicTex = loadTexture(TIP_MUSIC_FILE);
+        tipRequestTex = loadTexture(TIP_REQUEST_FILE);
+        tipDvdTex = loadTexture(TIP_DVD_FILE);
+        snackGlowTex = loadRegion(SNACK_GLOW_FILE);
+        dvdGlowTex = loadRegion(DVD_GLOW_FILE);
+
+        itemTextures = new ObjectMap<String,TextureRegion>();
         itemTextures.put(GNOME_COUNTRY, dvdTex);
         itemTextures.put(MANGO, snackTex);
     }
 
     public RestStopMode(GameCanvas canvas, AssetManager manager, String filename, SoundController sc) {
+        this(canvas, manager, filename, Stock.load(filename), sc);
+    }
+
+    /**
+     * Creates a rest stop whose item quantities have already been read.
+     *
+     * @param stock the item quantities, see Stock.load
+     */
+    public RestStopMode(GameCanvas canvas, AssetManager manager, String filename, Stock stock, SoundController sc) {
         this.soundController = sc;
         this.canvas = canvas;
         this.manager = manager;
@@ -247,8 +295,10 @@ public class RestStopMode implements Screen, InputProcessor {
         dvdPopup = new Image(0.5f,0.5f,0.5f, dvdPopupTex, GameCanvas.TextureOrigin.MIDDLE);
         mangoPopup = new Image(0.5f,0.5f,0.5f, mangoPopupTex, GameCanvas.TextureOrigin.MIDDLE);
 
-        // Parse JSON to get item quantities/max number of items player can take
-        parseJSON("levels/" + filename);
+        // Item quantities/max number of items player can take
+        numCanTake = stock.numCanTake;
+        numMango = stock.numSnacks;
+        numGnomeCountry = stock.numMovies;
 
         // Parse filename to decide whether it is a tutorial or not
         isTutorial = filename.contains("tut");
@@ -286,20 +336,53 @@ public class RestStopMode implements Screen, InputProcessor {
     }
 
     /**
-     * Parse the JSON file that gives information about this rest stop.
-     * @param f Path to the JSON file, relative to assets folder
+     * The item quantities of a rest stop.
+     *
+     * These are read apart from the rest of the mode, which needs the GL
+     * context, so they can be read on another thread.
      */
-    private void parseJSON(String f) {
-        try {
-            Scanner scanner = new Scanner(new File(f));
-            JSONObject json = new JSONObject(scanner.useDelimiter("\\A").next());
-            scanner.close();
-            numCanTake = json.getInt("numCanTake");
-            numMango = json.getInt("numSnacks");
-            numGnomeCountry = json.getInt("numMovies");
-        } catch (FileNotFoundException e) {
-            // TODO better error handling
-            System.out.println("Rest stop file not found");
+    public static class Stock {
+        /** Max number of items the player can take */
+        public int numCanTake;
+        /** Number of each item on the shelf */
+        public int numSnacks;
+        public int numMovies;
+
+        /**
+         * Read the quantities of a rest stop, from the level pack if possible.
+         *
+         * @param filename the rest stop JSON file, relative to "levels/"
+         */
+        public static Stock load(String filename) {
+            Stock stock = new Stock();
+            LevelPack pack = LevelPack.get();
+            if (pack != null && pack.isCurrent(filename, "levels/" + filename)) {
+                ByteBuffer data = pack.getData(filename);
+                stock.numCanTake = data.getInt();
+                stock.numSnacks = data.getInt();
+                stock.numMovies = data.getInt();
+            } else {
+                stock.parseJSON("levels/" + filename);
+            }
+            return stock;
+        }
+
+        /**
+         * Parse the JSON file that gives information about this rest stop.
+         * @param f Path to the JSON file, relative to assets folder
+         */
+        private void parseJSON(String f) {
+            try {
+                Scanner scanner = new Scanner(new File(f));
+                JSONObject json = new JSONObject(scanner.useDelimiter("\\A").next());
+                scanner.close();
+                numCanTake = json.getInt("numCanTake");
+                numSnacks = json.getInt("numSnacks");
+                numMovies = json.getInt("numMovies");
+            } catch (FileNotFoundException e) {
+                // TODO better error handling
+                System.out.println("Rest stop file not found");
+            }
         }
     }
 
@@ -574,6 +657,9 @@ public class RestStopMode implements Screen, InputProcessor {
     /** Called when this screen becomes the current screen for a game. */
     public void show () {
         active = true;
+        if (bgMusic == null) {
+            bgMusic = Gdx.audio.newMusic(Gdx.files.internal(MUSIC_FILE));
+        }
         bgMusic.play();
     }
 
@@ -613,6 +699,8 @@ public class RestStopMode implements Screen, InputProcessor {
                             }
                         }
                     }
+                    // Leave only once: the rest stop stays up while the next level loads
+                    readyStatus = UNCLICKED;
                     listener.exitScreen(this,0);
                 }
             }
@@ -621,13 +709,14 @@ public class RestStopMode implements Screen, InputProcessor {
 
     /** Called when this screen should release all resources. */
     public void dispose () {
-        bgMusic.stop();
-        bgMusic.dispose();
-        backgroundTex.dispose();
+        if (bgMusic != null) {
+            bgMusic.stop();
+            bgMusic.dispose();
+            bgMusic = null;
+        }
+        assets.unload(manager);
         backgroundTex = null;
-        shelfTex.dispose();
         shelfTex = null;
-        readyButtonTex.dispose();
         readyButtonTex = null;
     }
 
@@ -888,7 +977,7 @@ public class RestStopMode implements Screen, InputProcessor {
         /** Whether or not this item is glowing */
         private boolean glowing;
 
-        private RestStopItem(int clickStatus, Inventory.Item.ItemType t, float x, float y, float relSca, Texture tex) {
+        private RestStopItem(int clickStatus, Inventory.Item.ItemType t, float x, float y, float relSca, TextureRegion tex) {
             super(x,y,relSca,tex,GameCanvas.TextureOrigin.MIDDLE);
             this.clickStatus = clickStatus;
             type = t;
@@ -907,19 +996,19 @@ public class RestStopMode implements Screen, InputProcessor {
             switch (type) {
                 case SNACK:
                     if (glowing) {
-                        texture = itemTextures.get(MANGO);
+                        region = itemTextures.get(MANGO);
                         relativeScale = ITEM_SIZE_SCALE;
                     } else {
-                        texture = snackGlowTex;
+                        region = snackGlowTex;
                         relativeScale = ITEM_SIZE_SCALE * 1.4f;
                     }
                     break;
                 case DVD:
                     if (glowing) {
-                        texture = itemTextures.get(GNOME_COUNTRY);
+                        region = itemTextures.get(GNOME_COUNTRY);
                         relativeScale = ITEM_SIZE_SCALE;
                     } else {
-                        texture = dvdGlowTex;
+                        region = dvdGlowTex;
                         relativeScale = ITEM_SIZE_SCALE * 1.4f;
                     }
                     break;
@@ -1,11 +1,13 @@
 package edu.cornell.gdiac.mangosnoops;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.decals.Decal;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 
-public class RoadImage extends RoadObject {
+public class RoadImage extends RoadObject implements Pool.Poolable {
     // CONSTANTS
     /** How fast we change frames (one frame per 4 calls to update) */
     private float animationSpeed = 0.25f;
@@ -15,12 +17,19 @@ public class RoadImage extends RoadObject {
     // ATTRIBUTES
     /** Current animation frame for this ship */
     private float animeframe;
+    /** Default hover distance, restored when an image is returned to a pool */
+    private static final float DEFAULT_HOVER_DISTANCE = 4.5f;
     /** How high the enemy hovers in the world */
-    protected float hoverDistance = 4.5f;
-    /** Data about this image - name, miles (for exit signs), texture */
+    protected float hoverDistance = DEFAULT_HOVER_DISTANCE;
+    /** Data about this image - name, miles (for exit signs) */
     private String name;
     private int miles = -1;
-    private Texture texture;
+    /** The miles as drawn on the exit sign, made when they change */
+    private String milesText;
+    private int milesTextValue;
+    /** The decal drawn for this image, and the region it shows */
+    private Decal decal;
+    private TextureRegion region;
     /** speed of road */
     private float currSpeed;
     /** The minimum animation frame */
@@ -116,6 +125,30 @@ public class RoadImage extends RoadObject {
         animeframe = 0;
     }
 
+    /**
+     * Reinitialize this image as a copy of i, for reuse from a pool.
+     */
+    public void set(RoadImage i) {
+        position.set(i.getX(), i.getY());
+        name = i.getName();
+        miles = i.getMiles();
+        hoverDistance = i.getHoverDistance();
+    }
+
+    /**
+     * Return this image to the state of a newly constructed one.
+     */
+    public void reset() {
+        name = null;
+        miles = -1;
+        minAnimFrame = 0;
+        maxAnimFrame = 0;
+        animeframe = 0;
+        currSpeed = 0;
+        hoverDistance = DEFAULT_HOVER_DISTANCE;
+        destroyed = false;
+    }
+
     /**
      * Set a new hover distance.
      * @param newHoverDistance the new hover distance
@@ -149,37 +182,54 @@ public class RoadImage extends RoadObject {
 
     }
 
-    public void draw(GameCanvas canvas, Texture t) {
-        float width = t.getWidth() * 0.001f;
-        float height = t.getHeight() * 0.001f;
+    public void draw(GameCanvas canvas, TextureRegion t) {
+        float width = t.getRegionWidth() * 0.001f;
+        float height = t.getRegionHeight() * 0.001f;
         float hover = hoverDistance;
-        if (name.toLowerCase().equals("sunflower")) {
+        if (name.equalsIgnoreCase("sunflower")) {
             width /= 5.0f;
             height /= 5.0f;
             hover = 4.309f;
         }
-        canvas.drawRoadObject(t, getX(), getY(), hover,
-                width, height, 90, 0);
+        drawDecal(canvas, t, hover, width, height);
     }
 
-    public void draw(GameCanvas canvas, Texture t, BitmapFont font) {
-        float width = t.getWidth() * 0.001f;
-        float height = t.getHeight() * 0.001f;
+    public void draw(GameCanvas canvas, TextureRegion t, BitmapFont font) {
+        float width = t.getRegionWidth() * 0.001f;
+        float height = t.getRegionHeight() * 0.001f;
         float hover = hoverDistance;
-        if (name.toLowerCase().equals("sunflower")) {
+        if (name.equalsIgnoreCase("sunflower")) {
             width /= 5.0f;
             height /= 5.0f;
             hover = 4.309f;
         }
-        canvas.drawRoadObject(t, getX(), getY(), hover,
-                width, height, 90, 0);
+        drawDecal(canvas, t, hover, width, height);
 
         // draw text
         font.setColor(Color.WHITE);
-        canvas.drawExitSign("" + miles, t, font, getX(), getY(), hover);
+        if (milesText == null || milesTextValue != miles) {
+            milesText = "" + miles;
+            milesTextValue = miles;
+        }
+        canvas.drawExitSign(milesText, t, font, getX(), getY(), hover);
     }
 
     public void setSpeed (float s) {
         currSpeed = s;
     }
+
+    /**
+     * Draw this image's decal, pointing it at t first if the region changed
+     * (pooled images are reused for other names).
+     */
+    private void drawDecal(GameCanvas canvas, TextureRegion t, float hover, float width, float height) {
+        if (decal == null) {
+            decal = GameCanvas.newRoadDecal(t, width, height, 90);
+        } else if (region != t) {
+            decal.setTextureRegion(t);
+        }
+        region = t;
+        decal.setDimensions(width, height);
+        canvas.drawRoadObject(decal, getX(), getY(), hover);
+    }
 }
@@ -0,0 +1,75 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * A piece of text that only changes now and then, such as a station name or a
+ * countdown, kept as ready-made glyph vertices.
+ *
+ * setText can be called every frame: the text is only laid out again when the
+ * string or the font's color or scale differs from last time. Drawing just
+ * moves the vertices into place.
+ */
+public class StaticText {
+    private BitmapFontCache cache;
+    /** What the cache was laid out from */
+    private String text;
+    private int color;
+    private float scaleX;
+    private float scaleY;
+    /** Size of the laid out text */
+    private float width;
+    private float height;
+
+    /**
+     * Create empty text in a font.
+     *
+     * @param font the font to draw with
+     */
+    public StaticText(BitmapFont font) {
+        cache = font.newFontCache();
+    }
+
+    /**
+     * Set the text, in the font's current color and scale.
+     *
+     * @param text the string to draw
+     */
+    public void setText(String text) {
+        BitmapFont font = cache.getFont();
+        Color c = font.getColor();
+        if (text.equals(this.text) && c.toIntBits() == color
+                && font.getData().scaleX == scaleX && font.getData().scaleY == scaleY) {
+            return;
+        }
+        this.text = text;
+        color = c.toIntBits();
+        scaleX = font.getData().scaleX;
+        scaleY = font.getData().scaleY;
+
+        cache.setColor(c);
+        GlyphLayout layout = cache.setText(text, 0, 0);
+        width = layout.width;
+        height = layout.height;
+    }
+
+    /** Return the width of the text */
+    public float getWidth() { return width; }
+
+    /** Return the height of the text */
+    public float getHeight() { return height; }
+
+    /**
+     * Draw the text at (x, y), placed as BitmapFont.draw would place it.
+     *
+     * @param batch the batch to draw with, which must be active
+     */
+    public void draw(Batch batch, float x, float y) {
+        cache.setPosition(x, y);
+        cache.draw(batch);
+    }
+}
@@ -0,0 +1,132 @@
+package edu.cornell.gdiac.mangosnoops;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Glyph layouts of the text drawn recently, so that text drawn every frame is
+ * only laid out once.
+ *
+ * A layout depends on the font, the string, and the font's color and scale
+ * when it is laid out, so all of them make up the key. Layouts not used for
+ * EXPIRE_FRAMES frames are dropped, which keeps text that changes (e.g. a
+ * countdown) from piling up.
+ */
+public class TextCache {
+    /** How many frames a layout is kept without being used */
+    private static final long EXPIRE_FRAMES = 120;
+
+    /** What a layout was made from */
+    private static class Key {
+        BitmapFont font;
+        String text;
+        int color;
+        float scaleX;
+        float scaleY;
+
+        void set(BitmapFont font, String text) {
+            this.font = font;
+            this.text = text;
+            color = font.getColor().toIntBits();
+            scaleX = font.getData().scaleX;
+            scaleY = font.getData().scaleY;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return font == k.font && color == k.color && scaleX == k.scaleX && scaleY == k.scaleY
+                    && text.equals(k.text);
+        }
+
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(font) + text.hashCode()) + color;
+        }
+    }
+
+    /** A cached layout, and the last frame it was used */
+    private static class Entry {
+        Key key;
+        GlyphLayout layout;
+        long lastUsed;
+    }
+
+    private ObjectMap<Key,Entry> entries;
+    /** Reused to look up entries without allocating */
+    private Key probe;
+    /** Frame of the last sweep for expired layouts */
+    private long lastSweep;
+
+    private Pool<Entry> entryPool = new Pool<Entry>() {
+        protected Entry newObject() {
+            Entry e = new Entry();
+            e.key = new Key();
+            e.layout = new GlyphLayout();
+            return e;
+        }
+    };
+
+    public TextCache() {
+        entries = new ObjectMap<Key,Entry>();
+        probe = new Key();
+    }
+
+    /**
+     * Return the layout of text in a font, with the font's current color and
+     * scale, laying it out only if it is not cached.
+     *
+     * Callers should not keep the layout past the current frame.
+     *
+     * @param font the font to draw with
+     * @param text the string to draw
+     */
+    public GlyphLayout layout(BitmapFont font, String text) {
+        long frame = Gdx.graphics.getFrameId();
+        if (frame - lastSweep >= EXPIRE_FRAMES) {
+            sweep(frame);
+        }
+
+        probe.set(font, text);
+        Entry e = entries.get(probe);
+        if (e == null) {
+            e = entryPool.obtain();
+            e.key.set(font, text);
+            e.layout.setText(font, text);
+            entries.put(e.key, e);
+        }
+        e.lastUsed = frame;
+        return e.layout;
+    }
+
+    /**
+     * Drop the layouts not used since EXPIRE_FRAMES before frame.
+     */
+    private void sweep(long frame) {
+        ObjectMap.Values<Entry> values = entries.values();
+        while (values.hasNext()) {
+            Entry e = values.next();
+            if (frame - e.lastUsed >= EXPIRE_FRAMES) {
+                values.remove();
+                e.key.font = null;
+                e.key.text = null;
+                entryPool.free(e);
+            }
+        }
+        lastSweep = frame;
+    }
+
+    /**
+     * Drop every cached layout.
+     */
+    public void clear() {
+        for (Entry e : entries.values()) {
+            entryPool.free(e);
+        }
+        entries.clear();
+    }
+}
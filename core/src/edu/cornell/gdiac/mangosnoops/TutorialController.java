@@ -4,6 +4,7 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.mangosnoops.hudentity.Child;
 import edu.cornell.gdiac.mangosnoops.hudentity.FlashingImage;
@@ -33,22 +34,29 @@ public class TutorialController extends GameplayController {
     private static final String TUT_VROOM_ARROW_FILE = "images/Tutorial/downArrow.png";
     private static final String TUT_SCREEN_FILE = "images/Tutorial/tut_screen.png";
 
+    /** Atlas of the tutorial overlays (see AtlasLookup) */
+    public static final String TUTORIAL_ATLAS = "tutorial";
+    public static final String[] TUTORIAL_ATLAS_FILES = {
+            TUT_HEALTH_FILE, TUT_KEYS_FILE, TUT_WHEEL, TUT_MIRROR_FILE, TUT_VROOM_FILE, TUT_HORN_FILE,
+            TUT_VISOR_FILE, TUT_INVENTORY_FILE, TUT_ARROW, TUT_VROOM_ARROW_FILE, TUT_SCREEN_FILE
+    };
+
     /** Texture types */
-    private Texture tutHealthTexture;
-    private Texture tutKeysTexture;
-    private Texture tutGaugeTexture;
-    private Texture tutMirrorTexture;
-    private Texture tutVroomTexture;
-    private Texture tutHornTexture;
-    private Texture tutVisorTexture;
-    private Texture tutInventoryTexture;
-    private Texture arrowTexture;
+    private TextureRegion tutHealthRegion;
+    private TextureRegion tutKeysRegion;
+    private TextureRegion tutGaugeRegion;
+    private TextureRegion tutMirrorRegion;
+    private TextureRegion tutVroomRegion;
+    private TextureRegion tutHornRegion;
+    private TextureRegion tutVisorRegion;
+    private TextureRegion tutInventoryRegion;
+    private TextureRegion arrowRegion;
     private Texture speechTexture;
     private Texture speechReverseTexture;
     private Texture moduleTexture;
-    private Texture tutWheel;
-    private Texture tutVroomArrowTexture;
-    private Texture tutScreenTexture;
+    private TextureRegion tutWheelRegion;
+    private TextureRegion tutVroomArrowRegion;
+    private TextureRegion tutScreenRegion;
 
     private Image module;
     private Image speechNosh;
@@ -85,7 +93,7 @@ public class TutorialController extends GameplayController {
     private int tutIndex;
 
     public TutorialController(String levelName, GameCanvas canvas, LevelObject level, int tutNum, SoundController sc) {
-        super(levelName, level.getRegion(), canvas, level.getLevelEndY(), level.getEnemiez(), level.getEvents(), level.getSongs(), sc, level.getRoadsideObjs());
+        super(levelName, level.getRegion(), canvas, level.getLevelEndY(), level.getNumLanes(), level.getEnemiez(), level.getEvents(), level.getSongs(), sc, level.getRoadsideObjs());
         getRoad().setSpeedFactor(level.getSpeed());
         tutIndex = tutNum;
         madeNoshMad = 0;
@@ -101,25 +109,25 @@ public class TutorialController extends GameplayController {
 
     public void start(float x, float y) {
         super.start(x, y);
-        tutVroomArrow = new FlashingImage(0.34f, 0.1f,0.25f, tutVroomArrowTexture);
-        tutHealth = new FlashingImage(0.323f, 0.02f, 0.25f, tutHealthTexture);
-        tutKeys = new FlashingImage(0.06f, 0.45f, 0.12f, tutKeysTexture);
-        tutGauge = new FlashingImage(0.34f, 0.05f, 0.175f, tutGaugeTexture);
-        tutMirrorNedSnack = new FlashingImage(0.65f, 0.7f, 0.3f, tutMirrorTexture);
-        tutMirrorNoshSnack = new FlashingImage(0.75f, 0.7f, 0.3f, tutMirrorTexture);
-        tutHorn = new FlashingImage(0.12f, 0.12f, 0.17f, tutHornTexture);
-        tutVisor = new FlashingImage(0.1f, 0.85f, 0.16f, tutVisorTexture);
-        tutInventory = new FlashingImage(0.45f, 0.073f, 0.42f, tutInventoryTexture);
-        arrowNedSnack = new FlashingImage(0.6f, 0.52f, 0.24f, arrowTexture);
-        arrowNoshSnack = new FlashingImage(0.7f, 0.52f, 0.24f, arrowTexture);
-        tutRadio = new FlashingImage(0.68f, 0.02f, 0.41f, tutScreenTexture);
+        tutVroomArrow = new FlashingImage(0.34f, 0.1f,0.25f, tutVroomArrowRegion);
+        tutHealth = new FlashingImage(0.323f, 0.02f, 0.25f, tutHealthRegion);
+        tutKeys = new FlashingImage(0.06f, 0.45f, 0.12f, tutKeysRegion);
+        tutGauge = new FlashingImage(0.34f, 0.05f, 0.175f, tutGaugeRegion);
+        tutMirrorNedSnack = new FlashingImage(0.65f, 0.7f, 0.3f, tutMirrorRegion);
+        tutMirrorNoshSnack = new FlashingImage(0.75f, 0.7f, 0.3f, tutMirrorRegion);
+        tutHorn = new FlashingImage(0.12f, 0.12f, 0.17f, tutHornRegion);
+        tutVisor = new FlashingImage(0.1f, 0.85f, 0.16f, tutVisorRegion);
+        tutInventory = new FlashingImage(0.45f, 0.073f, 0.42f, tutInventoryRegion);
+        arrowNedSnack = new FlashingImage(0.6f, 0.52f, 0.24f, arrowRegion);
+        arrowNoshSnack = new FlashingImage(0.7f, 0.52f, 0.24f, arrowRegion);
+        tutRadio = new FlashingImage(0.68f, 0.02f, 0.41f, tutScreenRegion);
         speechNed = new Image(NED_BUBBLE_X , NED_BUBBLE_Y, 0.1f, speechTexture);
         speechNosh = new Image(NOSH_BUBBLE_X, NOSH_BUBBLE_Y, 0.1f, speechTexture);
         module = new Image(0.5f,0.5f, 0.79f, moduleTexture, GameCanvas.TextureOrigin.MIDDLE);
 
         // For the tutorial, override some HUD elements that we want to flash
-        vroomStick.setSpecialTexture(tutVroomTexture);
-        getWheel().setSpecialTexture(tutWheel);
+        vroomStick.setSpecialTexture(tutVroomRegion);
+        getWheel().setSpecialTexture(tutWheelRegion);
         if(tutIndex == 0) {
         } else if(tutIndex == 2) {
             gnome = new Gnome(0, 10);
@@ -143,55 +151,33 @@ public class TutorialController extends GameplayController {
 
     public void preLoadContent(AssetManager manager, Array<String> assets) {
         super.preLoadContent(manager, assets);
-        manager.load(TUT_HEALTH_FILE, Texture.class);
-        assets.add(TUT_HEALTH_FILE);
-        manager.load(TUT_KEYS_FILE, Texture.class);
-        assets.add(TUT_KEYS_FILE);
-        manager.load(TUT_GAUGE_FILE, Texture.class);
-        assets.add(TUT_GAUGE_FILE);
-        manager.load(TUT_MIRROR_FILE, Texture.class);
-        assets.add(TUT_MIRROR_FILE);
-        manager.load(TUT_VROOM_FILE, Texture.class);
-        assets.add(TUT_VROOM_FILE);
-        manager.load(TUT_HORN_FILE, Texture.class);
-        assets.add(TUT_HORN_FILE);
-        manager.load(TUT_VISOR_FILE, Texture.class);
-        assets.add(TUT_VISOR_FILE);
-        manager.load(TUT_INVENTORY_FILE, Texture.class);
-        assets.add(TUT_INVENTORY_FILE);
-        manager.load(TUT_ARROW, Texture.class);
-        assets.add(TUT_ARROW);
+        AtlasLookup.preLoad(manager, TUTORIAL_ATLAS, TUTORIAL_ATLAS_FILES, assets);
         manager.load(TUT_SPEECH, Texture.class);
         assets.add(TUT_SPEECH);
         manager.load(TUT_SPEECH_REVERSE, Texture.class);
         assets.add(TUT_SPEECH_REVERSE);
         manager.load(MODULE_BG, Texture.class);
         assets.add(MODULE_BG);
-        manager.load(TUT_WHEEL, Texture.class);
-        assets.add(TUT_WHEEL);
-        manager.load(TUT_VROOM_ARROW_FILE, Texture.class);
-        assets.add(TUT_VROOM_ARROW_FILE);
-        manager.load(TUT_SCREEN_FILE, Texture.class);
-        assets.add(TUT_SCREEN_FILE);
     }
 
     public void loadContent(AssetManager manager) {
         super.loadContent(manager);
-        tutHealthTexture = createTexture(manager, TUT_HEALTH_FILE);
-        tutKeysTexture = createTexture(manager, TUT_KEYS_FILE);
-        tutGaugeTexture = createTexture(manager, TUT_GAUGE_FILE);
-        tutMirrorTexture = createTexture(manager, TUT_MIRROR_FILE);
-        tutVroomTexture = createTexture(manager, TUT_VROOM_FILE);
-        tutHornTexture = createTexture(manager, TUT_HORN_FILE);
-        tutVisorTexture = createTexture(manager, TUT_VISOR_FILE);
-        tutInventoryTexture = createTexture(manager, TUT_INVENTORY_FILE);
-        arrowTexture = createTexture(manager, TUT_ARROW);
+        atlases.load(manager, TUTORIAL_ATLAS, TUTORIAL_ATLAS_FILES);
+        tutHealthRegion = atlases.getRegion(TUT_HEALTH_FILE);
+        tutKeysRegion = atlases.getRegion(TUT_KEYS_FILE);
+        tutGaugeRegion = atlases.getRegion(TUT_GAUGE_FILE);
+        tutMirrorRegion = atlases.getRegion(TUT_MIRROR_FILE);
+        tutVroomRegion = atlases.getRegion(TUT_VROOM_FILE);
+        tutHornRegion = atlases.getRegion(TUT_HORN_FILE);
+        tutVisorRegion = atlases.getRegion(TUT_VISOR_FILE);
+        tutInventoryRegion = atlases.getRegion(TUT_INVENTORY_FILE);
+        arrowRegion = atlases.getRegion(TUT_ARROW);
         speechTexture = createTexture(manager, TUT_SPEECH);
         speechReverseTexture = createTexture(manager, TUT_SPEECH_REVERSE);
         moduleTexture = createTexture(manager, MODULE_BG);
-        tutWheel = createTexture(manager, TUT_WHEEL);
-        tutVroomArrowTexture = createTexture(manager, TUT_VROOM_ARROW_FILE);
-        tutScreenTexture = createTexture(manager, TUT_SCREEN_FILE);
+        tutWheelRegion = atlases.getRegion(TUT_WHEEL);
+        tutVroomArrowRegion = atlases.getRegion(TUT_VROOM_ARROW_FILE);
+        tutScreenRegion = atlases.getRegion(TUT_SCREEN_FILE);
     }
 
     private float stamp = 0;
@@ -532,6 +518,16 @@ public class TutorialController extends GameplayController {
         tutVroomArrow.draw(canvas);
     }
 
+    /**
+     * The instruction gnomes are added back after being destroyed, so keep
+     * them out of the pools.
+     */
+    protected void free(RoadObject o) {
+        if (o != gnome && o != gnomeL && o != gnomeR) {
+            super.free(o);
+        }
+    }
+
     public void reset() {
         super.reset();
         madeNedMad = 0;
@@ -1,6 +1,5 @@
 package edu.cornell.gdiac.mangosnoops.hudentity;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.mangosnoops.*;
 import com.badlogic.gdx.graphics.Color;
@@ -8,7 +7,6 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.ObjectMap;
 import edu.cornell.gdiac.util.FilmStrip;
 
-import java.util.Random;
 
 
 public class Child extends Image {
@@ -128,14 +126,13 @@ public class Child extends Image {
 
         super(0, 0, 0, null);
         if (type == ChildType.NED) {
-            NED_SPEECH_BUBBLE_COORDS = new Vector2(MathUtils.random(0.3f, 0.65f), MathUtils.random(0.45f, 0.75f));
+            NED_SPEECH_BUBBLE_COORDS = new Vector2(RandomController.rollFloat(0.3f, 0.65f), RandomController.rollFloat(0.45f, 0.75f));
             position = new Vector2(0.713f, 0.85f);
         } else {
-            NOSH_SPEECH_BUBBLE_COORDS = new Vector2(MathUtils.random(0.3f, 0.65f), MathUtils.random(0.45f, 0.75f));
+            NOSH_SPEECH_BUBBLE_COORDS = new Vector2(RandomController.rollFloat(0.3f, 0.65f), RandomController.rollFloat(0.45f, 0.75f));
             position = new Vector2(0.855f, 0.85f);
         }
-        Random rand = new Random();
-        int animSpeedInt = rand.nextInt(5) + 20;
+        int animSpeedInt = RandomController.rollInt(20, 24);
         ANIMATION_SPEED = (float) animSpeedInt / 100f;
 
         ctype = type;
@@ -341,7 +338,7 @@ public class Child extends Image {
                 if (this.ctype == ChildType.NED) {
                     if (NOSH_SPEECH_BUBBLE_COORDS != null) {
                         while (Math.abs(NED_SPEECH_BUBBLE_COORDS.x - NOSH_SPEECH_BUBBLE_COORDS.x) < 0.1f || Math.abs(NED_SPEECH_BUBBLE_COORDS.y - NOSH_SPEECH_BUBBLE_COORDS.y) < 0.1f) {
-                            NED_SPEECH_BUBBLE_COORDS = new Vector2(MathUtils.random(0.3f, 0.65f), MathUtils.random(0.45f, 0.75f));
+                            NED_SPEECH_BUBBLE_COORDS = new Vector2(RandomController.rollFloat(0.3f, 0.65f), RandomController.rollFloat(0.45f, 0.75f));
                         }
                     }
 //                   System.out.println(NED_SPEECH_BUBBLE_COORDS);
@@ -349,7 +346,7 @@ public class Child extends Image {
                 if (this.ctype == ChildType.NOSH) {
                     if (NED_SPEECH_BUBBLE_COORDS != null) {
                         while (Math.abs(NED_SPEECH_BUBBLE_COORDS.x - NOSH_SPEECH_BUBBLE_COORDS.x) < 0.1f || Math.abs(NED_SPEECH_BUBBLE_COORDS.y - NOSH_SPEECH_BUBBLE_COORDS.y) < 0.1f) {
-                            NOSH_SPEECH_BUBBLE_COORDS = new Vector2(MathUtils.random(0.3f, 0.65f), MathUtils.random(0.45f, 0.75f));
+                            NOSH_SPEECH_BUBBLE_COORDS = new Vector2(RandomController.rollFloat(0.3f, 0.65f), RandomController.rollFloat(0.45f, 0.75f));
                         }
                     }
 //                   System.out.println(NOSH_SPEECH_BUBBLE_COORDS);
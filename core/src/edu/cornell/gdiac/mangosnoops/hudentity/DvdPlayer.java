@@ -6,6 +6,7 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
 import edu.cornell.gdiac.mangosnoops.GameplayController;
 import edu.cornell.gdiac.mangosnoops.SoundController;
+import edu.cornell.gdiac.mangosnoops.StaticText;
 
 public class DvdPlayer {
     /** Current dvdPlaying -- is null no music is playing */
@@ -14,6 +15,11 @@ public class DvdPlayer {
     Texture dvdPlayingTexture;
     SoundController soundController;
     private boolean wasPlayingDvd;
+    /** Time remaining on the touchscreen, laid out when it changes */
+    private StaticText timeText;
+    /** The time timeLabel was made for */
+    private int timeLabelValue = -1;
+    private String timeLabel;
     public DvdPlayer (SoundController sc){
         dvdPlayingTitle = null;
         timeLeft = 0;
@@ -53,8 +59,16 @@ public class DvdPlayer {
     }
 
     public void draw(GameCanvas canvas, BitmapFont displayFont) {
+        if (timeText == null) {
+            timeText = new StaticText(displayFont);
+        }
+        if (timeLabelValue != timeLeft) {
+            timeLabel = "\nTime Remaining: " + timeLeft;
+            timeLabelValue = timeLeft;
+        }
         displayFont.setColor(Color.WHITE);
+        timeText.setText(timeLabel);
 //            canvas.drawTextCenterOriginShake(dvdPlayingTitle, displayFont, 0.85f, 0.24f);
-            canvas.drawTextCenterOriginShake("\nTime Remaining: " + timeLeft, displayFont, 0.85f, 0.24f);
+            canvas.drawTextCenterOriginShake(timeText, 0.85f, 0.24f);
     }
 }
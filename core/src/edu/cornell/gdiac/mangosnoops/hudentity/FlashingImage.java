@@ -1,6 +1,7 @@
 package edu.cornell.gdiac.mangosnoops.hudentity;
 
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
 import edu.cornell.gdiac.mangosnoops.Image;
 
@@ -43,6 +44,12 @@ public class FlashingImage extends Image {
         hidden = true;
     }
 
+    public FlashingImage(float x, float y, float relSca, TextureRegion reg) {
+        super(x, y, relSca, reg);
+        isVisibleToUser = false;
+        hidden = true;
+    }
+
     /**
      * Set the visibility to inVis.
      * @param isVis visibility
@@ -1,6 +1,6 @@
 package edu.cornell.gdiac.mangosnoops.hudentity;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
@@ -21,8 +21,8 @@ public class Horn extends Image {
     /** How quickly the honk time decreases */
     private final static float HONK_DEPRECATION_RATE = 80;
 
-    public Horn(float x, float y, float relScal, float cb, Texture tex) {
-        super(x, y, relScal, cb, tex, GameCanvas.TextureOrigin.MIDDLE);
+    public Horn(float x, float y, float relScal, float cb, TextureRegion reg) {
+        super(x, y, relScal, cb, reg, GameCanvas.TextureOrigin.MIDDLE);
         isHonking = false;
     }
 
@@ -4,12 +4,12 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import edu.cornell.gdiac.mangosnoops.*;
 
 import com.badlogic.gdx.math.*;
-import com.badlogic.gdx.graphics.*;
 import edu.cornell.gdiac.mangosnoops.Image;
 
 public class Radio {
@@ -42,21 +42,36 @@ public class Radio {
     /** Whether or not the radio should play static (when they are holding down the slider)*/
     private boolean playStatic;
 
+    /** Station name and song on the touchscreen, laid out when they change */
+    private StaticText stationText;
+    private StaticText songText;
+    /** The station songLabel was made for */
+    private Station songLabelStation;
+    /** The song's line on the touchscreen */
+    private String songLabel = "\n";
+
+    /** Changes whenever the radio's look does, so the HUD can cache it */
+    private int revision;
+    /** The station, sound and pointer position revision was counted for */
+    private Station revisionStation;
+    private boolean revisionSoundOn = true;
+    private float revisionPointerX;
+
     /** Enum for song genres **/
     public enum Genre{
         CREEPY, COMEDY, ACTION, JAZZ,
         POP, THUG, CLASSICAL, NONE
     }
 
-    public Radio(Texture tex,
-                 Texture s,
-                 Texture p,
-                 Texture son,
-                 Texture soff,
-                 Texture nel,
-                 Texture ned,
-                 Texture nol,
-                 Texture nod,
+    public Radio(TextureRegion tex,
+                 TextureRegion s,
+                 TextureRegion p,
+                 TextureRegion son,
+                 TextureRegion soff,
+                 TextureRegion nel,
+                 TextureRegion ned,
+                 TextureRegion nol,
+                 TextureRegion nod,
                  ObjectMap<String,Genre> songs) {
         knob = new Image(0.75f, 0.225f, 0.07f, 0, tex, GameCanvas.TextureOrigin.MIDDLE);
         slider = new Image(0.83f, 0.15f, 0.025f, 0.07f, s, GameCanvas.TextureOrigin.MIDDLE);
@@ -171,8 +186,8 @@ public class Radio {
      */
     public void update(Vector2 in, float dx) {
         setStation();
-        slider_left = 0.83f - 0.5f*slider.getTexture().getWidth()*0.025f*slider.getScreenHeight()/(slider.getTexture().getHeight()*slider.getScreenWidth());
-        slider_right = 0.83f + 0.5f*slider.getTexture().getWidth()*0.025f*slider.getScreenHeight()/(slider.getTexture().getHeight()*slider.getScreenWidth());
+        slider_left = 0.83f - 0.5f*slider.getRegion().getRegionWidth()*0.025f*slider.getScreenHeight()/(slider.getRegion().getRegionHeight()*slider.getScreenWidth());
+        slider_right = 0.83f + 0.5f*slider.getRegion().getRegionWidth()*0.025f*slider.getScreenHeight()/(slider.getRegion().getRegionHeight()*slider.getScreenWidth());
         if(in != null && (slider.inArea(in) || pointer.inArea(in))) {
             soundOn = true;
             playStatic = true;
@@ -193,8 +208,22 @@ public class Radio {
             }
         }
         prevClicked = in != null && sound_on.inArea(in);
+
+        float pointerX = pointer.getPosition().x;
+        if (currentStation != revisionStation || soundOn != revisionSoundOn || pointerX != revisionPointerX) {
+            revision++;
+            revisionStation = currentStation;
+            revisionSoundOn = soundOn;
+            revisionPointerX = pointerX;
+        }
     }
 
+    /**
+     * Return a number that changes whenever what draw shows changes: the
+     * station, the sound icon or the slider position.
+     */
+    public int getRevision() { return revision; }
+
     /**
      * Draws the radio and its knob on the given canvas
      * @param canvas
@@ -223,9 +252,19 @@ public class Radio {
                     break;
             }
         }
+        if (stationText == null) {
+            stationText = new StaticText(displayFont);
+            songText = new StaticText(displayFont);
+        }
+        if (songLabelStation != currentStation) {
+            songLabel = "\n" + getCurrentStationSong();
+            songLabelStation = currentStation;
+        }
         displayFont.setColor(Color.FIREBRICK);
-        canvas.drawTextCenterOriginShake(getCurrentStationName(), displayFont, 0.82f, 0.3f);
-        canvas.drawTextCenterOriginShake("\n" + getCurrentStationSong(), displayFont, 0.82f, 0.28f);
+        stationText.setText(getCurrentStationName());
+        songText.setText(songLabel);
+        canvas.drawTextCenterOriginShake(stationText, 0.82f, 0.3f);
+        canvas.drawTextCenterOriginShake(songText, 0.82f, 0.28f);
     }
 
     /**
@@ -6,11 +6,11 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
 import edu.cornell.gdiac.mangosnoops.Image;
+import edu.cornell.gdiac.mangosnoops.RandomController;
 import org.json.*;
 
 import java.io.File;
 import java.util.HashMap;
-import java.util.Random;
 import java.util.Scanner;
 
 public class SATQuestions extends Image {
@@ -25,7 +25,6 @@ public class SATQuestions extends Image {
     private int currAns;
     private HashMap<String, Texture> images; // Keys are the file names of the textures, values are respective Textures
     private Texture bubble; // Texture of the background bubble
-    Random rand = new Random();
     private int timer; // Used to time how long to do a right/wrong animation
     private static final int TIMER_MAX = 30; //duration of timer
     /** -1: Do not tint draw & tint bubble
@@ -53,7 +52,7 @@ public class SATQuestions extends Image {
     public void askQuestion() {
         if(!active) {
             active = true;
-            JSONObject curr = questions.getJSONObject(rand.nextInt(questions.length()));
+            JSONObject curr = questions.getJSONObject(RandomController.rollInt(0, questions.length() - 1));
             currQuestion = curr.getString("text");
             if(curr.getString("imageB").equals("N/A")){
                 currImageA = images.get("SatQuestions/"+curr.getString("imageA"));
@@ -1,6 +1,6 @@
 package edu.cornell.gdiac.mangosnoops.hudentity;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
@@ -15,7 +15,7 @@ public class TouchScreen {
     private DvdPlayer dvdPlayer;
     private GameCanvas c;
 
-    public TouchScreen(Radio r, DvdPlayer d, Texture ons, Texture ofs, Texture dvd) {
+    public TouchScreen(Radio r, DvdPlayer d, TextureRegion ons, TextureRegion ofs, TextureRegion dvd) {
         onScreen = new Image(0.83f, 0.22f, 0.33f, 0.05f, ons, GameCanvas.TextureOrigin.MIDDLE);
         offScreen = new Image(0.83f, 0.22f, 0.33f, 0.05f, ofs, GameCanvas.TextureOrigin.MIDDLE);
         dvdScreen = new Image(0.83f, 0.22f, 0.33f, 0.05f, dvd, GameCanvas.TextureOrigin.MIDDLE);
@@ -27,6 +27,14 @@ public class TouchScreen {
 
     public DvdPlayer getDvdPlayer() { return dvdPlayer; }
 
+    /**
+     * Return a number that changes whenever the radio's look does. The DVD's
+     * countdown is not counted, so it must not be cached while a DVD plays.
+     */
+    public int getRevision() {
+        return radio.getRevision()*2 + (radio.getNumStations() == 0 ? 1 : 0);
+    }
+
     public boolean inDvdSlot(Vector2 p) {
         return offScreen.inArea(p);
     }
@@ -2,7 +2,7 @@ package edu.cornell.gdiac.mangosnoops.hudentity;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
@@ -26,20 +26,20 @@ public class VroomStick extends Image {
     private float ENGAGE_ANGLE = -35;
     private float relScaDiv;
 
-    public VroomStick(float x, float y, float relSca, float cb, Texture tex ) {
-        super(x,y,relSca,cb,tex);
+    public VroomStick(float x, float y, float relSca, float cb, TextureRegion reg) {
+        super(x,y,relSca,cb,reg);
         engaged = false;
-        relScaDiv = relativeScale/texture.getHeight();
+        relScaDiv = relativeScale/region.getRegionHeight();
 
-        hitbox = new Rectangle(position.x*SCREEN_DIMENSIONS.x + 0.736f*texture.getWidth()*SCREEN_DIMENSIONS.y*relScaDiv,
-                position.y*SCREEN_DIMENSIONS.y + 0.63f*texture.getHeight()*SCREEN_DIMENSIONS.y*relScaDiv,
-                0.28f*texture.getWidth()*SCREEN_DIMENSIONS.y*relScaDiv,
-                0.35f*texture.getHeight()*SCREEN_DIMENSIONS.y*relScaDiv);
+        hitbox = new Rectangle(position.x*SCREEN_DIMENSIONS.x + 0.736f*region.getRegionWidth()*SCREEN_DIMENSIONS.y*relScaDiv,
+                position.y*SCREEN_DIMENSIONS.y + 0.63f*region.getRegionHeight()*SCREEN_DIMENSIONS.y*relScaDiv,
+                0.28f*region.getRegionWidth()*SCREEN_DIMENSIONS.y*relScaDiv,
+                0.35f*region.getRegionHeight()*SCREEN_DIMENSIONS.y*relScaDiv);
     }
 
     @Override
     public void draw(GameCanvas canvas) {
-        if(texture == null) {
+        if(region == null) {
             return;
         }
 
@@ -69,9 +69,9 @@ public class VroomStick extends Image {
                 ang = 0;
             }
 
-            if (hitbox.getY() + hitbox.getHeight() > position.y * SCREEN_DIMENSIONS.y + texture.getHeight() * SCREEN_DIMENSIONS.y * relScaDiv) {
-                hitbox.setPosition(position.x * SCREEN_DIMENSIONS.x + 0.736f * texture.getWidth() * SCREEN_DIMENSIONS.y * relScaDiv,
-                        position.y * SCREEN_DIMENSIONS.y + 0.652f * texture.getHeight() * SCREEN_DIMENSIONS.y * relScaDiv);
+            if (hitbox.getY() + hitbox.getHeight() > position.y * SCREEN_DIMENSIONS.y + region.getRegionHeight() * SCREEN_DIMENSIONS.y * relScaDiv) {
+                hitbox.setPosition(position.x * SCREEN_DIMENSIONS.x + 0.736f * region.getRegionWidth() * SCREEN_DIMENSIONS.y * relScaDiv,
+                        position.y * SCREEN_DIMENSIONS.y + 0.652f * region.getRegionHeight() * SCREEN_DIMENSIONS.y * relScaDiv);
             }
     }
 
@@ -2,7 +2,7 @@ package edu.cornell.gdiac.mangosnoops.hudentity;
 
 import edu.cornell.gdiac.mangosnoops.*;
 import com.badlogic.gdx.math.*;
-import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import edu.cornell.gdiac.mangosnoops.roadentity.Car;
 
 public class Wheel extends Image {
@@ -14,8 +14,8 @@ public class Wheel extends Image {
     private static final float ANGLE_TO_LR = 7.0f;
 
 
-    public Wheel(float x, float y, float relSize, float cb, Texture tex){
-        super(x, y ,relSize, cb, tex, GameCanvas.TextureOrigin.MIDDLE);
+    public Wheel(float x, float y, float relSize, float cb, TextureRegion reg){
+        super(x, y ,relSize, cb, reg, GameCanvas.TextureOrigin.MIDDLE);
     }
 
     /** Translates an angle to left/right movement */
@@ -55,7 +55,7 @@ public class Wheel extends Image {
 
     @Override
     public void draw(GameCanvas canvas){
-        if(texture == null) {
+        if(region == null) {
             return;
         }
 
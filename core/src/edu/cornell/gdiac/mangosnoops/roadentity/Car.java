@@ -217,6 +217,9 @@ public class Car extends RoadObject {
     }
     public boolean getIsDamaged() { return isDamaged; }
 
+    /** Return true if the dash is currently drawn shaken */
+    public boolean getIsShaking() { return isShaking; }
+
     public float getDamageDisplayAlpha() { return displayAlpha; }
 
     /**
@@ -1,7 +1,10 @@
 package edu.cornell.gdiac.mangosnoops.roadentity;
 
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.decals.Decal;
 import com.badlogic.gdx.graphics.g3d.particles.influencers.ColorInfluencer;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
 import edu.cornell.gdiac.mangosnoops.*;
 import edu.cornell.gdiac.util.*;
 
@@ -10,28 +13,41 @@ import com.badlogic.gdx.graphics.*;
 
 import java.util.Random;
 
-public class Enemy extends RoadObject{
+/**
+ * An enemy on the road.
+ *
+ * Enemies are moved and animated by the EnemyStore of the level. While in the
+ * store an Enemy is only a view of its slot, and has no update of its own.
+ */
+public class Enemy extends RoadObject implements Pool.Poolable {
     // CONSTANTS
-    /** How fast we change frames (one frame per 4 calls to update) */
-    private float animationSpeed = 0.25f;
+    /** How fast we change frames (one frame per 4 calls to EnemyStore.update) */
+    static final float ANIMATION_SPEED = 0.25f;
     /** The number of animation frames in our filmstrip */
     private int   numAnimationFrames;
 
     // ATTRIBUTES
     /** Current animation frame for this ship */
-    private float animeframe;
+    float animeframe;
 
-    /** How high the enemy hovers in the world */
-    protected float hoverDistance = 4.309f;
+    /** The store holding this enemy's state, or null if it uses its own fields */
+    EnemyStore store;
+    /** Slot of this enemy in the store */
+    int slot = -1;
+
+    /** Defaults restored when an enemy is returned to a pool */
+    private static final float DEFAULT_HOVER_DISTANCE = 4.309f;
+    private static final float DEFAULT_WIDTH = 0.2f;
+    private static final float DEFAULT_HEIGHT = 0.09f;
 
-    /** speed of road */
-    private float currSpeed;
+    /** How high the enemy hovers in the world */
+    protected float hoverDistance = DEFAULT_HOVER_DISTANCE;
 
     /** enemy width */
-    protected float enemyWidth = 0.2f;
+    protected float enemyWidth = DEFAULT_WIDTH;
 
     /** enemy height */
-    protected float enemyHeight = 0.09f;
+    protected float enemyHeight = DEFAULT_HEIGHT;
 
     /** the type of this enemy */
     private ObjectType enemyType;
@@ -42,6 +58,11 @@ public class Enemy extends RoadObject{
     /** The maximum animation frame */
     protected int maxAnimFrame;
 
+    /** The decal drawn for this enemy, showing the current animation frame */
+    private Decal decal;
+    /** The atlas region the FilmStrip was made from, or null if it has a texture of its own */
+    private TextureRegion stripRegion;
+
     /** Reference to Enemy that is directly left-adjacent */
     private Enemy rightEnemy;
 
@@ -54,7 +75,54 @@ public class Enemy extends RoadObject{
     }
 
     public float getEnemyWidth() {
-        return enemyWidth;
+        return store == null ? enemyWidth : store.width[slot];
+    }
+
+    public float getEnemyHeight() {
+        return store == null ? enemyHeight : store.height[slot];
+    }
+
+    /*
+     * While the enemy is in an EnemyStore, the accessors below read and write
+     * the store's columns. getPosition() is not kept up to date.
+     */
+
+    public float getX() {
+        return store == null ? super.getX() : store.x[slot];
+    }
+
+    public void setX(float value) {
+        if (store == null) {
+            super.setX(value);
+        } else {
+            store.x[slot] = value;
+            store.moved(slot);
+        }
+    }
+
+    public float getY() {
+        return store == null ? super.getY() : store.y[slot];
+    }
+
+    public void setY(float value) {
+        if (store == null) {
+            super.setY(value);
+        } else {
+            store.y[slot] = value;
+            store.moved(slot);
+        }
+    }
+
+    public boolean isDestroyed() {
+        return store == null ? super.isDestroyed() : store.destroyed[slot];
+    }
+
+    public void setDestroyed(boolean value) {
+        if (store == null) {
+            super.setDestroyed(value);
+        } else {
+            store.destroyed[slot] = value;
+        }
     }
 
     private Vector2 startPos;
@@ -96,12 +164,46 @@ public class Enemy extends RoadObject{
         rightEnemy = e.getRightEnemy();
     }
 
+    /**
+     * Reinitialize this enemy as a copy of e, for reuse from a pool.
+     *
+     * The right enemy is not copied, as it should refer to another copy.
+     *
+     * @param e the enemy to copy
+     */
+    public void set(Enemy e) {
+        startPos.set(e.getStartPos());
+        setX(e.getX());
+        setY(e.getY());
+        enemyType = e.getType();
+    }
+
+    /**
+     * Return this enemy to the state of a newly constructed one.
+     *
+     * The FilmStrip is kept, so that it can be reused if the same texture is set.
+     */
+    public void reset() {
+        animeframe = 0;
+        minAnimFrame = 0;
+        maxAnimFrame = 0;
+        hoverDistance = DEFAULT_HOVER_DISTANCE;
+        enemyWidth = DEFAULT_WIDTH;
+        enemyHeight = DEFAULT_HEIGHT;
+        rightEnemy = null;
+        destroyed = false;
+    }
+
     /**
      * Set a new hover distance.
      * @param newHoverDistance the new hover distance
      */
     public void setHoverDistance(float newHoverDistance) {
-        hoverDistance = newHoverDistance;
+        if (store == null) {
+            hoverDistance = newHoverDistance;
+        } else {
+            store.hover[slot] = newHoverDistance;
+        }
     }
 
     /**
@@ -109,7 +211,7 @@ public class Enemy extends RoadObject{
      * @return new hover distance
      */
     public float getHoverDistance() {
-        return hoverDistance;
+        return store == null ? hoverDistance : store.hover[slot];
     }
 
     /**
@@ -117,7 +219,11 @@ public class Enemy extends RoadObject{
      * @param newWidth
      */
     public void setEnemyWidth(float newWidth) {
-        enemyWidth = newWidth;
+        if (store == null) {
+            enemyWidth = newWidth;
+        } else {
+            store.width[slot] = newWidth;
+        }
     }
 
     /**
@@ -125,7 +231,11 @@ public class Enemy extends RoadObject{
      * @param newHeight
      */
     public void setEnemyHeight(float newHeight) {
-        enemyHeight = newHeight;
+        if (store == null) {
+            enemyHeight = newHeight;
+        } else {
+            store.height[slot] = newHeight;
+        }
     }
 
     /**
@@ -139,7 +249,41 @@ public class Enemy extends RoadObject{
         numAnimationFrames = rows * cols - 1;
         minAnimFrame = 0;
         maxAnimFrame = numAnimationFrames;
+        // Pooled enemies keep their FilmStrip, so only make a new one for a new texture
+        if (animator != null && stripRegion == null && animator.getTexture() == texture && animator.getSize() == rows * cols) {
+            animator.setFrame(0);
+            return;
+        }
         animator = new FilmStrip(texture,rows,cols,rows * cols);
+        stripRegion = null;
+        initFilmStrip();
+    }
+
+    /**
+     * Set the FilmStrip of this Enemy from a region of a texture atlas.
+     *
+     * @param region the FilmStrip region
+     * @param rows the number of rows in the region
+     * @param cols the number of columns in the region
+     */
+    public void setFilmStrip(TextureRegion region, int rows, int cols) {
+        numAnimationFrames = rows * cols - 1;
+        minAnimFrame = 0;
+        maxAnimFrame = numAnimationFrames;
+        if (animator != null && stripRegion == region && animator.getSize() == rows * cols) {
+            animator.setFrame(0);
+            return;
+        }
+        animator = new FilmStrip(region,rows,cols,rows * cols);
+        stripRegion = region;
+        initFilmStrip();
+    }
+
+    /**
+     * Make the decal and size of a new FilmStrip.
+     */
+    private void initFilmStrip() {
+        decal = GameCanvas.newRoadDecal(animator, enemyWidth, enemyHeight, 90);
         radius = animator.getRegionHeight() / 2.0f;
         origin = new Vector2(animator.getRegionWidth()/2.0f, animator.getRegionHeight()/2.0f);
     }
@@ -153,23 +297,46 @@ public class Enemy extends RoadObject{
      *
      * @param delta Number of seconds since last animation frame
      */
-    public void update(float delta, float newSpeed) {
-        super.update(delta);
-        setSpeed(newSpeed);
-        animeframe += animationSpeed;
-        setY(getY()-currSpeed * delta);
+    public void draw(GameCanvas canvas) {
+        float frame = getAnimeFrame();
+        if (frame >= maxAnimFrame) {
+            frame = minAnimFrame;
+            setAnimeFrame(frame);
+        }
+        draw(canvas, (int) frame, getX(), getY(), getHoverDistance(), getEnemyWidth(), getEnemyHeight());
+    }
 
+    /**
+     * Return a region showing the given animation frame, which stays the same
+     * as the enemy animates on, so that it can be drawn later (see
+     * WorldSnapshot).
+     *
+     * @param frame the animation frame
+     */
+    TextureRegion getFrameRegion(int frame) {
+        return animator == null ? null : animator.getFrameRegion(frame);
     }
 
-    public void draw(GameCanvas canvas) {
-        if (animeframe >= maxAnimFrame) {
-            animeframe = minAnimFrame;
-        }
-        animator.setFrame((int) animeframe);
-        canvas.drawRoadObject(animator, getX(), getY(), hoverDistance, enemyWidth, enemyHeight, 90, 0);
+    /**
+     * Draw this enemy's decal with the given state rather than its own.
+     */
+    private void draw(GameCanvas canvas, int frame, float x, float y, float hover, float width, float height) {
+        animator.setFrame(frame);
+        // The FilmStrip changes in place, so the decal has to pick up the new frame
+        decal.setTextureRegion(animator);
+        decal.setDimensions(width, height);
+        canvas.drawRoadObject(decal, x, y, hover);
+    }
+
+    private float getAnimeFrame() {
+        return store == null ? animeframe : store.animFrame[slot];
     }
 
-    public void setSpeed (float s) {
-        currSpeed = s;
+    private void setAnimeFrame(float frame) {
+        if (store == null) {
+            animeframe = frame;
+        } else {
+            store.animFrame[slot] = frame;
+        }
     }
 }
@@ -0,0 +1,306 @@
+package edu.cornell.gdiac.mangosnoops.roadentity;
+
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.mangosnoops.RoadObject.ObjectType;
+
+/**
+ * The per-frame state of the live enemies, kept in parallel primitive arrays.
+ *
+ * An Enemy added to the store becomes a view of one slot: its position, hover
+ * distance, size, animation frame and flags are read from and written to the
+ * arrays here instead of its own fields. The update and collision loops can
+ * then run over the arrays without touching the Enemy objects.
+ *
+ * Removing an enemy moves the last slot into its place, so the live slots are
+ * always 0 to size()-1, in no particular order.
+ *
+ * The store also counts how far it has scrolled the enemies. y + getScroll()
+ * is the enemy's position along the road, which does not change as the road
+ * moves, so a Listener can index the enemies once when they are added and
+ * only update the index when they are removed or moved by hand.
+ */
+public class EnemyStore {
+    /**
+     * Told about every change to the slots of the store other than the
+     * per-frame scroll of update().
+     */
+    public interface Listener {
+        /** Slot i has been filled with a new enemy */
+        public void added(EnemyStore store, int i);
+        /** The enemy in slot i is about to be removed */
+        public void removed(EnemyStore store, int i);
+        /** The enemy in slot from has been moved to slot to */
+        public void renumbered(EnemyStore store, int from, int to);
+        /** Every slot has been emptied */
+        public void cleared(EnemyStore store);
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final ObjectType[] TYPES = ObjectType.values();
+
+    /** Number of live slots */
+    private int size;
+
+    /** Enemy viewing each slot */
+    private Enemy[] views;
+    /** Columns, one entry per slot */
+    float[] x;
+    float[] y;
+    /** y at the start of the last update, for swept collisions */
+    float[] prevY;
+    float[] hover;
+    float[] width;
+    float[] height;
+    float[] animFrame;
+    byte[] type;
+    boolean[] destroyed;
+    boolean[] flyingAway;
+
+    /** Total distance update() has moved the enemies, and its value before the last update */
+    private double scroll;
+    private double prevScroll;
+
+    private Listener listener;
+
+    public EnemyStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Return the number of enemies in the store.
+     */
+    public int size() { return size; }
+
+    /**
+     * Return the enemy viewing a slot.
+     */
+    public Enemy getView(int i) { return views[i]; }
+
+    public float getX(int i) { return x[i]; }
+
+    public float getY(int i) { return y[i]; }
+
+    /**
+     * Return the y-coordinate of a slot before the last update, so that
+     * collisions can use the whole distance it moved in the frame.
+     */
+    public float getPrevY(int i) { return prevY[i]; }
+
+    public ObjectType getType(int i) { return TYPES[type[i]]; }
+
+    public boolean isDestroyed(int i) { return destroyed[i]; }
+
+    public boolean isFlyingAway(int i) { return flyingAway[i]; }
+
+    /**
+     * Return how far update() has moved the enemies in total. Adding this to
+     * the y of a slot gives a position along the road that does not change.
+     */
+    public double getScroll() { return scroll; }
+
+    /**
+     * Return getScroll() as it was before the last update.
+     */
+    public double getPrevScroll() { return prevScroll; }
+
+    /**
+     * Set the listener told about added, removed and moved slots, and tell it
+     * about every slot already live.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+        if (listener != null) {
+            for (int i = 0; i < size; i++) {
+                listener.added(this, i);
+            }
+        }
+    }
+
+    /**
+     * Add an enemy to the store, copying its state into a new slot.
+     *
+     * @param e an enemy that is not in any store
+     */
+    public void add(Enemy e) {
+        if (e.store != null) {
+            throw new RuntimeException("Enemy is already in a store");
+        }
+        if (size == views.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        views[i] = e;
+        x[i] = e.getX();
+        y[i] = e.getY();
+        prevY[i] = y[i];
+        hover[i] = e.hoverDistance;
+        width[i] = e.enemyWidth;
+        height[i] = e.enemyHeight;
+        animFrame[i] = e.animeframe;
+        type[i] = (byte) e.getType().ordinal();
+        destroyed[i] = e.isDestroyed();
+        flyingAway[i] = e instanceof Flamingo && ((Flamingo) e).isFlyingAway;
+        e.store = this;
+        e.slot = i;
+        if (listener != null) {
+            listener.added(this, i);
+        }
+    }
+
+    /**
+     * Remove an enemy from the store, copying its state back into its fields.
+     *
+     * Does nothing if the enemy is not in this store.
+     *
+     * @param e the enemy to remove
+     */
+    public void remove(Enemy e) {
+        if (e.store != this) {
+            return;
+        }
+        int i = e.slot;
+        if (listener != null) {
+            listener.removed(this, i);
+        }
+        unbind(e, i);
+
+        // Fill the hole with the last slot
+        int last = --size;
+        if (i != last) {
+            views[i] = views[last];
+            x[i] = x[last];
+            y[i] = y[last];
+            prevY[i] = prevY[last];
+            hover[i] = hover[last];
+            width[i] = width[last];
+            height[i] = height[last];
+            animFrame[i] = animFrame[last];
+            type[i] = type[last];
+            destroyed[i] = destroyed[last];
+            flyingAway[i] = flyingAway[last];
+            views[i].slot = i;
+            if (listener != null) {
+                listener.renumbered(this, last, i);
+            }
+        }
+        views[last] = null;
+    }
+
+    /**
+     * Tell the listener that a slot was moved by hand rather than by update(),
+     * e.g. by the tutorial.
+     */
+    void moved(int i) {
+        if (listener != null) {
+            listener.removed(this, i);
+            listener.added(this, i);
+        }
+    }
+
+    /**
+     * Add every enemy in the list that is not yet in the store.
+     *
+     * Enemies can be added to the level's list at any time (e.g. by the
+     * tutorial), so this is called once per frame before the update.
+     *
+     * @param enemies the live enemies of the level
+     */
+    public void sync(Array<Enemy> enemies) {
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy e = enemies.get(i);
+            if (e.store == null) {
+                add(e);
+            }
+        }
+    }
+
+    /**
+     * Remove every enemy from the store.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            unbind(views[i], i);
+            views[i] = null;
+        }
+        size = 0;
+        if (listener != null) {
+            listener.cleared(this);
+        }
+    }
+
+    /**
+     * Move every enemy down the road and advance its animation.
+     *
+     * This is the only place enemies are moved: an Enemy in the store is a
+     * view of its slot, with no update of its own.
+     *
+     * @param delta Number of seconds since last animation frame
+     * @param speed the speed of the road
+     */
+    public void update(float delta, float speed) {
+        float dy = speed * delta;
+        prevScroll = scroll;
+        scroll += dy;
+        for (int i = 0; i < size; i++) {
+            prevY[i] = y[i];
+            y[i] -= dy;
+            animFrame[i] += Enemy.ANIMATION_SPEED;
+            if (animFrame[i] >= views[i].maxAnimFrame) {
+                animFrame[i] = views[i].minAnimFrame;
+            }
+        }
+
+        float dx = Flamingo.FLYING_XSPEED * delta;
+        float dh = Flamingo.FLYING_HOVERSPEED * delta;
+        for (int i = 0; i < size; i++) {
+            if (flyingAway[i]) {
+                x[i] -= dx;
+                hover[i] += dh;
+            }
+        }
+    }
+
+    /**
+     * Copy a slot back into its enemy and detach the enemy from the store.
+     */
+    private void unbind(Enemy e, int i) {
+        e.store = null;
+        e.slot = -1;
+        e.setX(x[i]);
+        e.setY(y[i]);
+        e.hoverDistance = hover[i];
+        e.enemyWidth = width[i];
+        e.enemyHeight = height[i];
+        e.animeframe = animFrame[i];
+        e.setDestroyed(destroyed[i]);
+        if (e instanceof Flamingo) {
+            ((Flamingo) e).isFlyingAway = flyingAway[i];
+        }
+    }
+
+    /**
+     * Grow the columns to the given capacity, keeping the live slots.
+     */
+    private void allocate(int capacity) {
+        views = copyOf(views, new Enemy[capacity]);
+        x = copyOf(x, new float[capacity]);
+        y = copyOf(y, new float[capacity]);
+        prevY = copyOf(prevY, new float[capacity]);
+        hover = copyOf(hover, new float[capacity]);
+        width = copyOf(width, new float[capacity]);
+        height = copyOf(height, new float[capacity]);
+        animFrame = copyOf(animFrame, new float[capacity]);
+        type = copyOf(type, new byte[capacity]);
+        destroyed = copyOf(destroyed, new boolean[capacity]);
+        flyingAway = copyOf(flyingAway, new boolean[capacity]);
+    }
+
+    private <T> T copyOf(T from, T to) {
+        if (from != null) {
+            System.arraycopy(from, 0, to, 0, size);
+        }
+        return to;
+    }
+}
@@ -19,5 +19,10 @@ public class Flame extends Enemy {
         enemyHeight = 0.04f;
     }
 
-
+    public void reset() {
+        super.reset();
+        hoverDistance = 4.3f;
+        enemyWidth = 0.07f;
+        enemyHeight = 0.04f;
+    }
 }
@@ -2,16 +2,16 @@ package edu.cornell.gdiac.mangosnoops.roadentity;
 
 public class Flamingo extends Enemy {
 
-    /** Flying speed of the flamingo */
-    private final static float FLYING_XSPEED = 1f;
-    private final static float FLYING_HOVERSPEED = 0.45f;
+    /** Flying speed of the flamingo, applied by EnemyStore.update */
+    final static float FLYING_XSPEED = 1f;
+    final static float FLYING_HOVERSPEED = 0.45f;
 
     /** How far away the flamingo can be without being
      *  affected by the horn. */
     private final static float FLYAWAY_DISTANCE = 1f;
 
     /** Whether or not the Flamingo is flying away. */
-    private boolean isFlyingAway;
+    boolean isFlyingAway;
 
     /**
      * Create a new Flamingo at position (x,y).
@@ -38,7 +38,11 @@ public class Flamingo extends Enemy {
      *  - The Flamingo uses its flying animation
      */
     public void setFlyingAway() {
-        isFlyingAway = true;
+        if (store == null) {
+            isFlyingAway = true;
+        } else {
+            store.flyingAway[slot] = true;
+        }
     }
 
     /**
@@ -48,24 +52,18 @@ public class Flamingo extends Enemy {
      * @return whether or not the Flamingo is flying
      */
     public boolean isFlyingAway() {
-        return isFlyingAway;
-    }
-
-    public void update(float delta, float roadSpeed) {
-        super.update(delta, roadSpeed);
-
-        if (isFlyingAway) {
-            float newX = getX() - FLYING_XSPEED * delta;
-            float newHoverDistance = getHoverDistance() + FLYING_HOVERSPEED * delta;
-            setX(newX);
-            setHoverDistance(newHoverDistance);
-        }
+        return store == null ? isFlyingAway : store.flyingAway[slot];
     }
 
     public float getFlyAwayDistance() {
         return FLYAWAY_DISTANCE;
     }
 
+    public void reset() {
+        super.reset();
+        isFlyingAway = false;
+    }
+
     public void setAnimationBounds(int minFrame, int maxFrame) {
         minAnimFrame = minFrame;
         maxAnimFrame = maxFrame;
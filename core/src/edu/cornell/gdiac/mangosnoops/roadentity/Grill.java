@@ -1,6 +1,6 @@
 package edu.cornell.gdiac.mangosnoops.roadentity;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
 import edu.cornell.gdiac.util.FilmStrip;
@@ -38,6 +38,25 @@ public class Grill extends Enemy {
         enemyHeight = 0.1f;
     }
 
+    /**
+     * Reinitialize this grill as a copy of g, for reuse from a pool. Like the
+     * copy constructor, the flames are not copied.
+     *
+     * @param g the grill to copy
+     */
+    public void set(Enemy g) {
+        super.set(g);
+        startY = g.getY();
+    }
+
+    public void reset() {
+        super.reset();
+        grillEndY = 0;
+        flames.clear();
+        enemyWidth = 0.16f;
+        enemyHeight = 0.1f;
+    }
+
     public float getGrillEndY() {
         return grillEndY;
     }
@@ -70,7 +89,7 @@ public class Grill extends Enemy {
         return flames;
     }
 
-    public void setFireTexture(Texture t) {
+    public void setFireTexture(TextureRegion t) {
         for (Flame f : flames) {
             f.setFilmStrip(t, 1, 1);
         }
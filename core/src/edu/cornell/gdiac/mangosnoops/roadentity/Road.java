@@ -8,22 +8,27 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.mangosnoops.GameCanvas;
+import edu.cornell.gdiac.mangosnoops.GameplayController.Region;
 import edu.cornell.gdiac.mangosnoops.RoadObject;
 
 import javax.xml.soap.Text;
-import java.util.LinkedList;
 
 /**
  * Contains logic relating to the road and exit.
  */
 public class Road extends RoadObject {
 
-    /** The road decals. */
-    private LinkedList<Float> yPositions;
-    /** The number of road decals to draw. */
-    int NUM_ROAD_DECALS = 30;
+    /** The width of a lane. The leftmost lane is centred at -LANE_WIDTH,
+     *  and each other lane a lane width right of the one before. */
+    public static final float LANE_WIDTH = 0.2f;
+
+    /** The y-coordinate of the farthest road slice. The others follow it
+     *  ROAD_HEIGHT apart, so this is all the belt needs to scroll. */
+    private float scroll;
+    /** The number of road slices to draw. */
+    int NUM_ROAD_DECALS;
     /** The distance from the camera of the farthest road. */
-    float DISTANCE_TO_DRAW = 5;
+    float DISTANCE_TO_DRAW;
     /** The threshold after which a road should be moved to the front of the
      * "conveyor belt". */
     float END_OF_CONVEYOR_BELT = -3;
@@ -33,6 +38,10 @@ public class Road extends RoadObject {
     Texture grassTexture;
     /** The exit texture */
     Texture exitTexture;
+    /** The mesh the road, grass and exit are drawn with */
+    private RoadMesh mesh;
+    /** The number of lanes of the level */
+    private int numLanes;
 
     /** Road y rotation amount */
     float ROAD_X_ROTATION = 0f;
@@ -84,10 +93,12 @@ public class Road extends RoadObject {
     private float VROOM_ACCELERATION = 6f;
 
     /** How high the road/ground objects "hover" */
-    private final float ROAD_HOVER_DISTANCE = 4.25f;
+    final float ROAD_HOVER_DISTANCE = 4.25f;
 
     /** The current speed of the car */
     private float currentSpeed = NORMAL_SPEED;
+    /** How far the road moved in the last update */
+    private float lastScroll;
     /** How far away the exit starts */
     private float initialExitY;
 
@@ -104,6 +115,9 @@ public class Road extends RoadObject {
     /** Return the current speed */
     public float getCurrentSpeed() { return currentSpeed; }
 
+    /** Return how far the road, and everything on it, moved in the last update */
+    public float getLastScroll() { return lastScroll; }
+
     @Override
     public ObjectType getType() {
         return null;
@@ -127,23 +141,26 @@ public class Road extends RoadObject {
 
     public float getRoadExitY() { return exitY; }
 
-    public Road(float endY) {
+    /**
+     * Create the road for a level.
+     *
+     * @param endY the y-coordinate of the exit
+     * @param numLanes the number of lanes of the level
+     * @param region the region of the level, which sets how far the road is drawn
+     */
+    public Road(float endY, int numLanes, Region region) {
 
         state = RoadState.NORMAL;
+        this.numLanes = numLanes;
 
         // The exit will appear at the end of the level
         initialExitY = endY;
         exitY = endY;
 
-        // Invariant: roadPositions[i+1] is closer to the camera than roadPositions[i]
-        yPositions = new LinkedList<Float>();
-        for (int i = 0; i < NUM_ROAD_DECALS; i++) {
-            if (i == 0) {
-                yPositions.add(new Float(DISTANCE_TO_DRAW));
-            } else {
-                yPositions.add(new Float(yPositions.get(i-1)-1));
-            }
-        }
+        // Enough slices to cover the road from the draw distance to the end of the belt
+        DISTANCE_TO_DRAW = region.getRoadDrawDistance();
+        NUM_ROAD_DECALS = (int) Math.ceil((DISTANCE_TO_DRAW - END_OF_CONVEYOR_BELT) / ROAD_HEIGHT) + 1;
+        scroll = DISTANCE_TO_DRAW;
 
     }
 
@@ -192,41 +209,51 @@ public class Road extends RoadObject {
         }
 
 
-        // Move farthest road texture towards the camera
-        yPositions.set(0, yPositions.get(0) - currentSpeed * delta);
-
-        // Move the rest of the road textures
-        for (int i = 1; i < yPositions.size(); i++) {
-            /* FIXME: optimize this */
-            yPositions.set(i, yPositions.get(i-1) - ROAD_HEIGHT);
-        }
+        // Move the road textures towards the camera
+        float dy = currentSpeed * delta;
+        lastScroll = dy;
+        scroll -= dy;
 
         // Move the exit towards the camera
         exitY -= currentSpeed * delta;
 
-        Float lastY = yPositions.getLast();
-        Float firstY = yPositions.getFirst();
-        if (lastY < END_OF_CONVEYOR_BELT) {
-            yPositions.addFirst(firstY+1);
-            yPositions.removeLast();
+        // Recycle the slices that have passed the camera to the far end
+        float beltLength = (NUM_ROAD_DECALS - 1) * ROAD_HEIGHT;
+        while (scroll - beltLength < END_OF_CONVEYOR_BELT) {
+            scroll += ROAD_HEIGHT;
         }
 
     }
 
-    public void draw(GameCanvas canvas) {
-
-        for (Float y : yPositions) {
+    /** Return the scroll of the road: the position of its farthest slice */
+    public float getScroll() { return scroll; }
 
-            // Draw road
-            canvas.drawRoadObject(roadTexture, ROAD_X, y, ROAD_HOVER_DISTANCE, ROAD_WIDTH, ROAD_HEIGHT, ROAD_X_ROTATION, 0);
-
-            // Draw grass on the left
-            canvas.drawRoadObject(grassTexture, LEFT_GRASS_X, y, ROAD_HOVER_DISTANCE, GRASS_WIDTH, GRASS_HEIGHT, ROAD_X_ROTATION, 0);
+    public void draw(GameCanvas canvas) {
+        draw(canvas, scroll, exitY);
+    }
 
-            // Draw grass on the right
-            canvas.drawRoadObject(grassTexture, RIGHT_GRASS_X, y, ROAD_HOVER_DISTANCE, GRASS_WIDTH, GRASS_HEIGHT, ROAD_X_ROTATION, 0);
+    /**
+     * Draw the road at a given scroll, e.g. one copied out in a WorldSnapshot.
+     *
+     * @param scroll the position of the farthest slice, from getScroll()
+     * @param exitY the position of the exit
+     */
+    public void draw(GameCanvas canvas, float scroll, float exitY) {
 
+        // The mesh covers the whole belt, so it is only rebuilt for new textures
+        if (mesh == null || !mesh.uses(roadTexture, grassTexture, exitTexture)) {
+            if (mesh != null) {
+                mesh.dispose();
+            }
+            mesh = new RoadMesh(this, END_OF_CONVEYOR_BELT - ROAD_HEIGHT / 2,
+                    DISTANCE_TO_DRAW + ROAD_HEIGHT / 2, roadTexture, grassTexture, exitTexture);
         }
+
+        // Scroll the tiles so that they line up with the slices of the belt,
+        // held back as far as the rest of the world is
+        float lag = canvas.getWorldLag();
+        mesh.setScroll((scroll + lag) / ROAD_HEIGHT, exitY + lag);
+        canvas.drawRoad(mesh);
     }
 
     /**
@@ -276,6 +303,32 @@ public class Road extends RoadObject {
         return exitY < 1;
     }
 
+    /** @return the number of lanes of the level */
+    public int getNumLanes() { return numLanes; }
+
+    /** @return the x-coordinate of the left edge of the road */
+    public float getLeftEdge() { return -1.5f * LANE_WIDTH; }
+
+    /** @return the x-coordinate of the right edge of the road */
+    public float getRightEdge() { return (numLanes - 1.5f) * LANE_WIDTH; }
+
+    /**
+     * @return how far along the level the car is, from 0 at the start to 1 at the exit
+     */
+    public float getProgress() {
+        return Math.min(1, (initialExitY - exitY) / (initialExitY - 1));
+    }
+
+    /**
+     * Free the road's mesh.
+     */
+    public void dispose() {
+        if (mesh != null) {
+            mesh.dispose();
+            mesh = null;
+        }
+    }
+
     /** Reset the road. */
     public void reset () {
         exitY = initialExitY;
@@ -0,0 +1,226 @@
+package edu.cornell.gdiac.mangosnoops.roadentity;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * A single mesh for the whole road: the road itself, the grass on either side
+ * and the exit lane.
+ *
+ * The mesh never changes once built. The road and grass look endless because
+ * the shader tiles their textures every slice height and scrolls them by an
+ * offset, and the exit lane is moved by the shader to the exit's position.
+ */
+public class RoadMesh {
+    /** Which texture each vertex is drawn with */
+    private static final float ROAD_LAYER = 0;
+    private static final float GRASS_LAYER = 1;
+    private static final float EXIT_LAYER = 2;
+
+    /** Floats per vertex: position, texture coordinates and layer */
+    private static final int VERTEX_SIZE = 6;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec3 a_position;\n" +
+            "attribute vec2 a_texCoord0;\n" +
+            "attribute float a_layer;\n" +
+            "uniform mat4 u_projTrans;\n" +
+            "uniform float u_exitY;\n" +
+            "varying vec2 v_texCoords;\n" +
+            "varying float v_layer;\n" +
+            "void main() {\n" +
+            "    vec3 pos = a_position;\n" +
+            "    if (a_layer > 1.5) {\n" +
+            "        pos.y += u_exitY;\n" +
+            "    }\n" +
+            "    v_texCoords = a_texCoord0;\n" +
+            "    v_layer = a_layer;\n" +
+            "    gl_Position = u_projTrans * vec4(pos, 1.0);\n" +
+            "}\n";
+
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n" +
+            "precision mediump float;\n" +
+            "#endif\n" +
+            "varying vec2 v_texCoords;\n" +
+            "varying float v_layer;\n" +
+            "uniform sampler2D u_road;\n" +
+            "uniform sampler2D u_grass;\n" +
+            "uniform sampler2D u_exit;\n" +
+            "uniform float u_scroll;\n" +
+            "void main() {\n" +
+            "    if (v_layer > 1.5) {\n" +
+            "        gl_FragColor = texture2D(u_exit, v_texCoords);\n" +
+            "    } else {\n" +
+            "        vec2 uv = vec2(v_texCoords.x, fract(v_texCoords.y + u_scroll));\n" +
+            "        gl_FragColor = v_layer > 0.5 ? texture2D(u_grass, uv) : texture2D(u_road, uv);\n" +
+            "    }\n" +
+            "}\n";
+
+    /** Shared by every road; compiled the first time a road is drawn */
+    private static ShaderProgram shader;
+
+    private Mesh mesh;
+    private Texture roadTexture;
+    private Texture grassTexture;
+    private Texture exitTexture;
+
+    /** Offset of the tiled textures, in slices */
+    private float scroll;
+    /** y-coordinate of the centre of the exit lane */
+    private float exitY;
+
+    /**
+     * Build the mesh of a road.
+     *
+     * The road and grass quads span y from nearY to farY. Their v texture
+     * coordinate counts slices, so that the shader can tile it.
+     *
+     * @param road the road, for the dimensions of its parts
+     * @param nearY the y-coordinate of the edge of the road nearest the camera
+     * @param farY the y-coordinate of the far edge of the road
+     * @param exitTexture the exit texture, or null if the road has no exit lane
+     */
+    RoadMesh(Road road, float nearY, float farY, Texture roadTexture, Texture grassTexture, Texture exitTexture) {
+        this.roadTexture = roadTexture;
+        this.grassTexture = grassTexture;
+        this.exitTexture = exitTexture;
+
+        int quads = exitTexture == null ? 3 : 4;
+        float[] vertices = new float[quads * 4 * VERTEX_SIZE];
+        short[] indices = new short[quads * 6];
+        int q = 0;
+        q = addTiledQuad(vertices, indices, q, road.ROAD_X, road.ROAD_WIDTH, nearY, farY, road.ROAD_HEIGHT,
+                road.ROAD_HOVER_DISTANCE, ROAD_LAYER);
+        q = addTiledQuad(vertices, indices, q, road.LEFT_GRASS_X, road.GRASS_WIDTH, nearY, farY, road.GRASS_HEIGHT,
+                road.ROAD_HOVER_DISTANCE, GRASS_LAYER);
+        q = addTiledQuad(vertices, indices, q, road.RIGHT_GRASS_X, road.GRASS_WIDTH, nearY, farY, road.GRASS_HEIGHT,
+                road.ROAD_HOVER_DISTANCE, GRASS_LAYER);
+        if (exitTexture != null) {
+            // Centred on y = 0, and moved to the exit by the shader
+            addQuad(vertices, indices, q, road.EXIT_X, road.EXIT_WIDTH, -road.EXIT_HEIGHT / 2,
+                    road.EXIT_HEIGHT / 2, 0, 1, road.ROAD_HOVER_DISTANCE, EXIT_LAYER);
+        }
+
+        mesh = new Mesh(true, vertices.length / VERTEX_SIZE, indices.length,
+                VertexAttribute.Position(), VertexAttribute.TexCoords(0),
+                new VertexAttribute(Usage.Generic, 1, "a_layer"));
+        mesh.setVertices(vertices);
+        mesh.setIndices(indices);
+    }
+
+    /**
+     * Add a quad whose v texture coordinate repeats every tileHeight.
+     *
+     * With no scroll, the top of a slice centred at y = 0 has v = 0, and the
+     * scroll offset (the centre of any slice, in slices) moves the tiles
+     * from there.
+     */
+    private int addTiledQuad(float[] vertices, short[] indices, int q, float x, float width,
+                             float nearY, float farY, float tileHeight, float z, float layer) {
+        float v0 = -farY / tileHeight + 0.5f;
+        float v1 = -nearY / tileHeight + 0.5f;
+        return addQuad(vertices, indices, q, x, width, nearY, farY, v0, v1, z, layer);
+    }
+
+    /**
+     * Add a quad lying flat on the road at height z, with u running 0 to 1
+     * across it and v from vTop at farY to vBottom at nearY.
+     *
+     * @return the index of the next quad
+     */
+    private int addQuad(float[] vertices, short[] indices, int q, float x, float width,
+                        float nearY, float farY, float vTop, float vBottom, float z, float layer) {
+        float left = x - width / 2;
+        float right = x + width / 2;
+        int v = q * 4 * VERTEX_SIZE;
+        v = putVertex(vertices, v, left, farY, z, 0, vTop, layer);
+        v = putVertex(vertices, v, right, farY, z, 1, vTop, layer);
+        v = putVertex(vertices, v, right, nearY, z, 1, vBottom, layer);
+        putVertex(vertices, v, left, nearY, z, 0, vBottom, layer);
+
+        int i = q * 6;
+        short base = (short) (q * 4);
+        indices[i] = base;
+        indices[i+1] = (short) (base + 1);
+        indices[i+2] = (short) (base + 2);
+        indices[i+3] = (short) (base + 2);
+        indices[i+4] = (short) (base + 3);
+        indices[i+5] = base;
+        return q + 1;
+    }
+
+    private int putVertex(float[] vertices, int v, float x, float y, float z, float u, float tv, float layer) {
+        vertices[v] = x;
+        vertices[v+1] = y;
+        vertices[v+2] = z;
+        vertices[v+3] = u;
+        vertices[v+4] = tv;
+        vertices[v+5] = layer;
+        return v + VERTEX_SIZE;
+    }
+
+    /**
+     * Return true if the mesh was built with these textures.
+     */
+    boolean uses(Texture roadTexture, Texture grassTexture, Texture exitTexture) {
+        return this.roadTexture == roadTexture && this.grassTexture == grassTexture
+                && this.exitTexture == exitTexture;
+    }
+
+    /**
+     * Set the scroll of the road and the position of the exit.
+     *
+     * @param scroll offset of the tiled textures, in slices
+     * @param exitY y-coordinate of the centre of the exit lane
+     */
+    void setScroll(float scroll, float exitY) {
+        this.scroll = scroll;
+        this.exitY = exitY;
+    }
+
+    /**
+     * Draw the road in one call.
+     *
+     * @param projection the camera's combined projection and view matrix
+     */
+    public void render(Matrix4 projection) {
+        if (shader == null) {
+            shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+            if (!shader.isCompiled()) {
+                throw new RuntimeException("Could not compile road shader: " + shader.getLog());
+            }
+        }
+
+        if (exitTexture != null) {
+            exitTexture.bind(2);
+        }
+        grassTexture.bind(1);
+        roadTexture.bind(0);
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.begin();
+        shader.setUniformMatrix("u_projTrans", projection);
+        shader.setUniformi("u_road", 0);
+        shader.setUniformi("u_grass", 1);
+        shader.setUniformi("u_exit", 2);
+        shader.setUniformf("u_scroll", scroll);
+        shader.setUniformf("u_exitY", exitY);
+        mesh.render(shader, GL20.GL_TRIANGLES);
+        shader.end();
+    }
+
+    /**
+     * Free the mesh. The textures belong to the asset manager.
+     */
+    public void dispose() {
+        mesh.dispose();
+    }
+}
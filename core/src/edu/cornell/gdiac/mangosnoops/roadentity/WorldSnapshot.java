@@ -0,0 +1,147 @@
+package edu.cornell.gdiac.mangosnoops.roadentity;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.decals.Decal;
+import com.badlogic.gdx.math.Vector2;
+import edu.cornell.gdiac.mangosnoops.GameCanvas;
+
+/**
+ * What the world pass draws, copied out of the game at the end of a
+ * simulation step: the car, the road's scroll and the live enemies.
+ *
+ * The game keeps two snapshots: the step writes one while the other is
+ * drawn, and they are swapped once it is written. A snapshot holds values
+ * and the region of each enemy's animation frame, never the enemies
+ * themselves, and capturing it changes nothing in the game. Drawing uses
+ * decals of the snapshot's own, so the world pass never touches the
+ * simulation's objects.
+ *
+ * Each snapshot also keeps where the car and the road were before the step,
+ * so that a frame that falls between two steps is drawn between them.
+ *
+ * Only the world is captured. The HUD, including the children's moods, is
+ * drawn by its own objects after the steps of the frame have run, on the
+ * same thread.
+ */
+public class WorldSnapshot {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Car position before and after the step */
+    private Vector2 prevCar = new Vector2();
+    private Vector2 car = new Vector2();
+    /** Scroll of the road, and how far it moved in the step */
+    private float roadScroll;
+    private float stepScroll;
+    /** Position of the exit along the road */
+    private float exitY;
+    /** Road speed over normal speed, for the camera's field of view */
+    private float speedRatio;
+
+    /** Number of enemies */
+    private int size;
+    /** Columns, one entry per enemy */
+    private TextureRegion[] region;
+    private float[] x;
+    private float[] y;
+    private float[] hover;
+    private float[] width;
+    private float[] height;
+    /** Decals the enemies are drawn with, made as they are first needed */
+    private Decal[] decals;
+
+    /** Cache object for the interpolated camera position */
+    private Vector2 cameraPos = new Vector2();
+
+    public WorldSnapshot() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Copy the world at the end of a step.
+     *
+     * @param car the player's car
+     * @param prevCar the car's position before the step
+     * @param road the road
+     * @param store the live enemies
+     * @param moved whether the world moved in the step; if not, it is drawn
+     *              as it is rather than between steps
+     */
+    public void capture(Car car, Vector2 prevCar, Road road, EnemyStore store, boolean moved) {
+        this.car.set(car.getPosition());
+        this.prevCar.set(moved ? prevCar : car.getPosition());
+        roadScroll = road.getScroll();
+        stepScroll = moved ? road.getLastScroll() : 0;
+        exitY = road.getRoadExitY();
+        speedRatio = road.getSpeedRatio();
+
+        if (store.size() > region.length) {
+            allocate(store.size());
+        }
+        size = store.size();
+        for (int i = 0; i < size; i++) {
+            Enemy e = store.getView(i);
+            int frame = (int) store.animFrame[i];
+            // The animation bounds may have changed since the store wrapped it
+            if (store.animFrame[i] >= e.maxAnimFrame) {
+                frame = e.minAnimFrame;
+            }
+            region[i] = e.getFrameRegion(frame);
+            x[i] = store.x[i];
+            y[i] = store.y[i];
+            hover[i] = store.hover[i];
+            width[i] = store.width[i];
+            height[i] = store.height[i];
+        }
+    }
+
+    /**
+     * Draw the road and the enemies, and place the camera behind the car.
+     *
+     * The world is drawn the part of the step given by alpha from where it
+     * was before the step. Must be called before drawWorld().
+     *
+     * @param canvas the canvas to draw on
+     * @param road the road, whose mesh is drawn
+     * @param drawDistance how far ahead road objects are drawn
+     * @param alpha how far the frame is from the step's start to its end, from 0 to 1
+     */
+    public void draw(GameCanvas canvas, Road road, float drawDistance, float alpha) {
+        canvas.setCameraXY(cameraPos.set(prevCar).lerp(car, alpha));
+        // Everything on the road moves at its speed, so one offset places all of it
+        canvas.setWorldLag((1 - alpha) * stepScroll);
+        canvas.setCameraFOV(speedRatio);
+        canvas.setDrawDistance(drawDistance);
+
+        road.draw(canvas, roadScroll, exitY);
+        for (int i = 0; i < size; i++) {
+            if (region[i] == null) {
+                continue;
+            }
+            if (decals[i] == null) {
+                decals[i] = GameCanvas.newRoadDecal(region[i], width[i], height[i], 90);
+            } else {
+                decals[i].setTextureRegion(region[i]);
+                decals[i].setDimensions(width[i], height[i]);
+            }
+            canvas.drawRoadObject(decals[i], x[i], y[i], hover[i]);
+        }
+    }
+
+    /**
+     * Grow the columns to the given capacity.
+     */
+    private void allocate(int capacity) {
+        region = new TextureRegion[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        hover = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        // Decals already made are kept
+        Decal[] made = decals;
+        decals = new Decal[capacity];
+        if (made != null) {
+            System.arraycopy(made, 0, decals, 0, made.length);
+        }
+    }
+}
@@ -44,12 +44,19 @@ public class FilmStrip extends TextureRegion {
 	/** The height of a single frame; computed from row count */
 	private int rheight;
 	
+	/** The top-left corner of the first frame in the texture */
+	private int originX;
+	private int originY;
+	
 	/** The number of frames in this filmstrip */
 	private int size;
 	
 	/** The active animation frame */
 	private int frame;
 	
+	/** A fixed region for each frame, made when it is first asked for */
+	private TextureRegion[] frames;
+	
 	/**
 	 * Creates a new filmstrip from the given texture.
 	 * 
@@ -86,6 +93,33 @@ public class FilmStrip extends TextureRegion {
 		setFrame(0);
 	}
 	
+	/**
+	 * Creates a new filmstrip from the given region of a texture.
+	 * 
+	 * This is for filmstrips packed into a texture atlas.  The frames are 
+	 * laid out within the region exactly as they would be in a texture of 
+	 * their own.  The region must not be rotated.
+	 * 
+	 * @param region The region of the texture to use
+	 * @param rows The number of rows in the filmstrip
+	 * @param cols The number of columns in the filmstrip
+	 * @param size The number of frames in the filmstrip
+	 */
+	public FilmStrip(TextureRegion region, int rows, int cols, int size) {
+		super(region);
+		if (size > rows*cols) {
+			Gdx.app.error("FilmStrip", "Invalid strip size", new IllegalArgumentException());
+			return;
+		}
+		this.cols = cols;
+		this.size = size;
+		originX = region.getRegionX();
+		originY = region.getRegionY();
+		rwidth  = region.getRegionWidth()/cols;
+		rheight = region.getRegionHeight()/rows;
+		setFrame(0);
+	}
+	
 	/**
 	 * Returns the number of frames in this filmstrip.
 	 * 
@@ -118,9 +152,35 @@ public class FilmStrip extends TextureRegion {
 			return;
 		}
 		this.frame = frame;
-		int x = (frame % cols)*rwidth;
-		int y = (frame / cols)*rheight;
+		int x = originX + (frame % cols)*rwidth;
+		int y = originY + (frame / cols)*rheight;
 		setRegion(x,y,rwidth,rheight);
 	}
 
+	/**
+	 * Returns a region showing the given frame.
+	 * 
+	 * The filmstrip itself changes to show whichever frame is active, but the
+	 * region returned here always shows the same frame, so it can be kept and
+	 * drawn later.
+	 * 
+	 * @param frame the index of the frame
+	 * 
+	 * @return a region showing the given frame, or null if the index is invalid.
+	 */
+	public TextureRegion getFrameRegion(int frame) {
+		if (frame < 0 || frame >= size) {
+			Gdx.app.error("FilmStrip", "Invalid animation frame; got " + frame + " when size was " + size, new IllegalArgumentException());
+			return null;
+		}
+		if (frames == null) {
+			frames = new TextureRegion[size];
+		}
+		if (frames[frame] == null) {
+			frames[frame] = new TextureRegion(getTexture(), originX + (frame % cols)*rwidth,
+											  originY + (frame / cols)*rheight, rwidth, rheight);
+		}
+		return frames[frame];
+	}
+
 }
\ No newline at end of file
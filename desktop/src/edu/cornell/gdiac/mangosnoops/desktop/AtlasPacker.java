@@ -0,0 +1,68 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+import edu.cornell.gdiac.mangosnoops.AtlasLookup;
+import edu.cornell.gdiac.mangosnoops.GameplayController;
+import edu.cornell.gdiac.mangosnoops.Menus.LevelMenuMode;
+import edu.cornell.gdiac.mangosnoops.RestStopMode;
+import edu.cornell.gdiac.mangosnoops.TutorialController;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Build step that packs each screen's manifest into a texture atlas
+ * (gradle desktop:packAtlases, run from the assets directory).
+ *
+ * The regions are named after their image files so that AtlasLookup can find
+ * them from the same file names the game loaded them by before.
+ */
+public class AtlasPacker {
+    /** Largest atlas page; big enough for every image in the manifests */
+    private static final int MAX_PAGE_SIZE = 2048;
+
+    public static void main(String[] args) throws IOException {
+        File outDir = new File(AtlasLookup.ATLAS_DIR);
+        pack(outDir, GameplayController.ROAD_ATLAS, GameplayController.ROAD_ATLAS_FILES);
+        pack(outDir, GameplayController.HUD_ATLAS, GameplayController.HUD_ATLAS_FILES);
+        pack(outDir, GameplayController.DASH_ATLAS, GameplayController.DASH_ATLAS_FILES);
+        pack(outDir, TutorialController.TUTORIAL_ATLAS, TutorialController.TUTORIAL_ATLAS_FILES);
+        pack(outDir, LevelMenuMode.ATLAS, LevelMenuMode.ATLAS_FILES);
+        pack(outDir, RestStopMode.ATLAS, RestStopMode.ATLAS_FILES);
+    }
+
+    /**
+     * Pack the images of one manifest into an atlas.
+     *
+     * @param outDir where to write the atlas and its pages
+     * @param atlas the atlas name
+     * @param files the images to pack, relative to the assets
+     */
+    private static void pack(File outDir, String atlas, String[] files) throws IOException {
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = MAX_PAGE_SIZE;
+        settings.maxHeight = MAX_PAGE_SIZE;
+        // FilmStrip frames assume an unrotated region
+        settings.rotation = false;
+        settings.paddingX = 2;
+        settings.paddingY = 2;
+        settings.edgePadding = true;
+        settings.duplicatePadding = true;
+        settings.filterMin = Texture.TextureFilter.Linear;
+        settings.filterMag = Texture.TextureFilter.Linear;
+
+        TexturePacker packer = new TexturePacker(settings);
+        for (String file : files) {
+            BufferedImage image = ImageIO.read(new File(file));
+            if (image == null) {
+                throw new IOException("Could not read " + file);
+            }
+            packer.addImage(image, AtlasLookup.regionName(file));
+        }
+        packer.pack(outDir, atlas);
+        System.out.println("Packed " + files.length + " images into " + AtlasLookup.atlasFile(atlas));
+    }
+}
@@ -0,0 +1,264 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import edu.cornell.gdiac.mangosnoops.hudentity.Child;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Development tool for tuning levels: plays every level many times with a
+ * DriverPolicy, using every core, and reports how the runs went (gradle
+ * desktop:simulateBatch, optionally with -Ppolicy=dodge, -Pruns=1000 and
+ * -Plevels="level1.xlsx level2.xlsx").
+ *
+ * For each level this prints how often it was completed, the spread of the
+ * damage the car took, how far along the road the car was destroyed, and how
+ * many runs had an upset child at each point of the level.
+ *
+ * The runs of a level are split into batches, and each batch is played by
+ * its own worker JVM, as many at a time as there are cores. The game keeps
+ * state in statics (the input, the HUD shake, the random numbers), so runs
+ * cannot share a JVM at the same time. A worker plays its runs one after
+ * another with a HeadlessGame, which loads the assets once for all of them.
+ * A run depends only on its level and its run number, so the report is the
+ * same however the runs are split.
+ */
+public class BatchSimulator {
+    /** First argument of a worker JVM */
+    private static final String WORKER = "--worker";
+    /** Start of each line a worker prints for a run */
+    private static final String RUN_PREFIX = "RUN\t";
+    /** Number of runs each worker JVM plays */
+    private static final int BATCH_SIZE = 50;
+    /** Number of buckets progress is counted in */
+    private static final int PROGRESS_BUCKETS = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(WORKER)) {
+            HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+            new HeadlessApplication(new Worker(args[1], args[2], Integer.parseInt(args[3]),
+                    Integer.parseInt(args[4])), config);
+            return;
+        }
+
+        String policy = "dodge";
+        int runs = 100;
+        int workers = Runtime.getRuntime().availableProcessors();
+        Array<String> levels = new Array<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--policy")) {
+                policy = args[++i];
+            } else if (args[i].equals("--runs")) {
+                runs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--workers")) {
+                workers = Integer.parseInt(args[++i]);
+            } else {
+                levels.add(args[i]);
+            }
+        }
+        // Fail now rather than in every worker
+        DriverPolicy.forName(policy);
+        if (levels.size == 0) {
+            levels.addAll(LevelSimulator.findLevels());
+        }
+
+        System.out.println(String.format("Playing %d levels %d times each with the %s policy, %d at a time",
+                levels.size, runs, policy, workers));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<List<HeadlessRun>>> batches = new ArrayList<Future<List<HeadlessRun>>>();
+        long start = System.nanoTime();
+        for (String level : levels) {
+            for (int first = 0; first < runs; first += BATCH_SIZE) {
+                batches.add(pool.submit(new Batch(policy, level, first, Math.min(BATCH_SIZE, runs - first))));
+            }
+        }
+
+        long steps = 0;
+        try {
+            int b = 0;
+            for (String level : levels) {
+                List<HeadlessRun> results = new ArrayList<HeadlessRun>();
+                for (int first = 0; first < runs; first += BATCH_SIZE) {
+                    results.addAll(batches.get(b++).get());
+                }
+                for (HeadlessRun r : results) {
+                    steps += r.steps;
+                }
+                report(level, results);
+            }
+        } catch (ExecutionException e) {
+            System.out.println("A worker failed: " + e.getCause().getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d runs in %.1f s, %.0f steps/s", levels.size * runs,
+                seconds, steps / seconds));
+    }
+
+    /**
+     * Print what the runs of a level add up to.
+     */
+    private static void report(String level, List<HeadlessRun> runs) {
+        int n = runs.size();
+        int[] results = new int[HeadlessRun.Result.values().length];
+        IntArray damage = new IntArray(n);
+        int[] failures = new int[PROGRESS_BUCKETS];
+        int samples = 0;
+        for (HeadlessRun r : runs) {
+            results[r.result.ordinal()]++;
+            damage.add(r.damage);
+            if (r.result == HeadlessRun.Result.DESTROYED) {
+                failures[Math.min(PROGRESS_BUCKETS - 1, (int) (r.progress * PROGRESS_BUCKETS))]++;
+            }
+            samples = Math.max(samples, r.nedMoods.size);
+        }
+        damage.sort();
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += damage.get(i);
+        }
+
+        System.out.println();
+        System.out.println(level);
+        StringBuilder line = new StringBuilder("  ends:");
+        for (HeadlessRun.Result result : HeadlessRun.Result.values()) {
+            line.append(String.format("  %s %.1f%%", result.toString().toLowerCase().replace('_', ' '),
+                    100f * results[result.ordinal()] / n));
+        }
+        System.out.println(line);
+        System.out.println(String.format("  damage:  mean %.1f  p10 %d  p50 %d  p90 %d  max %d",
+                (float) total / n, percentile(damage, 10), percentile(damage, 50),
+                percentile(damage, 90), damage.get(n - 1)));
+
+        line = new StringBuilder("  destroyed at:");
+        for (int b = 0; b < PROGRESS_BUCKETS; b++) {
+            line.append(String.format("  %d%% %d", b * 100 / PROGRESS_BUCKETS, failures[b]));
+        }
+        System.out.println(line);
+
+        // Share of the runs still going at each sample with Ned or Nosh sad or worse
+        line = new StringBuilder("  upset child:");
+        for (int s = 0; s < samples; s++) {
+            int going = 0;
+            int upset = 0;
+            for (HeadlessRun r : runs) {
+                if (s < r.nedMoods.size) {
+                    going++;
+                    if (isUpset(r.getMood(true, s)) || isUpset(r.getMood(false, s))) {
+                        upset++;
+                    }
+                }
+            }
+            line.append(String.format("  %.0fs %d%%", (s + 1) * HeadlessRun.MOOD_SAMPLE_SECONDS,
+                    100 * upset / going));
+        }
+        System.out.println(line);
+    }
+
+    private static boolean isUpset(Child.Mood mood) {
+        return mood == Child.Mood.SAD || mood == Child.Mood.CRITICAL;
+    }
+
+    /**
+     * Return the given percentile of sorted values.
+     */
+    private static int percentile(IntArray sorted, int p) {
+        return sorted.get(Math.min(sorted.size - 1, sorted.size * p / 100));
+    }
+
+    /**
+     * Plays some runs of a level in a worker JVM and collects what it prints.
+     */
+    private static class Batch implements Callable<List<HeadlessRun>> {
+        private String policy;
+        private String level;
+        private int first;
+        private int count;
+
+        Batch(String policy, String level, int first, int count) {
+            this.policy = policy;
+            this.level = level;
+            this.first = first;
+            this.count = count;
+        }
+
+        public List<HeadlessRun> call() throws IOException, InterruptedException {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    BatchSimulator.class.getName(), WORKER, policy, level,
+                    Integer.toString(first), Integer.toString(count));
+            builder.redirectErrorStream(true);
+            Process process = builder.start();
+
+            // The game prints as it goes; keep the runs, and the last line in case it fails
+            List<HeadlessRun> runs = new ArrayList<HeadlessRun>();
+            String last = "";
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(RUN_PREFIX)) {
+                        runs.add(HeadlessRun.parse(line.substring(RUN_PREFIX.length())));
+                    } else if (line.length() > 0) {
+                        last = line;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            process.waitFor();
+
+            if (runs.size() != count) {
+                throw new IOException(String.format("%s runs %d to %d stopped after %d: %s",
+                        level, first, first + count - 1, runs.size(), last));
+            }
+            return runs;
+        }
+    }
+
+    /**
+     * What a worker JVM runs: plays its runs and prints each one as it ends.
+     */
+    private static class Worker extends ApplicationAdapter {
+        private String policy;
+        private String level;
+        private int first;
+        private int count;
+
+        Worker(String policy, String level, int first, int count) {
+            this.policy = policy;
+            this.level = level;
+            this.first = first;
+            this.count = count;
+        }
+
+        public void create() {
+            ScriptedInput input = new ScriptedInput();
+            HeadlessBackend.install(input);
+            HeadlessGame game = new HeadlessGame(input);
+            DriverPolicy driver = DriverPolicy.forName(policy);
+            for (int run = first; run < first + count; run++) {
+                System.out.println(RUN_PREFIX + game.play(level, driver, run).format());
+            }
+            game.dispose();
+            Gdx.app.exit();
+        }
+    }
+}
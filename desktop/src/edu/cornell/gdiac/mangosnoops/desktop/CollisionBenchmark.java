@@ -0,0 +1,179 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import edu.cornell.gdiac.mangosnoops.CollisionController;
+import edu.cornell.gdiac.mangosnoops.GameplayController;
+import edu.cornell.gdiac.mangosnoops.roadentity.Car;
+import edu.cornell.gdiac.mangosnoops.roadentity.Enemy;
+import edu.cornell.gdiac.mangosnoops.roadentity.EnemyStore;
+import edu.cornell.gdiac.mangosnoops.roadentity.Gnome;
+import edu.cornell.gdiac.mangosnoops.roadentity.Road;
+
+import java.util.Random;
+
+/**
+ * Development tool that times the car collision pass for growing numbers of
+ * live enemies (gradle desktop:benchmarkCollisions).
+ *
+ * Gnomes are spawned and retired the way GameplayController does. The
+ * "grid" column runs CollisionController, which only looks at the cells of
+ * the road the car passed through; the "scan" column runs the loop it used
+ * to, which swept every live enemy each frame and then filled lane buckets.
+ * Each frame also spawns, updates and retires gnomes, so the upkeep of the
+ * grid as they come and go is counted.
+ *
+ * No gnome ever hits the car, so no sounds or HUD are needed, but those next
+ * to the car's lane still reach the narrow phase.
+ */
+public class CollisionBenchmark {
+    /** Distances along the road between consecutive gnomes to try */
+    private static final float[] SPACINGS = { 0.4f, 0.1f, 0.025f, 0.00625f };
+    /** Length of road covered with gnomes, more than the benchmark drives */
+    private static final float LEVEL_LENGTH = 200;
+    /** x-coordinates the gnomes are placed at; all miss a car at x = 0 */
+    private static final float[] LANE_XS = { -0.2f, -0.1f, 0.1f, 0.2f };
+    private static final int NUM_LANES = 3;
+    private static final float SPEED = 1.4f;
+    private static final float DELTA = 1 / 60f;
+    private static final int WARMUP_FRAMES = 2000;
+    private static final int FRAMES = 5000;
+
+    /** Constants of the old loop, as in CollisionController */
+    private static final float HIT_RANGE = 0.09f;
+    private static final float CAR_YRANGE_END = 0f;
+    private static final float CAR_YRANGE_START = -0.15f;
+
+    public static void main(String[] args) {
+        System.out.println("live enemies    grid (ns/frame)    scan (ns/frame)");
+        for (float spacing : SPACINGS) {
+            long grid = run(spacing, true);
+            long scan = run(spacing, false);
+            int live = (int) ((GameplayController.spawnDistance(GameplayController.Region.SUBURBS)
+                    - GameplayController.RETIRE_Y) / spacing);
+            System.out.println(String.format("%-15d %-18d %d", live, grid, scan));
+        }
+    }
+
+    /**
+     * Simulate a level with gnomes at the given spacing and return the mean
+     * time per frame.
+     *
+     * @param spacing distance between consecutive gnomes
+     * @param grid whether to use CollisionController or the old loop
+     */
+    private static long run(float spacing, boolean grid) {
+        int n = (int) (LEVEL_LENGTH / spacing);
+        Random rand = new Random(n);
+        Array<Enemy> queue = new Array<Enemy>(n);
+        for (int i = 0; i < n; i++) {
+            queue.add(new Gnome(LANE_XS[rand.nextInt(LANE_XS.length)], 1 + i * spacing));
+        }
+
+        Car car = new Car();
+        CollisionController collisions = new CollisionController(0, 0, NUM_LANES, null);
+        OldLoop scan = new OldLoop();
+        EnemyStore store = new EnemyStore();
+        if (grid) {
+            store.setListener(collisions);
+        }
+        Array<Enemy> live = new Array<Enemy>();
+        int nextSpawn = 0;
+        float travelled = 0;
+
+        float spawnDistance = GameplayController.spawnDistance(GameplayController.Region.SUBURBS);
+        long start = 0;
+        for (int frame = 0; frame < WARMUP_FRAMES + FRAMES; frame++) {
+            if (frame == WARMUP_FRAMES) {
+                start = System.nanoTime();
+            }
+            while (nextSpawn < n && queue.get(nextSpawn).getY() - travelled < spawnDistance) {
+                Enemy e = queue.get(nextSpawn++);
+                e.setY(e.getY() - travelled);
+                live.add(e);
+            }
+            store.sync(live);
+            store.update(DELTA, SPEED);
+            travelled += SPEED * DELTA;
+            if (grid) {
+                collisions.processCollisions(store, car, null);
+            } else {
+                scan.processCollisions(store, car);
+            }
+
+            for (int i = live.size - 1; i >= 0; i--) {
+                Enemy e = live.get(i);
+                if (e.getY() < GameplayController.RETIRE_Y) {
+                    store.remove(e);
+                    live.removeIndex(i);
+                }
+            }
+        }
+        return (System.nanoTime() - start) / FRAMES;
+    }
+
+    /**
+     * The collision pass before the grid: every frame, each live enemy that
+     * passed the car's y-range goes into the lane buckets its hit span
+     * overlaps, then the enemies in the car's lanes are tested.
+     */
+    private static class OldLoop {
+        private IntArray[] lanes = new IntArray[NUM_LANES];
+        private float prevCarX = Float.NaN;
+        /** Number of narrow phase hits, so the tests are not optimized away */
+        int hits;
+
+        OldLoop() {
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new IntArray();
+            }
+        }
+
+        void processCollisions(EnemyStore enemies, Car car) {
+            for (IntArray lane : lanes) {
+                lane.clear();
+            }
+            float carX = car.getX();
+            float carMinX = Float.isNaN(prevCarX) ? carX : Math.min(prevCarX, carX);
+            float carMaxX = Float.isNaN(prevCarX) ? carX : Math.max(prevCarX, carX);
+            prevCarX = carX;
+
+            for (int i = 0; i < enemies.size(); i++) {
+                if (!sweptInYRange(enemies.getY(i), enemies.getPrevY(i)) || enemies.isFlyingAway(i)) {
+                    continue;
+                }
+                float x = enemies.getX(i);
+                float right = x + HIT_RANGE;
+                Enemy r = enemies.getView(i).getRightEnemy();
+                if (r != null && r.getX() > right) {
+                    right = r.getX();
+                }
+                int last = laneOf(right);
+                for (int l = laneOf(x - HIT_RANGE); l <= last; l++) {
+                    lanes[l].add(i);
+                }
+            }
+
+            int last = laneOf(carMaxX);
+            for (int l = laneOf(carMinX); l <= last; l++) {
+                IntArray lane = lanes[l];
+                for (int j = 0; j < lane.size; j++) {
+                    int i = lane.get(j);
+                    float x = enemies.getX(i);
+                    if (!enemies.isDestroyed(i) && x > carMinX - HIT_RANGE && x < carMaxX + HIT_RANGE) {
+                        hits++;
+                    }
+                }
+            }
+        }
+
+        private boolean sweptInYRange(float y, float prevY) {
+            return Math.min(y, prevY) < CAR_YRANGE_END && Math.max(y, prevY) > CAR_YRANGE_START;
+        }
+
+        private int laneOf(float x) {
+            int l = (int) Math.floor((x + Road.LANE_WIDTH) / Road.LANE_WIDTH + 0.5f);
+            return Math.min(Math.max(l, 0), lanes.length - 1);
+        }
+    }
+}
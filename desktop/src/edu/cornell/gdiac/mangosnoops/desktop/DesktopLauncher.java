@@ -30,6 +30,9 @@ public class DesktopLauncher {
 	 * 
 	 * This method simply exists to start a new LwjglApplication.  For desktop games,
 	 * LibGDX is built on top of LWJGL (this is not the case for Android).
+	 *
+	 * With the arguments --record DIR, the input of every level played is
+	 * recorded to DIR, to be replayed with desktop:replayInput.
 	 * 
 	 * @param arg Command line arguments
 	 */
@@ -41,6 +44,10 @@ public class DesktopLauncher {
 		config.height = 900;
 		config.fullscreen = false;
 		config.resizable = false;
-		new LwjglApplication(new GDXRoot(), config);
+		String recordDir = null;
+		if (arg.length == 2 && arg[0].equals("--record")) {
+			recordDir = arg[1];
+		}
+		new LwjglApplication(new GDXRoot(recordDir), config);
 	}
 }
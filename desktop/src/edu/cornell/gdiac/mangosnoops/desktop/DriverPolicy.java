@@ -0,0 +1,273 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.Vector2;
+import edu.cornell.gdiac.mangosnoops.GameplayController;
+import edu.cornell.gdiac.mangosnoops.Image;
+import edu.cornell.gdiac.mangosnoops.RoadObject;
+import edu.cornell.gdiac.mangosnoops.roadentity.EnemyStore;
+import edu.cornell.gdiac.mangosnoops.roadentity.Flamingo;
+import edu.cornell.gdiac.mangosnoops.roadentity.Road;
+
+import java.util.Random;
+
+/**
+ * How a headless run plays a level: before each step of play, a policy sets
+ * the keys and mouse of a ScriptedInput from what it sees of the game.
+ *
+ * Policies steer with the keys, and work the horn, visor and vroom stick with
+ * the mouse as a player does: move to the control, press, drag if need be,
+ * and let go. Any randomness is taken from the Random they are given, so a
+ * run plays the same way every time it is given the same seed.
+ */
+public abstract class DriverPolicy {
+    /** Pixels between the points tried when looking for a control */
+    private static final int SCAN_STEP = 4;
+    /** Pulling the vroom stick 35 pixels engages it; drag it 10 a step for 4 steps */
+    private static final int VROOM_DRAG = 10;
+    private static final int VROOM_STEPS = 4;
+
+    /** Where the horn, visor and vroom stick are on screen, or null if they were not found */
+    protected Vector2 horn;
+    protected Vector2 visor;
+    protected Vector2 vroom;
+    private boolean found;
+
+    /** Where the gesture under way presses, how far down it drags each step
+     *  and for how many steps, and how far along it is; -1 if there is none */
+    private Vector2 pressAt = new Vector2();
+    private int drag;
+    private int dragSteps;
+    private int gestureStep = -1;
+
+    /**
+     * Return the policy with the given name.
+     *
+     * @param name idle, random or dodge
+     */
+    public static DriverPolicy forName(String name) {
+        if (name.equals("idle")) {
+            return new IdleDriver();
+        } else if (name.equals("random")) {
+            return new RandomDriver();
+        } else if (name.equals("dodge")) {
+            return new DodgeDriver();
+        }
+        throw new IllegalArgumentException("Unknown driver policy: " + name);
+    }
+
+    /**
+     * Forget the last run. Called before each run.
+     */
+    public void start() {
+        found = false;
+        gestureStep = -1;
+    }
+
+    /**
+     * Set the input for the next step of a level in play.
+     */
+    public void drive(GameplayController game, ScriptedInput input, Random rand) {
+        if (!found) {
+            // The HUD is laid out once the level has started
+            horn = find(game, game.getHorn());
+            visor = find(game, game.getVisor());
+            vroom = find(game, game.getVroomStick());
+            found = true;
+        }
+        choose(game, input, rand);
+        stepGesture(input);
+    }
+
+    /**
+     * Decide what to do this step: steer(), click() and pullVroom().
+     */
+    protected abstract void choose(GameplayController game, ScriptedInput input, Random rand);
+
+    /**
+     * Hold the key to steer left (-1), right (1), or neither (0).
+     */
+    protected static void steer(ScriptedInput input, int direction) {
+        if (direction < 0) {
+            input.releaseKey(Input.Keys.D);
+            input.pressKey(Input.Keys.A);
+        } else if (direction > 0) {
+            input.releaseKey(Input.Keys.A);
+            input.pressKey(Input.Keys.D);
+        } else {
+            input.releaseKey(Input.Keys.A);
+            input.releaseKey(Input.Keys.D);
+        }
+    }
+
+    /**
+     * Return true if a mouse gesture is under way.
+     */
+    protected boolean isBusy() {
+        return gestureStep >= 0;
+    }
+
+    /**
+     * Click on a control, unless it was not found or the mouse is busy.
+     */
+    protected void click(Vector2 control) {
+        startGesture(control, 0, 0);
+    }
+
+    /**
+     * Pull the vroom stick down until it engages, unless the mouse is busy.
+     */
+    protected void pullVroom() {
+        startGesture(vroom, VROOM_DRAG, VROOM_STEPS);
+    }
+
+    private void startGesture(Vector2 at, int drag, int dragSteps) {
+        if (at == null || isBusy()) {
+            return;
+        }
+        pressAt.set(at);
+        this.drag = drag;
+        this.dragSteps = dragSteps;
+        gestureStep = 0;
+    }
+
+    /**
+     * Move the mouse for this step of the gesture under way, if any.
+     */
+    private void stepGesture(ScriptedInput input) {
+        if (gestureStep < 0) {
+            input.setButtonDown(false);
+            return;
+        }
+        if (gestureStep == 0) {
+            // Get there with the button up, so the move is not also a drag
+            input.setButtonDown(false);
+            input.moveMouse((int) pressAt.x, (int) pressAt.y);
+        } else if (gestureStep == 1) {
+            input.setButtonDown(true);
+        } else if (gestureStep <= dragSteps + 1) {
+            input.moveMouse(input.getX(), input.getY() + drag);
+        } else {
+            input.setButtonDown(false);
+            gestureStep = -1;
+            return;
+        }
+        gestureStep++;
+    }
+
+    /**
+     * Return the middle of the part of the screen where a click reaches the
+     * given control, in input coordinates, or null if there is none.
+     */
+    private static Vector2 find(GameplayController game, Image control) {
+        Vector2 p = new Vector2();
+        float sumX = 0;
+        float sumY = 0;
+        int hits = 0;
+        for (int y = SCAN_STEP / 2; y < HeadlessBackend.HEIGHT; y += SCAN_STEP) {
+            for (int x = SCAN_STEP / 2; x < HeadlessBackend.WIDTH; x += SCAN_STEP) {
+                boolean hit;
+                if (control == game.getVroomStick()) {
+                    // The stick flips y itself, and only gets clicks that miss the wheel
+                    hit = !game.getWheel().inArea(p.set(x, y))
+                            && control.inArea(p.set(x, HeadlessBackend.HEIGHT - y));
+                } else {
+                    hit = control.inArea(p.set(x, y));
+                }
+                if (hit) {
+                    sumX += x;
+                    sumY += y;
+                    hits++;
+                }
+            }
+        }
+        return hits == 0 ? null : new Vector2(sumX / hits, sumY / hits);
+    }
+
+    /**
+     * Keeps its hands off: the car goes straight and takes whatever hits it.
+     */
+    private static class IdleDriver extends DriverPolicy {
+        protected void choose(GameplayController game, ScriptedInput input, Random rand) {
+        }
+    }
+
+    /**
+     * Weaves about at random, and now and then honks, flips the visor or
+     * pulls the vroom stick.
+     */
+    private static class RandomDriver extends DriverPolicy {
+        /** Chance each step of changing direction, honking, flipping the visor and vrooming */
+        private static final float STEER_CHANCE = 1 / 30f;
+        private static final float HONK_CHANCE = 1 / 600f;
+        private static final float VISOR_CHANCE = 1 / 900f;
+        private static final float VROOM_CHANCE = 1 / 900f;
+
+        protected void choose(GameplayController game, ScriptedInput input, Random rand) {
+            if (rand.nextFloat() < STEER_CHANCE) {
+                steer(input, rand.nextInt(3) - 1);
+            }
+            float roll = rand.nextFloat();
+            if (roll < HONK_CHANCE) {
+                click(horn);
+            } else if (roll < HONK_CHANCE + VISOR_CHANCE) {
+                click(visor);
+            } else if (roll < HONK_CHANCE + VISOR_CHANCE + VROOM_CHANCE) {
+                pullVroom();
+            }
+        }
+    }
+
+    /**
+     * Plays as a careful player would: steers around the nearest enemy ahead,
+     * honks flamingos away, vrooms off the gnome in the back seat, and keeps
+     * the visor down while the sun shines.
+     */
+    private static class DodgeDriver extends DriverPolicy {
+        /** How far ahead, and how close to the car sideways, an enemy is dodged */
+        private static final float LOOK_AHEAD = 2.5f;
+        private static final float DODGE_X = 0.15f;
+
+        protected void choose(GameplayController game, ScriptedInput input, Random rand) {
+            EnemyStore enemies = game.getEnemyStore();
+            float carX = game.getCar().getX();
+            int nearest = -1;
+            boolean flamingoNear = false;
+            for (int i = 0; i < enemies.size(); i++) {
+                float y = enemies.getY(i);
+                if (enemies.isDestroyed(i) || enemies.isFlyingAway(i) || y < 0) {
+                    continue;
+                }
+                if (enemies.getType(i) == RoadObject.ObjectType.FLAMINGO
+                        && y < ((Flamingo) enemies.getView(i)).getFlyAwayDistance()) {
+                    flamingoNear = true;
+                }
+                if (y < LOOK_AHEAD && Math.abs(enemies.getX(i) - carX) < DODGE_X
+                        && (nearest < 0 || y < enemies.getY(nearest))) {
+                    nearest = i;
+                }
+            }
+
+            if (nearest < 0) {
+                steer(input, 0);
+            } else {
+                // Go to the far side of it, unless that side is against the edge of the road
+                Road road = game.getRoad();
+                int away = enemies.getX(nearest) > carX ? -1 : 1;
+                float dodgeX = carX + away * DODGE_X;
+                if (dodgeX < road.getLeftEdge() || dodgeX > road.getRightEdge()) {
+                    away = -away;
+                }
+                steer(input, away);
+            }
+
+            if (flamingoNear && !game.getHorn().isHonking()) {
+                click(horn);
+            } else if (game.getRearviewEnemy().exists() && game.getRoad().canCarVroom()) {
+                pullVroom();
+            } else if (game.sunShine != game.getVisor().isOpen()) {
+                click(visor);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the game needs from libGDX to run inside a HeadlessApplication, with
+ * no window or GL context.
+ *
+ * The headless backend provides files, and sounds and input that do nothing,
+ * but no GL at all. The game makes textures, fonts and shaders when it
+ * loads, so install() puts in a GL that accepts every call and draws
+ * nothing. Images are still decoded, so their sizes are right, but nothing
+ * is ever uploaded. The screen is given the size of the desktop window, so
+ * the HUD is laid out as in the game, and can be resized with setSize() to
+ * replay a game played at another size.
+ */
+public class HeadlessBackend {
+    /** Size of the pretend screen, as in DesktopLauncher */
+    public static final int WIDTH = 1600;
+    public static final int HEIGHT = 900;
+
+    /** Size of the pretend screen now */
+    private static int width = WIDTH;
+    private static int height = HEIGHT;
+
+    /**
+     * Set up the GL, screen and input. Must be called from the application's
+     * create(), after the backend has set up its own.
+     *
+     * @param input the input the game reads, e.g. a ScriptedInput
+     */
+    public static void install(Input input) {
+        GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(),
+                new Class<?>[] { GL20.class }, new StubGL());
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        Gdx.graphics = new MockGraphics() {
+            public int getWidth() { return width; }
+            public int getHeight() { return height; }
+            public int getBackBufferWidth() { return width; }
+            public int getBackBufferHeight() { return height; }
+        };
+        Gdx.input = input;
+    }
+
+    /**
+     * Change the size of the pretend screen. Whatever is laid out for the
+     * screen must be resized after, as the game does when the window is.
+     *
+     * @return true if the size changed
+     */
+    public static boolean setSize(int newWidth, int newHeight) {
+        if (newWidth == width && newHeight == height) {
+            return false;
+        }
+        width = newWidth;
+        height = newHeight;
+        return true;
+    }
+
+    /**
+     * Return an asset manager that loads fonts as GDXRoot's does.
+     */
+    public static AssetManager newAssetManager() {
+        AssetManager manager = new AssetManager();
+        FileHandleResolver resolver = new InternalFileHandleResolver();
+        manager.setLoader(FreeTypeFontGenerator.class, new FreeTypeFontGeneratorLoader(resolver));
+        manager.setLoader(BitmapFont.class, ".ttf", new FreetypeFontLoader(resolver));
+        return manager;
+    }
+
+    /**
+     * A GL that does nothing, but answers the few queries libGDX checks so
+     * that shaders compile, frame buffers are complete, and objects get
+     * handles.
+     */
+    private static class StubGL implements InvocationHandler {
+        /** The next texture, buffer, shader or program handle */
+        private final AtomicInteger nextHandle = new AtomicInteger(1);
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+            String name = method.getName();
+            Class<?> type = method.getReturnType();
+
+            if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+                int pname = (Integer) args[1];
+                if (pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS) {
+                    ((IntBuffer) args[2]).put(0, GL20.GL_TRUE);
+                }
+                return null;
+            }
+            if (name.equals("glGetIntegerv") && (Integer) args[0] == GL20.GL_MAX_TEXTURE_SIZE) {
+                ((IntBuffer) args[1]).put(0, 4096);
+                return null;
+            }
+            if (name.equals("glCheckFramebufferStatus")) {
+                return GL20.GL_FRAMEBUFFER_COMPLETE;
+            }
+            if (type == int.class && (name.startsWith("glGen") || name.startsWith("glCreate"))) {
+                // libGDX takes a zero shader or program as a failure
+                return nextHandle.getAndIncrement();
+            }
+
+            if (type == int.class) {
+                return 0;
+            } else if (type == boolean.class) {
+                return false;
+            } else if (type == float.class) {
+                return 0f;
+            } else if (type == String.class) {
+                return "";
+            }
+            return null;
+        }
+    }
+}
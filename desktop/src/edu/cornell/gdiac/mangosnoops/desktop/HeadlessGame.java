@@ -0,0 +1,224 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.assets.AssetManager;
+import edu.cornell.gdiac.mangosnoops.GameCanvas;
+import edu.cornell.gdiac.mangosnoops.GameMode;
+import edu.cornell.gdiac.mangosnoops.GameplayController;
+import edu.cornell.gdiac.mangosnoops.InputRecording;
+import edu.cornell.gdiac.mangosnoops.LevelObject;
+import edu.cornell.gdiac.mangosnoops.LevelPack;
+import edu.cornell.gdiac.mangosnoops.Menus.SettingsMenu;
+import edu.cornell.gdiac.mangosnoops.SoundController;
+import edu.cornell.gdiac.mangosnoops.roadentity.Car;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Plays levels headless, one after another, each driven by a DriverPolicy.
+ * Must be made inside a HeadlessApplication, after HeadlessBackend.install().
+ *
+ * A run is decided by the level's seed, which seeds the game's random
+ * numbers, and its run number, which with the seed makes the driver's. The
+ * same level, policy and run number therefore always play the same way.
+ *
+ * As in GDXRoot, each level is loaded before the one before it is unloaded,
+ * so the textures and sounds the levels share are loaded only once.
+ */
+public class HeadlessGame {
+    /** Longest a level may run, in game seconds, before it is given up on */
+    private static final float MAX_SECONDS = 900;
+
+    private ScriptedInput input;
+    private GameCanvas canvas;
+    private SettingsMenu settings;
+    private SoundController soundController;
+    private AssetManager manager;
+    /** The last level played, still loaded */
+    private GameMode previous;
+
+    public HeadlessGame(ScriptedInput input) {
+        this.input = input;
+        // Read levels from the pack when there is one, as GDXRoot does
+        try {
+            LevelPack.open(LevelPack.PACK_FILE);
+        } catch (IOException e) {
+            System.out.println("Could not open level pack: " + e.getMessage());
+        }
+        canvas = new GameCanvas();
+        settings = new SettingsMenu(null);
+        soundController = new SoundController(settings);
+        manager = HeadlessBackend.newAssetManager();
+    }
+
+    /**
+     * Play a level to its end.
+     *
+     * Tutorial screens, which pause the game, are clicked away as soon as
+     * they appear.
+     *
+     * @param level file name of the level
+     * @param driver how to play it
+     * @param run number of the run, which picks the driver's random choices
+     * @return how the run went
+     */
+    public HeadlessRun play(String level, DriverPolicy driver, int run) {
+        LevelObject object = readLevel(level);
+        Random rand = new Random(object.getSeed() * 1000003L + run);
+        resize(null, HeadlessBackend.WIDTH, HeadlessBackend.HEIGHT);
+        GameMode mode = load(level, object);
+        mode.show();
+
+        GameplayController game = mode.getGameplayController();
+        int startHealth = game.getCar().getHealth();
+        int maxSteps = (int) (MAX_SECONDS / GameMode.STEP);
+        HeadlessRun r = new HeadlessRun();
+        r.level = level;
+        r.run = run;
+
+        // Start from the same input whatever the last run left, so the run
+        // does not depend on which runs came before it
+        input.releaseAll();
+        input.moveMouse(0, 0);
+        input.endFrame();
+        driver.start();
+        long start = System.nanoTime();
+        while (r.steps < maxSteps && !mode.isLevelComplete()
+                && mode.getGameState() != GameMode.GameState.OVER) {
+            if (mode.getGameState() == GameMode.GameState.PLAY) {
+                driver.drive(game, input, rand);
+            } else {
+                input.setButtonDown(mode.getGameState() == GameMode.GameState.PAUSED);
+            }
+            step(mode, r);
+        }
+        r.nanos = System.nanoTime() - start;
+        input.releaseAll();
+        finish(mode, r, startHealth);
+        return r;
+    }
+
+    /**
+     * Play a level with recorded input, to the end of the recording.
+     *
+     * The input is read from the recording and not the ScriptedInput, and
+     * the screen is kept at the size each step was recorded at, so the level
+     * plays out as it did when it was recorded.
+     *
+     * @param recording the recording, which is left at its end
+     * @return how the replay went; its run number is -1
+     */
+    public HeadlessRun replay(InputRecording recording) {
+        String level = recording.getLevel();
+        resize(null, recording.getStartWidth(), recording.getStartHeight());
+        GameMode mode = load(level, readLevel(level));
+        mode.replayInput(recording);
+        mode.show();
+
+        GameplayController game = mode.getGameplayController();
+        int startHealth = game.getCar().getHealth();
+        HeadlessRun r = new HeadlessRun();
+        r.level = level;
+        r.run = -1;
+
+        long start = System.nanoTime();
+        while (!mode.isReplayFinished()) {
+            resize(mode, recording.getWidth(), recording.getHeight());
+            step(mode, r);
+        }
+        r.nanos = System.nanoTime() - start;
+        finish(mode, r, startHealth);
+        return r;
+    }
+
+    /**
+     * Unload the last level and free everything.
+     */
+    public void dispose() {
+        unloadPrevious();
+        manager.dispose();
+        canvas.dispose();
+    }
+
+    /**
+     * Parse a level file, or read it from the level pack.
+     */
+    private static LevelObject readLevel(String level) {
+        try {
+            return new LevelObject(level);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + level, e);
+        } catch (InvalidFormatException e) {
+            throw new RuntimeException("Could not read " + level, e);
+        }
+    }
+
+    /**
+     * Make a level with its cutscene skipped, and load it in place of the
+     * last one.
+     */
+    private GameMode load(String level, LevelObject object) {
+        GameMode mode = new GameMode(-1, canvas, settings, soundController, level, object);
+        mode.preLoadContent(manager);
+        mode.loadContent(manager);
+        unloadPrevious();
+        previous = mode;
+        return mode;
+    }
+
+    /**
+     * Resize the screen, and the canvas and level laid out for it, as
+     * GDXRoot does when the window is resized.
+     *
+     * @param mode the level being played, or null if none is yet
+     */
+    private void resize(GameMode mode, int width, int height) {
+        if (HeadlessBackend.setSize(width, height)) {
+            canvas.resize();
+            if (mode != null) {
+                mode.resize(width, height);
+            }
+        }
+    }
+
+    /**
+     * Run one step of a level, sampling the children's moods when it is time.
+     */
+    private void step(GameMode mode, HeadlessRun r) {
+        mode.tick();
+        input.endFrame();
+        r.steps++;
+        if (r.steps % Math.round(HeadlessRun.MOOD_SAMPLE_SECONDS / GameMode.STEP) == 0) {
+            Car car = mode.getGameplayController().getCar();
+            r.nedMoods.add((byte) car.getNed().getCurrentMood().ordinal());
+            r.noshMoods.add((byte) car.getNosh().getCurrentMood().ordinal());
+        }
+    }
+
+    /**
+     * Fill in how a run ended.
+     */
+    private void finish(GameMode mode, HeadlessRun r, int startHealth) {
+        GameplayController game = mode.getGameplayController();
+        if (mode.isLevelComplete()) {
+            r.result = HeadlessRun.Result.COMPLETE;
+        } else if (mode.getGameState() == GameMode.GameState.OVER) {
+            r.result = HeadlessRun.Result.DESTROYED;
+        } else {
+            r.result = HeadlessRun.Result.TIMED_OUT;
+        }
+        r.health = game.getCar().getHealth();
+        r.damage = startHealth - r.health;
+        r.progress = game.getRoad().getProgress();
+        soundController.reset();
+    }
+
+    private void unloadPrevious() {
+        if (previous != null) {
+            previous.unloadContent(manager);
+            previous.dispose();
+            previous = null;
+        }
+    }
+}
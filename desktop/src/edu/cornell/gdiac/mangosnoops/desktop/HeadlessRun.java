@@ -0,0 +1,88 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.utils.ByteArray;
+import edu.cornell.gdiac.mangosnoops.hudentity.Child;
+
+/**
+ * How one headless play of a level went: how it ended, how much damage the
+ * car took, how far it got, and how the children felt along the way.
+ *
+ * Runs are made by HeadlessGame.play(), and can be written to and read back
+ * from a single line of text, which is how batch workers report them.
+ */
+public class HeadlessRun {
+    /** Game seconds between samples of the children's moods */
+    public static final float MOOD_SAMPLE_SECONDS = 10;
+
+    /** How a run can end */
+    public enum Result {
+        COMPLETE, DESTROYED, TIMED_OUT
+    }
+
+    private static final Child.Mood[] MOODS = Child.Mood.values();
+
+    public String level;
+    public int run;
+    public Result result;
+    /** Number of gameplay steps the run lasted */
+    public int steps;
+    /** Health the car lost, and the health it had left */
+    public int damage;
+    public int health;
+    /** How far along the road the run ended, from 0 to 1 */
+    public float progress;
+    /** Mood of Ned and of Nosh every MOOD_SAMPLE_SECONDS, as Child.Mood ordinals */
+    public ByteArray nedMoods = new ByteArray();
+    public ByteArray noshMoods = new ByteArray();
+    /** Wall-clock time the run took */
+    public long nanos;
+
+    /**
+     * Return the mood of Ned or Nosh at the given sample.
+     */
+    public Child.Mood getMood(boolean ned, int sample) {
+        return MOODS[(ned ? nedMoods : noshMoods).get(sample)];
+    }
+
+    /**
+     * Return the run as one line of tab-separated fields, for parse().
+     */
+    public String format() {
+        return level + "\t" + run + "\t" + result + "\t" + steps + "\t" + damage + "\t" + health + "\t"
+                + progress + "\t" + nanos + "\t" + formatMoods(nedMoods) + "\t" + formatMoods(noshMoods);
+    }
+
+    /**
+     * Read a run written by format().
+     */
+    public static HeadlessRun parse(String line) {
+        String[] fields = line.split("\t", -1);
+        HeadlessRun r = new HeadlessRun();
+        r.level = fields[0];
+        r.run = Integer.parseInt(fields[1]);
+        r.result = Result.valueOf(fields[2]);
+        r.steps = Integer.parseInt(fields[3]);
+        r.damage = Integer.parseInt(fields[4]);
+        r.health = Integer.parseInt(fields[5]);
+        r.progress = Float.parseFloat(fields[6]);
+        r.nanos = Long.parseLong(fields[7]);
+        parseMoods(fields[8], r.nedMoods);
+        parseMoods(fields[9], r.noshMoods);
+        return r;
+    }
+
+    /** Moods are written one digit per sample */
+    private static String formatMoods(ByteArray moods) {
+        StringBuilder s = new StringBuilder(moods.size);
+        for (int i = 0; i < moods.size; i++) {
+            s.append((char) ('0' + moods.get(i)));
+        }
+        return s.toString();
+    }
+
+    private static void parseMoods(String s, ByteArray moods) {
+        for (int i = 0; i < s.length(); i++) {
+            moods.add((byte) (s.charAt(i) - '0'));
+        }
+    }
+}
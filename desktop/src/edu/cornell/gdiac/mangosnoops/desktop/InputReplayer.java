@@ -0,0 +1,96 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import edu.cornell.gdiac.mangosnoops.InputRecording;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Development tool that replays input recorded by the game (gradle desktop:run
+ * -Precord=DIR) with no window or GPU (gradle desktop:replayInput
+ * -Preplays="DIR/level1.xlsx-1234.input ...", optionally with -Prepeat=N).
+ *
+ * A replay plays the recorded level through the same code as the game did,
+ * so it plays out exactly as it was played. That makes recordings useful in
+ * three ways:
+ *   - to reproduce a bug or a slow patch that was seen in play
+ *   - as a benchmark: the steps/s column times the gameplay code on a real
+ *     game, and -Prepeat plays each recording that many times
+ *   - as regression tests: each replay is checked against how the level
+ *     stood when the recording ended, and the tool exits with an error if
+ *     any replay ended differently, e.g. because the level was changed
+ */
+public class InputReplayer extends ApplicationAdapter {
+    private String[] files;
+    private int repeat;
+
+    public InputReplayer(String[] files, int repeat) {
+        this.files = files;
+        this.repeat = repeat;
+    }
+
+    public static void main(String[] args) {
+        int repeat = 1;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("--repeat")) {
+            repeat = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        String[] files = new String[args.length - first];
+        System.arraycopy(args, first, files, 0, files.length);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new InputReplayer(files, repeat), config);
+    }
+
+    public void create() {
+        ScriptedInput input = new ScriptedInput();
+        HeadlessBackend.install(input);
+        HeadlessGame game = new HeadlessGame(input);
+
+        boolean differs = false;
+        System.out.println("recording                           steps    result      health  progress  steps/s  check");
+        for (String file : files) {
+            for (int i = 0; i < repeat; i++) {
+                try {
+                    differs |= !replay(game, file);
+                } catch (IOException e) {
+                    System.out.println(file + ": " + e.getMessage());
+                    differs = true;
+                }
+            }
+        }
+
+        game.dispose();
+        System.exit(differs ? 1 : 0);
+    }
+
+    /**
+     * Replay a recording, print how it went, and return false if it ended
+     * differently from the recording.
+     */
+    private boolean replay(HeadlessGame game, String file) throws IOException {
+        InputRecording recording = new InputRecording(new FileInputStream(file));
+        HeadlessRun r = game.replay(recording);
+
+        String check;
+        boolean same = true;
+        if (!recording.isComplete()) {
+            check = "cut short, not checked";
+        } else if (r.steps == recording.getFinalSteps() && r.health == recording.getFinalHealth()
+                && r.progress == recording.getFinalProgress()) {
+            check = "same";
+        } else {
+            check = String.format("DIFFERS: recorded %d steps, health %d, progress %.4f",
+                    recording.getFinalSteps(), recording.getFinalHealth(), recording.getFinalProgress());
+            same = false;
+        }
+        System.out.println(String.format("%-35s %-8d %-11s %-7d %-9.4f %-8.0f %s", new File(file).getName(),
+                r.steps, r.result.toString().toLowerCase().replace('_', ' '), r.health, r.progress,
+                r.steps / (r.nanos / 1e9), check));
+        return same;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.mangosnoops.GameMode;
+import edu.cornell.gdiac.mangosnoops.LevelPack;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Development tool that plays levels through with no window or GPU, as fast
+ * as the gameplay code can run (gradle desktop:simulateLevels, optionally
+ * with -Plevels="level1.xlsx level2.xlsx").
+ *
+ * Each level is played by a GameMode stepped with tick(), so the input,
+ * gameplay, collision and sound code is the game's own; only drawing is
+ * left out. Nobody steers: the car takes whatever hits it, and tutorial
+ * screens are clicked away as soon as they appear. Without arguments, every
+ * main level is played.
+ *
+ * For each level this prints how it ended, how long it lasted in game time,
+ * the damage the car took, and how fast the steps ran.
+ */
+public class LevelSimulator extends ApplicationAdapter {
+    private String[] levels;
+
+    public LevelSimulator(String[] levels) {
+        this.levels = levels;
+    }
+
+    public static void main(String[] args) {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new LevelSimulator(args), config);
+    }
+
+    public void create() {
+        ScriptedInput input = new ScriptedInput();
+        HeadlessBackend.install(input);
+        if (levels.length == 0) {
+            levels = findLevels();
+        }
+
+        HeadlessGame game = new HeadlessGame(input);
+        DriverPolicy driver = DriverPolicy.forName("idle");
+        System.out.println("level           result      game time (s)  damage  steps/s");
+        for (String level : levels) {
+            HeadlessRun r = game.play(level, driver, 0);
+            System.out.println(String.format("%-15s %-11s %-14.1f %-7d %.0f", level,
+                    r.result.toString().toLowerCase().replace('_', ' '), r.steps * GameMode.STEP,
+                    r.damage, r.steps / (r.nanos / 1e9)));
+        }
+
+        game.dispose();
+        Gdx.app.exit();
+    }
+
+    /**
+     * Return the main levels: those in the level pack if there is one, and
+     * otherwise those in the level directory.
+     */
+    static String[] findLevels() {
+        Array<String> found = new Array<String>();
+        try {
+            LevelPack pack = LevelPack.open(LevelPack.PACK_FILE);
+            if (pack != null) {
+                for (String fn : pack.getLevelNames()) {
+                    if (!fn.startsWith("tut")) {
+                        found.add(fn);
+                    }
+                }
+                return found.toArray(String.class);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not open level pack: " + e.getMessage());
+        }
+
+        File[] files = new File("levels/").listFiles();
+        Arrays.sort(files);
+        for (File f : files) {
+            if (f.getName().matches("^level[0-9]+.xlsx$")) {
+                found.add(f.getName());
+            }
+        }
+        return found.toArray(String.class);
+    }
+}
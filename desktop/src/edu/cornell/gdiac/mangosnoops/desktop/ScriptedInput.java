@@ -0,0 +1,106 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.utils.IntSet;
+
+/**
+ * Input set by code rather than a player, for running the game headless.
+ *
+ * A driver sets the mouse and keys before each frame and calls endFrame()
+ * after it. As with a real backend, a key pressed during a frame is "just
+ * pressed" for that frame only, and the mouse delta is the movement since
+ * the last frame.
+ */
+public class ScriptedInput extends MockInput {
+    private int x;
+    private int y;
+    private int deltaX;
+    private int deltaY;
+    private boolean buttonDown;
+    private IntSet keysDown = new IntSet();
+    private IntSet keysJustPressed = new IntSet();
+
+    /**
+     * Move the mouse, adding to this frame's delta.
+     */
+    public void moveMouse(int x, int y) {
+        deltaX += x - this.x;
+        deltaY += y - this.y;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Press or release the left mouse button.
+     */
+    public void setButtonDown(boolean down) {
+        buttonDown = down;
+    }
+
+    /**
+     * Press a key, which counts as just pressed until endFrame().
+     */
+    public void pressKey(int key) {
+        if (keysDown.add(key)) {
+            keysJustPressed.add(key);
+        }
+    }
+
+    /**
+     * Release a key.
+     */
+    public void releaseKey(int key) {
+        keysDown.remove(key);
+    }
+
+    /**
+     * Release every key and the mouse button.
+     */
+    public void releaseAll() {
+        keysDown.clear();
+        buttonDown = false;
+    }
+
+    /**
+     * Finish a frame: forget which keys were just pressed and how far the
+     * mouse moved.
+     */
+    public void endFrame() {
+        keysJustPressed.clear();
+        deltaX = 0;
+        deltaY = 0;
+    }
+
+    public int getX() { return x; }
+
+    public int getX(int pointer) { return pointer == 0 ? x : 0; }
+
+    public int getY() { return y; }
+
+    public int getY(int pointer) { return pointer == 0 ? y : 0; }
+
+    public int getDeltaX() { return deltaX; }
+
+    public int getDeltaX(int pointer) { return pointer == 0 ? deltaX : 0; }
+
+    public int getDeltaY() { return deltaY; }
+
+    public int getDeltaY(int pointer) { return pointer == 0 ? deltaY : 0; }
+
+    public boolean isTouched() { return buttonDown; }
+
+    public boolean isTouched(int pointer) { return pointer == 0 && buttonDown; }
+
+    public boolean isButtonPressed(int button) {
+        return button == Input.Buttons.LEFT && buttonDown;
+    }
+
+    public boolean isKeyPressed(int key) {
+        return key == Input.Keys.ANY_KEY ? keysDown.size > 0 : keysDown.contains(key);
+    }
+
+    public boolean isKeyJustPressed(int key) {
+        return key == Input.Keys.ANY_KEY ? keysJustPressed.size > 0 : keysJustPressed.contains(key);
+    }
+}
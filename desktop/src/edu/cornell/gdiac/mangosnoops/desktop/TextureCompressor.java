@@ -0,0 +1,86 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import edu.cornell.gdiac.mangosnoops.CompressedTextures;
+import edu.cornell.gdiac.mangosnoops.GameMode;
+
+import java.io.File;
+
+/**
+ * Build step that makes ETC1 copies of the backgrounds and cutscene frames
+ * (gradle desktop:compressTextures, run from the assets directory).
+ *
+ * ETC1 has no alpha channel, so an image with any transparent pixel is left
+ * as a PNG only. desktop:dist only runs this step with -Petc1, for targets
+ * whose GL takes ETC1 (see CompressedTextures).
+ */
+public class TextureCompressor {
+
+    public static void main(String[] args) {
+        // ETC1 encoding is native
+        GdxNativesLoader.load();
+
+        int count = 0;
+        for (String file : GameMode.BACKGROUNDS) {
+            count += compress(file) ? 1 : 0;
+        }
+        for (String[] frames : GameMode.CUTSCENES) {
+            for (String file : frames) {
+                count += compress(file) ? 1 : 0;
+            }
+        }
+        System.out.println("Compressed " + count + " images into " + CompressedTextures.COMPRESSED_DIR);
+    }
+
+    /**
+     * Write the ETC1 copy of an image, unless it is up to date.
+     *
+     * @param file the image file, relative to the assets
+     * @return true if the image has a compressed copy
+     */
+    private static boolean compress(String file) {
+        File in = new File(file);
+        File out = new File(CompressedTextures.compressedFile(file));
+        if (out.exists() && out.lastModified() >= in.lastModified()) {
+            return true;
+        }
+
+        Pixmap image = new Pixmap(new FileHandle(in));
+        if (!isOpaque(image)) {
+            System.out.println("Skipping " + file + ": ETC1 cannot hold its transparency");
+            image.dispose();
+            return false;
+        }
+
+        // The encoder only takes RGB images
+        Pixmap rgb = new Pixmap(image.getWidth(), image.getHeight(), Pixmap.Format.RGB888);
+        rgb.setBlending(Pixmap.Blending.None);
+        rgb.drawPixmap(image, 0, 0);
+        image.dispose();
+
+        out.getParentFile().mkdirs();
+        ETC1.ETC1Data data = ETC1.encodeImagePKM(rgb);
+        data.write(new FileHandle(out));
+        data.dispose();
+        rgb.dispose();
+        return true;
+    }
+
+    /**
+     * Return true if every pixel of an image is fully opaque. getPixel is
+     * RGBA8888 whatever the format, so alpha is the low byte.
+     */
+    private static boolean isOpaque(Pixmap image) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getPixel(x, y) & 0xff) != 0xff) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,131 @@
+package edu.cornell.gdiac.mangosnoops.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.decals.Decal;
+import com.badlogic.gdx.math.Vector2;
+import edu.cornell.gdiac.mangosnoops.GameCanvas;
+
+import java.util.Random;
+
+/**
+ * Development tool that times a full world pass of the GameCanvas: placing
+ * every road object and flushing the decal batch (gradle
+ * desktop:benchmarkWorldDraw).
+ *
+ * The "once per frame" column moves the camera once before the pass, as the
+ * game does, so its matrices are computed once. The "per object" column
+ * changes the field of view before every object, which makes the canvas
+ * recompute the camera for each one, as it used to.
+ */
+public class WorldDrawBenchmark extends ApplicationAdapter {
+    /** Numbers of road objects to try */
+    private static final int[] OBJECT_COUNTS = { 100, 1000, 5000 };
+    private static final int WARMUP_FRAMES = 120;
+    private static final int FRAMES = 600;
+    /** Range of the objects along the road, like the live enemies */
+    private static final float NEAR_Y = -3;
+    private static final float FAR_Y = 26;
+    private static final float HOVER = 4.5f;
+
+    private GameCanvas canvas;
+    private Texture texture;
+    private Decal[] decals;
+    private float[] xs;
+    private float[] ys;
+
+    /** Current run: index into OBJECT_COUNTS, and whether it updates per object */
+    private int run;
+    private boolean perObject;
+    private int frame;
+    private long start;
+    private long[] onceTimes = new long[OBJECT_COUNTS.length];
+    private long[] perObjectTimes = new long[OBJECT_COUNTS.length];
+
+    public static void main(String[] args) {
+        LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
+        config.width = 1600;
+        config.height = 900;
+        config.resizable = false;
+        // Run as fast as possible
+        config.vSyncEnabled = false;
+        config.foregroundFPS = 0;
+        config.backgroundFPS = 0;
+        new LwjglApplication(new WorldDrawBenchmark(), config);
+    }
+
+    public void create() {
+        canvas = new GameCanvas();
+        canvas.resetCam();
+        canvas.setCameraXY(new Vector2(0, 0));
+
+        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
+        pixmap.setColor(1, 1, 1, 1);
+        pixmap.fill();
+        texture = new Texture(pixmap);
+        pixmap.dispose();
+        TextureRegion region = new TextureRegion(texture);
+
+        int max = OBJECT_COUNTS[OBJECT_COUNTS.length - 1];
+        Random rand = new Random(max);
+        decals = new Decal[max];
+        xs = new float[max];
+        ys = new float[max];
+        for (int i = 0; i < max; i++) {
+            decals[i] = GameCanvas.newRoadDecal(region, 0.3f, 0.3f, 90);
+            xs[i] = rand.nextFloat() * 2 - 1;
+            ys[i] = NEAR_Y + rand.nextFloat() * (FAR_Y - NEAR_Y);
+        }
+    }
+
+    public void render() {
+        if (frame == WARMUP_FRAMES) {
+            start = System.nanoTime();
+        }
+
+        int n = OBJECT_COUNTS[run];
+        canvas.clearScreen();
+        canvas.setCameraFOV(1);
+        for (int i = 0; i < n; i++) {
+            if (perObject) {
+                canvas.setCameraFOV(i % 2 == 0 ? 1.0001f : 1);
+            }
+            canvas.drawRoadObject(decals[i], xs[i], ys[i], HOVER);
+        }
+        canvas.drawWorld();
+        // Include the GPU's share of the pass
+        Gdx.gl.glFinish();
+
+        frame++;
+        if (frame < WARMUP_FRAMES + FRAMES) {
+            return;
+        }
+        long mean = (System.nanoTime() - start) / FRAMES;
+        if (perObject) {
+            perObjectTimes[run] = mean;
+            run++;
+        } else {
+            onceTimes[run] = mean;
+        }
+        perObject = !perObject;
+        frame = 0;
+
+        if (run == OBJECT_COUNTS.length) {
+            System.out.println("objects    once per frame (ns/frame)    per object (ns/frame)");
+            for (int i = 0; i < OBJECT_COUNTS.length; i++) {
+                System.out.println(String.format("%-10d %-28d %d", OBJECT_COUNTS[i], onceTimes[i], perObjectTimes[i]));
+            }
+            Gdx.app.exit();
+        }
+    }
+
+    public void dispose() {
+        texture.dispose();
+        canvas.dispose();
+    }
+}